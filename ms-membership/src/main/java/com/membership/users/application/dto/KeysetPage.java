@@ -0,0 +1,45 @@
+package com.membership.users.application.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page d'une liste parcourue par clé (keyset) : éléments triés par ID croissant et curseur de la page suivante.
+ * La page suivante est lue avec {@code id > nextCursor}, sans OFFSET : son coût ne dépend pas de sa position.
+ *
+ * @param nextCursor ID à passer dans le paramètre {@code after} pour lire la page suivante, null sur la dernière page
+ */
+public record KeysetPage<T>(List<T> items, Long nextCursor) {
+
+    /**
+     * Page unique, non paginée (liste complète)
+     */
+    public static <T> KeysetPage<T> last(List<T> items) {
+        return new KeysetPage<>(items, null);
+    }
+
+    /**
+     * @param rows Résultats de la requête, lue avec une limite de {@code limit + 1} : l'élément en trop signale
+     *             l'existence d'une page suivante et n'est pas renvoyé
+     */
+    public static <E, T> KeysetPage<T> of(List<E> rows, int limit, Function<E, Long> id, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> page = hasNext ? rows.subList(0, limit) : rows;
+
+        return new KeysetPage<>(page.stream().map(mapper).toList(), hasNext ? id.apply(page.get(limit - 1)) : null);
+    }
+
+    /**
+     * Taille de page demandée, bornée à [1, max] ; {@code defaultLimit} si le client n'en précise pas
+     */
+    public static int limit(Integer requested, int defaultLimit, int max) {
+        return Math.clamp(requested != null ? requested : defaultLimit, 1, max);
+    }
+
+    /**
+     * Premier curseur : les IDs générés sont strictement positifs
+     */
+    public static long after(Long cursor) {
+        return cursor != null ? cursor : 0L;
+    }
+}
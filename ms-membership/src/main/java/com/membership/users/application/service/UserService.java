@@ -4,9 +4,12 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.membership.users.application.dto.KeysetPage;
 import com.membership.users.application.dto.UserRequestDTO;
 import com.membership.users.application.dto.UserResponseDTO;
 import com.membership.users.application.mapper.UserMapper;
@@ -16,6 +19,8 @@ import com.membership.users.infrastructure.exception.ResourceAlreadyExistsExcept
 import com.membership.users.infrastructure.exception.ResourceNotFoundException;
 
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -37,19 +42,23 @@ public class UserService {
     private final UserMapper userMapper;
     private final MeterRegistry meterRegistry;
 
+    @Value("${pagination.default-limit:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxPageSize = 500;
+
+    // Liste complète quand le client ne précise ni limit ni after (ancien comportement), désactivée par défaut
+    @Value("${pagination.unpaginated:false}")
+    private boolean unpaginated = false;
+
     /**
-     * Récupère tous les utilisateurs
+     * Récupère une page d'utilisateurs, par ID croissant
      */
-    public List<UserResponseDTO> getAllUsers() {
-        log.debug("Récupération de tous les utilisateurs");
-        
-        List<User> users = userRepository.findAll();
-        
-        log.info("Nombre d'utilisateurs récupérés: {}", users.size());
-        
-        return users.stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+    public KeysetPage<UserResponseDTO> getUsers(Long after, Integer limit) {
+        log.debug("Récupération des utilisateurs après l'ID {}", after);
+
+        return page(after, limit, userRepository::findAll, userRepository::findByIdGreaterThanOrderByIdAsc);
     }
 
     /**
@@ -166,18 +175,13 @@ public class UserService {
     }
 
     /**
-     * Récupère tous les utilisateurs actifs
+     * Récupère une page d'utilisateurs actifs, par ID croissant
      */
-    public List<UserResponseDTO> getActiveUsers() {
-        log.debug("Récupération des utilisateurs actifs");
-        
-        List<User> users = userRepository.findByActiveTrue();
-        
-        log.info("Nombre d'utilisateurs actifs: {}", users.size());
-        
-        return users.stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+    public KeysetPage<UserResponseDTO> getActiveUsers(Long after, Integer limit) {
+        log.debug("Récupération des utilisateurs actifs après l'ID {}", after);
+
+        return page(after, limit, userRepository::findByActiveTrue,
+                userRepository::findByActiveTrueAndIdGreaterThanOrderByIdAsc);
     }
 
     /**
@@ -197,4 +201,24 @@ public class UserService {
         
         return userMapper.toDto(deactivatedUser);
     }
+
+    /**
+     * Page par clé : {@code limit + 1} utilisateurs d'ID supérieur au curseur, le dernier signalant une page suivante.
+     * Si la pagination est désactivée et que le client n'en demande pas, renvoie la liste complète.
+     */
+    private KeysetPage<UserResponseDTO> page(Long after, Integer limit, Supplier<List<User>> all,
+                                             BiFunction<Long, Limit, List<User>> query) {
+        if (unpaginated && after == null && limit == null) {
+            List<User> users = all.get();
+            log.info("Nombre d'utilisateurs récupérés: {}", users.size());
+            return KeysetPage.last(users.stream().map(userMapper::toDto).collect(Collectors.toList()));
+        }
+
+        int size = KeysetPage.limit(limit, defaultPageSize, maxPageSize);
+        KeysetPage<UserResponseDTO> page = KeysetPage.of(query.apply(KeysetPage.after(after), Limit.of(size + 1)),
+                size, User::getId, userMapper::toDto);
+
+        log.info("Nombre d'utilisateurs récupérés: {} (page suivante après: {})", page.items().size(), page.nextCursor());
+        return page;
+    }
 }
@@ -22,7 +22,9 @@ import java.time.LocalDateTime;
  * - Builder pattern pour une construction flexible
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users",
+        // Liste paginée par clé des utilisateurs actifs
+        indexes = @Index(name = "idx_users_active_id", columnList = "active, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
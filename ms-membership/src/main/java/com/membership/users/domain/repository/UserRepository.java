@@ -1,5 +1,6 @@
 package com.membership.users.domain.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -34,6 +35,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     List<User> findByActiveTrue();
 
+    /**
+     * Pages par clé : utilisateurs d'ID supérieur au curseur, par ID croissant (clé primaire)
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Utilisateurs actifs par page (index idx_users_active_id)
+     */
+    List<User> findByActiveTrueAndIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
     /**
      * Recherche des utilisateurs par nom (insensible à la casse)
      */
@@ -0,0 +1,7 @@
+package com.membership.users.infrastructure.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
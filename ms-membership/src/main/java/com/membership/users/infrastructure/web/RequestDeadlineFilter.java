@@ -0,0 +1,68 @@
+package com.membership.users.infrastructure.web;
+
+import com.membership.users.infrastructure.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Lit l'en-tête {@value RequestDeadline#HEADER} et rend l'échéance disponible pendant toute la requête
+ * ({@link RequestDeadline#current()}). Une requête qui arrive déjà expirée est refusée (504) sans être traitée.
+ */
+@Slf4j
+@Component
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final Counter expiredOnArrival;
+
+    public RequestDeadlineFilter(@Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver,
+                                 MeterRegistry meterRegistry) {
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.expiredOnArrival = Counter.builder("http.server.requests.deadline.exceeded").register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(RequestDeadline.HEADER);
+        if (header == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Optional<Instant> deadline = RequestDeadline.parse(header);
+        if (deadline.isEmpty()) {
+            log.warn("En-tête {} invalide ignoré: {}", RequestDeadline.HEADER, header);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!RequestDeadline.remaining(deadline.get()).isPositive()) {
+            expiredOnArrival.increment();
+            // Réponse produite par GlobalExceptionHandler, comme pour les erreurs des contrôleurs
+            handlerExceptionResolver.resolveException(request, response, null,
+                    new DeadlineExceededException("L'échéance de la requête était dépassée à sa réception"));
+            return;
+        }
+
+        RequestDeadline.set(deadline.get());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+}
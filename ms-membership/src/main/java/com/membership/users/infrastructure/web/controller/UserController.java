@@ -15,9 +15,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.membership.users.application.dto.KeysetPage;
 import com.membership.users.application.dto.UserRequestDTO;
 import com.membership.users.application.dto.UserResponseDTO;
 import com.membership.users.application.service.UserService;
+import com.membership.users.infrastructure.web.KeysetPagination;
 
 import java.net.URI;
 import java.util.List;
@@ -51,19 +53,23 @@ public class UserController {
      * @return Liste des utilisateurs avec code 200 OK
      */
     @Operation(summary = "Récupérer tous les utilisateurs", 
-               description = "Retourne la liste complète de tous les utilisateurs enregistrés")
+               description = "Retourne une page d'utilisateurs par ID croissant ; l'en-tête X-Next-Cursor donne le paramètre after de la page suivante")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Liste récupérée avec succès",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                                      schema = @Schema(implementation = UserResponseDTO.class)))
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
+    public ResponseEntity<List<UserResponseDTO>> getAllUsers(
+            @Parameter(description = "Curseur : ID du dernier utilisateur de la page précédente (en-tête X-Next-Cursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Nombre maximal d'utilisateurs (pagination.default-limit si absent)")
+            @RequestParam(required = false) Integer limit) {
         log.info("GET /api/v1/users - Récupération de tous les utilisateurs");
         
-        List<UserResponseDTO> users = userService.getAllUsers();
+        KeysetPage<UserResponseDTO> users = userService.getUsers(after, limit);
         
-        return ResponseEntity.ok(users);
+        return KeysetPagination.ok(users).body(users.items());
     }
 
     /**
@@ -239,12 +245,16 @@ public class UserController {
                                      schema = @Schema(implementation = UserResponseDTO.class)))
     })
     @GetMapping(value = "/active", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<UserResponseDTO>> getActiveUsers() {
+    public ResponseEntity<List<UserResponseDTO>> getActiveUsers(
+            @Parameter(description = "Curseur : ID du dernier utilisateur de la page précédente (en-tête X-Next-Cursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Nombre maximal d'utilisateurs (pagination.default-limit si absent)")
+            @RequestParam(required = false) Integer limit) {
         log.info("GET /api/v1/users/active - Récupération des utilisateurs actifs");
         
-        List<UserResponseDTO> users = userService.getActiveUsers();
+        KeysetPage<UserResponseDTO> users = userService.getActiveUsers(after, limit);
         
-        return ResponseEntity.ok(users);
+        return KeysetPagination.ok(users).body(users.items());
     }
 
     /**
@@ -10,6 +10,7 @@ CREATE TABLE IF NOT EXISTS users (
     created_at TIMESTAMP NOT NULL,
     updated_at TIMESTAMP
 );
+CREATE INDEX IF NOT EXISTS idx_users_active_id ON users (active, id);
 
 -- Insert 10 users
 INSERT INTO users (id, first_name, last_name, email, active, created_at, updated_at) VALUES (1, 'Alice', 'Durand', 'alice.durand@example.com', TRUE, '2025-01-01 09:00:00', NULL);
@@ -1,6 +1,7 @@
 package com.membership.users.infrastructure.web.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.membership.users.application.dto.KeysetPage;
 import com.membership.users.application.dto.UserRequestDTO;
 import com.membership.users.application.dto.UserResponseDTO;
 import com.membership.users.application.service.UserService;
@@ -45,12 +46,13 @@ class UserControllerTest {
                 .active(true)
                 .build();
 
-        when(userService.getAllUsers()).thenReturn(List.of(dto));
+        when(userService.getUsers(null, 1)).thenReturn(new KeysetPage<>(List.of(dto), 1L));
 
-        mockMvc.perform(get("/api/v1/users").accept(MediaType.APPLICATION_JSON))
+        mockMvc.perform(get("/api/v1/users").param("limit", "1").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$[0].id").value(1));
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(header().string("X-Next-Cursor", "1"));
     }
 
     @Test
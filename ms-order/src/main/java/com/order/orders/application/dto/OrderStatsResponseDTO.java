@@ -0,0 +1,19 @@
+package com.order.orders.application.dto;
+
+import com.order.orders.domain.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatsResponseDTO {
+
+    private Map<OrderStatus, Long> countsByStatus;
+    private long total;
+}
@@ -0,0 +1,20 @@
+package com.order.orders.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueBucketResponseDTO {
+
+    private LocalDateTime start;
+    private BigDecimal revenue;
+    private long orderCount;
+}
@@ -0,0 +1,26 @@
+package com.order.orders.application.dto;
+
+import com.order.orders.domain.entity.RevenueGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueResponseDTO {
+
+    private String window;
+    private RevenueGranularity granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private BigDecimal revenue;
+    private long orderCount;
+    private List<RevenueBucketResponseDTO> buckets;
+}
@@ -0,0 +1,30 @@
+package com.order.orders.application.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Mise à jour d'un état en mémoire qui ne doit refléter que des écritures validées
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Exécute {@code update} après le commit de la transaction liée au thread, ou immédiatement s'il n'y en a pas
+     * (profil "reactive")
+     */
+    static void run(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
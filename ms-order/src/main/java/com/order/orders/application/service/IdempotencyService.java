@@ -0,0 +1,230 @@
+package com.order.orders.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.orders.application.dto.OrderRequestDTO;
+import com.order.orders.application.dto.OrderResponseDTO;
+import com.order.orders.domain.entity.IdempotencyRecord;
+import com.order.orders.domain.repository.IdempotencyRecordRepository;
+import com.order.orders.infrastructure.exception.ResourceAlreadyExistsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Support de l'en-tête Idempotency-Key pour la création de commandes.
+ * - Les réponses récentes sont gardées en mémoire (LRU borné, avec TTL) et en base pour la durabilité
+ * - Une requête rejouée renvoie la réponse enregistrée sans rappeler ms-product ni ms-membership
+ * - Les requêtes concurrentes sur la même clé attendent la fin de la première au lieu de la doubler
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${idempotency.ttl:PT24H}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries = 10_000;
+
+    @Value("${idempotency.wait-timeout:PT30S}")
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    private Map<String, IdempotencyRecord> recentRecords;
+
+    @PostConstruct
+    public void init() {
+        recentRecords = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Exécute la création de commande une seule fois par clé.
+     *
+     * @param key La valeur de l'en-tête Idempotency-Key
+     * @param request La requête, dont l'empreinte doit être identique à chaque rejeu
+     * @param action La création de commande ; son résultat est enregistré dans la même transaction
+     */
+    public OrderResponseDTO execute(String key, OrderRequestDTO request, Supplier<OrderResponseDTO> action) {
+        return execute(key, request, recordFor -> new TransactionTemplate(transactionManager).execute(status -> {
+            idempotencyRecordRepository.deleteExpired(key, LocalDateTime.now());
+            OrderResponseDTO response = action.get();
+            // persist + flush (IdempotencyRecord#isNew) : une clé insérée entre-temps par une autre instance échoue
+            // ici sur la clé primaire, avant le commit de la commande
+            idempotencyRecordRepository.saveAndFlush(recordFor.apply(response));
+            return response;
+        }));
+    }
+
+    /**
+     * Variante du profil "reactive", où la commande est écrite en R2DBC : une transaction JPA ne l'annulerait pas.
+     * {@code creation} reçoit de quoi construire l'enregistrement de la clé à partir de la réponse, et doit l'insérer
+     * dans la même transaction R2DBC que la commande.
+     * Appel bloquant, à exécuter hors de la boucle d'événements.
+     */
+    public OrderResponseDTO executeReactive(String key, OrderRequestDTO request,
+                                            Function<Function<OrderResponseDTO, IdempotencyRecord>, Mono<OrderResponseDTO>> creation) {
+        return execute(key, request, recordFor -> creation.apply(recordFor).block());
+    }
+
+    private OrderResponseDTO execute(String key, OrderRequestDTO request,
+                                     Function<Function<OrderResponseDTO, IdempotencyRecord>, OrderResponseDTO> creation) {
+        String requestHash = hash(request);
+
+        while (true) {
+            IdempotencyRecord record = lookup(key);
+            if (record != null) return replay(record, requestHash);
+
+            CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+            CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(key, mine);
+
+            if (running != null) {
+                try {
+                    return replay(running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS), requestHash);
+                } catch (ExecutionException e) {
+                    // La première requête a échoué sans rien enregistrer : celle-ci peut être exécutée
+                    continue;
+                } catch (TimeoutException e) {
+                    throw new ResourceAlreadyExistsException("Une requête avec cette Idempotency-Key est toujours en cours de traitement");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Attente de la requête idempotente interrompue", e);
+                }
+            }
+
+            try {
+                // Une requête a pu se terminer entre la première lecture et la prise du verrou
+                record = lookup(key);
+                if (record != null) {
+                    mine.complete(record);
+                    return replay(record, requestHash);
+                }
+
+                AtomicReference<IdempotencyRecord> stored = new AtomicReference<>();
+                OrderResponseDTO response = creation.apply(created -> {
+                    stored.set(newRecord(key, requestHash, created));
+                    return stored.get();
+                });
+
+                // Les requêtes en attente ne sont libérées qu'après le commit
+                recentRecords.put(key, stored.get());
+                mine.complete(stored.get());
+                return response;
+            } catch (DataIntegrityViolationException e) {
+                // Clé insérée par une autre instance : la commande de cette requête, écrite dans la même transaction
+                // que la clé, a été annulée avec elle
+                mine.completeExceptionally(e);
+                throw new ResourceAlreadyExistsException("Une requête avec cette Idempotency-Key est déjà en cours de traitement");
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+    }
+
+    /**
+     * Purge périodique des clés expirées en base
+     */
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("{} clés d'idempotence expirées supprimées", deleted);
+        }
+    }
+
+    private IdempotencyRecord lookup(String key) {
+        IdempotencyRecord record = recentRecords.get(key);
+        if (record == null) {
+            record = idempotencyRecordRepository.findById(key).orElse(null);
+            if (record != null) recentRecords.put(key, record);
+        }
+
+        if (record != null && record.getExpiresAt().isBefore(LocalDateTime.now())) {
+            recentRecords.remove(key);
+            return null;
+        }
+        return record;
+    }
+
+    private IdempotencyRecord newRecord(String key, String requestHash, OrderResponseDTO response) {
+        try {
+            return IdempotencyRecord.builder()
+                    .key(key)
+                    .requestHash(requestHash)
+                    .responseBody(objectMapper.writeValueAsString(response))
+                    .expiresAt(LocalDateTime.now().plus(ttl))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Impossible de sérialiser la réponse idempotente", e);
+        }
+    }
+
+    private OrderResponseDTO replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new ResourceAlreadyExistsException("La clé Idempotency-Key a déjà été utilisée pour une requête différente");
+        }
+
+        Counter.builder("orders.idempotency.replayed")
+                .description("Nombre de créations de commande rejouées depuis une Idempotency-Key")
+                .register(meterRegistry)
+                .increment();
+
+        try {
+            return objectMapper.readValue(record.getResponseBody(), OrderResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Impossible de relire la réponse idempotente", e);
+        }
+    }
+
+    private String hash(OrderRequestDTO request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Impossible de calculer l'empreinte de la requête", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.order.orders.application.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.order.orders.application.dto.OrderResponseDTO;
+import com.order.orders.application.mapper.OrderMapper;
+import com.order.orders.domain.entity.Order;
+import com.order.orders.domain.entity.OrderStatus;
+import com.order.orders.domain.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Export des commandes en JSON délimité par des retours à la ligne (une commande par ligne).
+ * Mémoire constante quel que soit le nombre de commandes : lecture par blocs de
+ * {@link OrderRepository#EXPORT_FETCH_SIZE} lignes, chaque commande est écrite puis détachée du contexte
+ * de persistance, la réponse est vidée vers le client à chaque bloc.
+ * <p>
+ * Métrique : {@code commandes.exportees}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    // Une fois par bloc lu
+    private static final int FLUSH_INTERVAL = OrderRepository.EXPORT_FETCH_SIZE;
+
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Écrit les commandes filtrées dans {@code output}, par ID croissant
+     *
+     * @param status Statut des commandes, toutes si null
+     * @param from   Premier jour de création inclus, sans limite si null
+     * @param to     Dernier jour de création inclus, sans limite si null
+     * @return Nombre de commandes exportées
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(OrderStatus status, LocalDate from, LocalDate to, OutputStream output) throws IOException {
+        log.info("Export des commandes (statut: {}, du {} au {})", status, from, to);
+
+        // Le flush de chaque ligne enverrait un paquet par commande
+        ObjectWriter writer = objectMapper.writerFor(OrderResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        Counter exported = Counter.builder("commandes.exportees").register(meterRegistry);
+
+        long start = System.nanoTime();
+        long count = 0;
+        LocalDateTime createdFrom = from == null ? null : from.atStartOfDay();
+        LocalDateTime createdBefore = to == null ? null : to.plusDays(1).atStartOfDay();
+
+        try (Stream<Order> orders = orderRepository.streamForExport(status, createdFrom, createdBefore);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            // La réponse HTTP est fermée par le conteneur ; pas d'espace entre deux commandes, seulement le retour à la ligne
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                Order order = iterator.next();
+                writer.writeValue(generator, orderMapper.toDto(order));
+                generator.writeRaw('\n');
+                entityManager.detach(order);
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        } finally {
+            exported.increment(count);
+        }
+
+        log.info("{} commandes exportées en {} ms", count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return count;
+    }
+}
@@ -0,0 +1,110 @@
+package com.order.orders.application.service;
+
+import com.order.orders.domain.entity.Order;
+import com.order.orders.domain.entity.OrderStatus;
+import com.order.orders.infrastructure.exception.FieldValueException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Règles de changement de statut d'une commande et métriques associées (nombre par statut, variation du chiffre d'affaires).
+ * Sans accès à la base ni aux services externes : partagé par {@link OrderService} et {@link ReactiveOrderService}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderLifecycle {
+
+    private final OrderStatsService orderStatsService;
+
+    /**
+     * Vérifie le statut demandé, avant même de charger la commande.
+     */
+    public void checkTargetStatus(OrderStatus target) {
+        if (target == OrderStatus.PENDING) {
+            throw new FieldValueException("orderStatusRequestDTO","status",target,"Une commande ne peut pas revenir au statut 'en attente'");
+        }
+    }
+
+    /**
+     * Vérifie que la commande peut passer de son statut actuel au statut demandé.
+     */
+    public void checkStatusChange(Order order, OrderStatus target) {
+        if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
+            throw new FieldValueException("order","status",order.getStatus(),"Une commande ne peut pas être modifiée si elle est livrée ou annulée");
+        }
+
+        // Si la commande a un statut plus avancé que celui de la demande d'update
+        // On refuse la mise à jour
+        if (order.getStatus().getScore() > target.getScore()) {
+            throw new FieldValueException("orderStatusRequestDTO","status",target,"Une commande ne peut pas être modifiée vers un état en amont de son statut actuel");
+        }
+    }
+
+    /**
+     * Vérifie que la commande peut être annulée.
+     */
+    public void checkCancellation(Order order) {
+        if (order.getStatus().getScore() == 4) { // 4 = DELIVERED or CANCELLED
+            throw new FieldValueException("order","status",order.getStatus(),"Une commande ne peut pas être annulée si elle est livrée ou déjà annulée");
+        }
+    }
+
+    /**
+     * La réservation de stock est confirmée à la sortie du statut PENDING, sauf en cas d'annulation.
+     */
+    public boolean commitsStockHold(OrderStatus target) {
+        return target != OrderStatus.CANCELLED;
+    }
+
+    /**
+     * Applique le nouveau statut à la commande (sans la sauvegarder).
+     * À appeler une fois la réservation de stock confirmée ou libérée ; le nombre de commandes par statut est mis à
+     * jour par {@link #recordStatusChange} une fois le statut enregistré.
+     *
+     * @return Variation du chiffre d'affaires en centimes, à reporter à la date de commande (voir
+     * {@link RevenueRollupService#record}) : le montant à la confirmation, son opposé à l'annulation d'une commande
+     * confirmée, 0 sinon
+     */
+    public long applyStatusChange(Order order, OrderStatus target) {
+        long revenueCents = 0;
+
+        if (order.getStatus() == OrderStatus.PENDING && target != OrderStatus.CANCELLED) {
+            log.info("Nouvelle commande confirmée, cumul du montant généré");
+            order.setOrderDate(LocalDateTime.now());
+            revenueCents = toCents(order.getTotalAmount());
+        }
+
+        // Annulation après confirmation : le montant est retiré des agrégats de la date de commande
+        // Rem: le champ orderDate est modifié seulement si la commande change d'état depuis PENDING
+        if (target == OrderStatus.CANCELLED && order.getStatus() != OrderStatus.PENDING) {
+            revenueCents = -toCents(order.getTotalAmount());
+        }
+
+        order.setStatus(target);
+        return revenueCents;
+    }
+
+    /**
+     * Reporte un changement de statut enregistré dans le nombre de commandes par statut.
+     */
+    public void recordStatusChange(OrderStatus from, OrderStatus to) {
+        orderStatsService.recordStatusChange(from, to);
+    }
+
+    /**
+     * Comptabilise une commande nouvellement créée dans le nombre de commandes de son statut.
+     */
+    public void recordCreated(Order order) {
+        orderStatsService.recordCreated(order.getStatus());
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
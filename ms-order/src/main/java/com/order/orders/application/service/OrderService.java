@@ -3,41 +3,31 @@ package com.order.orders.application.service;
 import com.order.orders.application.dto.*;
 import com.order.orders.application.mapper.OrderItemMapper;
 import com.order.orders.application.mapper.OrderMapper;
-import com.order.orders.domain.entity.OrderItem;
 import com.order.orders.domain.entity.OrderStatus;
 import com.order.orders.domain.repository.OrderItemRepository;
-import com.order.orders.infrastructure.exception.ExternalServiceException;
-import com.order.orders.infrastructure.exception.FieldValueException;
-import com.order.orders.infrastructure.exception.InsufficientStockException;
+import com.order.orders.infrastructure.client.ExternalServicesClient;
+import com.order.orders.infrastructure.web.RequestDeadline;
 import com.product.products.application.dto.ProductResponseDTO;
-import com.product.products.application.dto.StockUpdateRequestDTO;
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
 
 import com.order.orders.domain.entity.Order;
 import com.order.orders.domain.repository.OrderRepository;
 import com.order.orders.infrastructure.exception.ResourceNotFoundException;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientRequestException;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.DoubleAdder;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import static com.order.orders.configuration.WebClientConfig.MS_PRODUCT_BASE_URL;
-import static com.order.orders.configuration.WebClientConfig.MS_USER_BASE_URL;
-
 /**
  * Service pour la gestion des commandes.
  * Best practices :
@@ -57,45 +47,53 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
-    private final MeterRegistry meterRegistry;
-    private final WebClient productServiceWebClient;
-    private final WebClient userServiceWebClient;
+    private final OrderLifecycle orderLifecycle;
+    private final ExternalServicesClient externalServicesClient;
+    private final RevenueRollupService revenueRollupService;
 
+    /**
+     * Chargement des lignes pour le détail d'une commande
+     */
+    public enum ItemsFetch {
+        /** Une requête, jointure explicite (LEFT JOIN FETCH) */
+        JOIN,
+        /** Une requête, graphe d'entités sur {@code Order.items} */
+        ENTITY_GRAPH,
+        /** La commande puis ses lignes, comme pour les listes (hibernate.default_batch_fetch_size) */
+        BATCH
+    }
 
-    private final DoubleAdder dailyTotal = new DoubleAdder();
+    @Value("${orders.items.fetch:JOIN}")
+    private ItemsFetch itemsFetch = ItemsFetch.JOIN;
 
-    @PostConstruct
-    public void init() {
-        // Enregistrement de la gauge après l'injection des dépendances
-        meterRegistry.gauge("commandes.montant.total.jour", dailyTotal, DoubleAdder::sum);
-    }
+    @Value("${pagination.default-limit:50}")
+    private int defaultPageSize = 50;
 
-    @Scheduled(cron = "0 0 0 * * *")
-    public void resetDailyTotal() {
-        dailyTotal.reset();
-    }
+    @Value("${pagination.max-limit:500}")
+    private int maxPageSize = 500;
+
+    // Liste complète quand le client ne précise ni limit ni after (ancien comportement), désactivée par défaut
+    @Value("${pagination.unpaginated:false}")
+    private boolean unpaginated = false;
 
     /**
-     * Permet d'initialiser ou mettre à jour la valeur du dailyTotal depuis un initialiseur de métriques.
+     * Récupère une page de commandes, par ID croissant
      */
-    public void setDailyTotal(double value) {
-        dailyTotal.reset();
-        dailyTotal.add(value);
+    public KeysetPage<OrderResponseDTO> getOrders(Long after, Integer limit) {
+        log.debug("Récupération des commandes après l'ID {}", after);
+
+        return page(after, limit, orderRepository::findAll, orderRepository::findByIdGreaterThanOrderByIdAsc,
+                orderMapper::toDto);
     }
 
     /**
-     * Récupère toutes les commandes
+     * Récupère une page de commandes avec leurs lignes, chargées par lots sans une requête par commande
      */
-    public List<OrderResponseDTO> getAllOrders() {
-        log.debug("Récupération de tous les commandes");
-        
-        List<Order> orders = orderRepository.findAll();
-        
-        log.info("Nombre de commandes récupérés: {}", orders.size());
-        
-        return orders.stream()
-                .map(orderMapper::toDto)
-                .collect(Collectors.toList());
+    public KeysetPage<OrderDetailsResponseDTO> getOrderDetails(Long after, Integer limit) {
+        log.debug("Récupération des commandes avec leurs lignes après l'ID {}", after);
+
+        return page(after, limit, orderRepository::findAll, orderRepository::findByIdGreaterThanOrderByIdAsc,
+                this::toDetailsDto);
     }
 
     /**
@@ -103,21 +101,14 @@ public class OrderService {
      */
     public OrderDetailsResponseDTO getOrderById(Long id) {
         log.debug("Récupération du commande avec l'ID: {}", id);
-        
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
-
-
-        List<OrderItemResponseDTO> itemsDTOList = new ArrayList<>();
-        // Récupération et conversion des orderItems
-        for(OrderItem item : orderItemRepository.searchByOrderId(order.getId())) {
-            OrderItemResponseDTO itemDTO = orderItemMapper.toDto(item);
-            itemsDTOList.add(itemDTO);
-        }
 
-        OrderResponseDTO orderResponseDTO = orderMapper.toDto(order);
+        Order order = (switch (itemsFetch) {
+            case JOIN -> orderRepository.findByIdFetchingItems(id);
+            case ENTITY_GRAPH -> orderRepository.findWithItemsById(id);
+            case BATCH -> orderRepository.findById(id);
+        }).orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
 
-        OrderDetailsResponseDTO orderDetailsResponseDTO = orderMapper.toDetailsDto(orderResponseDTO, itemsDTOList);
+        OrderDetailsResponseDTO orderDetailsResponseDTO = toDetailsDto(order);
 
 
         log.info("Commande trouvée: ID={}, UserId={}, CreationDate={}, TotalPrice={}, itemAmount={}", orderDetailsResponseDTO.getId(),
@@ -133,80 +124,34 @@ public class OrderService {
     public OrderResponseDTO createOrder(OrderRequestDTO orderRequestDTO) {
         log.debug("Création d'une nouvelle commande: {} ({} articles)", orderRequestDTO.getUserId(), orderRequestDTO.getItems().size());
 
-        // Vérifications préliminaires
-        // 1. Vérif User
-        try {
-            userServiceWebClient.get().uri(MS_USER_BASE_URL +"/"+orderRequestDTO.getUserId())
-                    .retrieve().toBodilessEntity().block();
-        } catch (WebClientResponseException.NotFound e) {
-            throw new ResourceNotFoundException("Utilisateur introuvable ID: " + orderRequestDTO.getUserId());
-        } catch (WebClientRequestException e) {
-            throw new ExternalServiceException("Le service utilisateur est indisponible.");
-        }
+        // 1 & 2. Vérif User et Produits, lancées en parallèle
+        Map<Long, ProductResponseDTO> products = await(externalServicesClient.validateOrder(orderRequestDTO));
 
-        // 2. Vérif Produits
-        for (OrderItemRequestDTO item : orderRequestDTO.getItems()) {
-            try {
-                ProductResponseDTO product = productServiceWebClient.get()
-                        .uri(MS_PRODUCT_BASE_URL+"/"+item.getProductId())
-                        .retrieve().bodyToMono(ProductResponseDTO.class).block();
-
-                if (product == null) throw new ResourceNotFoundException("Produit vide ID: " + item.getProductId());
-
-                if (product.getStock() < item.getQuantity()) {
-                    throw new InsufficientStockException(
-                            String.format("Stock insuffisant pour '%s'. Demandé: %d, Dispo: %d",
-                                    product.getName(), item.getQuantity(), product.getStock()));
-                }
-            } catch (WebClientResponseException.NotFound e) {
-                throw new ResourceNotFoundException("Produit introuvable ID: " + item.getProductId());
-            } catch (WebClientRequestException e) {
-                throw new ExternalServiceException("Le service produit est indisponible.");
-            }
-        }
+        // Le client a abandonné entre-temps : inutile d'écrire la commande
+        RequestDeadline.checkNotExpired();
 
 
-        // 3. Création de la commande
+        // 3. Création de la commande et de ses lignes en mémoire : le total est connu avant la première insertion
         Order order = orderMapper.toEntity(orderRequestDTO);
-        orderRepository.save(order); // Sauvegarder afin d'avoir un id
-
         for (OrderItemRequestDTO itemRequestDTO : orderRequestDTO.getItems()) {
-            try {
-                ProductResponseDTO productResponseDTO = productServiceWebClient.get()
-                        .uri(MS_PRODUCT_BASE_URL +"/"+itemRequestDTO.getProductId())
-                        .retrieve()
-                        .bodyToMono(ProductResponseDTO.class)
-                        .block();
-
-                assert productResponseDTO != null;
-                OrderItem orderItem = orderItemMapper.toEntity(itemRequestDTO, productResponseDTO, order.getId());
-                orderItemRepository.save(orderItem);
-                // Méthode custom qui ajoute l'item à la commande et addition son sous total
-                order.addItem(orderItem);
-
-                // 4. Mise à jour des stocks
-                StockUpdateRequestDTO stockUpdateRequestDTO = new StockUpdateRequestDTO(itemRequestDTO.getQuantity()*-1);
-
-
-                productServiceWebClient.patch()
-                        .uri(MS_PRODUCT_BASE_URL +"/"+itemRequestDTO.getProductId()+"/stock")
-                        .bodyValue(stockUpdateRequestDTO)
-                        .retrieve().toBodilessEntity().block();
-            } catch (WebClientRequestException e) {
-                order.setStatus(OrderStatus.CANCELLED);
-                throw new ExternalServiceException("Le service produit est indisponible.");
-            }
+            ProductResponseDTO productResponseDTO = products.get(itemRequestDTO.getProductId());
 
+            // Méthode custom qui ajoute l'item à la commande et addition son sous total
+            order.addItem(orderItemMapper.toEntity(itemRequestDTO, productResponseDTO, null));
         }
 
-        //5. Mise à jour de la commande avec le prix final
-        orderRepository.saveAndFlush(order);
+        // 4. Réservation temporaire des stocks en tout ou rien, confirmée ou libérée à la sortie du statut PENDING
+        // Si l'enregistrement de la commande échoue ensuite, la réservation expire d'elle-même
+        order.setStockHoldId(await(externalServicesClient.placeStockHold(orderRequestDTO.getItems())));
+
+        // 5. Enregistrement : l'ID vient de la séquence sans insertion immédiate, puis une insertion pour la commande
+        // et un batch JDBC pour toutes ses lignes au flush (hibernate.jdbc.batch_size)
+        orderRepository.save(order);
+        order.getItems().forEach(item -> item.setOrderId(order.getId()));
+        orderItemRepository.saveAllAndFlush(order.getItems());
 
         // Maj du métric du status
-        String counterNameNewStatus = "orders."+order.getStatus().toString().toLowerCase();
-        Counter.builder(counterNameNewStatus)
-                .register(meterRegistry)
-                .increment();
+        orderLifecycle.recordCreated(order);
 
         
         log.info("Commande créé avec succès: ID={}, UserId={}, TotalPrice={}", order.getId(),
@@ -215,6 +160,16 @@ public class OrderService {
         return orderMapper.toDto(order);
     }
 
+    /**
+     * Confirme (commit) ou libère la réservation de stock d'une commande qui quitte le statut PENDING.
+     * Les commandes sans réservation (antérieures aux réservations temporaires) sont ignorées.
+     */
+    private void settleStockHold(Order order, boolean commit) {
+        if (order.getStockHoldId() == null) return;
+
+        await(externalServicesClient.settleStockHold(order.getStockHoldId(), commit));
+    }
+
     /**
      * Met à jour une commande existant
      */
@@ -222,61 +177,26 @@ public class OrderService {
     public OrderResponseDTO updateOrderStatus(Long id, OrderStatusRequestDTO orderStatusRequestDTO) {
         log.debug("Mise à jour du commande avec l'ID: {}", id);
 
-        if (OrderStatus.valueOf(orderStatusRequestDTO.getStatus()) == OrderStatus.PENDING) {
-            throw new FieldValueException("orderStatusRequestDTO","status",orderStatusRequestDTO.getStatus(),"Une commande ne peut pas revenir au statut 'en attente'");
-        }
+        OrderStatus newStatus = OrderStatus.valueOf(orderStatusRequestDTO.getStatus());
+        orderLifecycle.checkTargetStatus(newStatus);
 
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
 
+        orderLifecycle.checkStatusChange(order, newStatus);
 
-        if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
-            throw new FieldValueException("order","status",order.getStatus(),"Une commande ne peut pas être modifiée si elle est livrée ou annulée");
-        }
-
-        // Si la commande a un statut plus avancé que celui de la demande d'update
-        // On refuse la mise à jour
-        if (order.getStatus().getScore() > OrderStatus.valueOf(orderStatusRequestDTO.getStatus()).getScore()) {
-            throw new FieldValueException("orderStatusRequestDTO","status",orderStatusRequestDTO.getStatus(),"Une commande ne peut pas être modifiée vers un état en amont de son statut actuel");
-        }
-
-        if (order.getStatus() == OrderStatus.PENDING &&
-                OrderStatus.valueOf(orderStatusRequestDTO.getStatus()) != OrderStatus.CANCELLED) {
-            log.info("Nouvelle commande confirmée de la journée, cumule du montant généré");
-            order.setOrderDate(LocalDateTime.now());
-
-            // Maj du métric du montant généré ajd
-            dailyTotal.add(order.getTotalAmount().doubleValue());
-        }
-
-        // Si la date de création (ie confirmation ou +) de la commande est aujourd'hui
-        // et qu'on souhaite annuler la commande, il faut soustraire au bilan du jour
-        // Rem: le champ orderDate est modifié seulement si la commande change d'état depuis PENDING
-        if (
-                OrderStatus.valueOf(orderStatusRequestDTO.getStatus()) == OrderStatus.CANCELLED &&
-                order.getStatus() != OrderStatus.PENDING &&
-                order.getOrderDate().toLocalDate().isEqual(LocalDate.now())
-        ) {
-
-            // Maj du métric du montant généré ajd
-            dailyTotal.add(order.getTotalAmount().doubleValue() * -1.0);
+        // Sortie du statut PENDING : la réservation de stock est confirmée, ou libérée en cas d'annulation
+        if (order.getStatus() == OrderStatus.PENDING) {
+            settleStockHold(order, orderLifecycle.commitsStockHold(newStatus));
         }
 
-        String counterName = "orders."+order.getStatus().toString().toLowerCase();
-        Counter.builder(counterName)
-                .register(meterRegistry)
-                .increment(-1);
-
-        order.setStatus(OrderStatus.valueOf(orderStatusRequestDTO.getStatus()));
+        OrderStatus previousStatus = order.getStatus();
+        long revenueCents = orderLifecycle.applyStatusChange(order, newStatus);
         orderRepository.saveAndFlush(order);
+        orderLifecycle.recordStatusChange(previousStatus, newStatus);
+        revenueRollupService.record(order.getOrderDate(), revenueCents);
 
         log.info(order.toString());
-
-        // Métrique personnalisée
-        String counterNameNewStatus = "orders."+order.getStatus().toString().toLowerCase();
-        Counter.builder(counterNameNewStatus)
-                .register(meterRegistry)
-                .increment();
         
         log.info("Commande mis à jour avec succès: ID={}, newStatus={}",
                 order.getId(), order.getStatus());
@@ -294,75 +214,70 @@ public class OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", id));
 
-        if (order.getStatus().getScore() == 4) { // 4 = DELIVERED or CANCELLED
-            throw new FieldValueException("order","status",order.getStatus(),"Une commande ne peut pas être annulée si elle est livrée ou déjà annulée");
-        }
-
-        String counterName = "orders."+order.getStatus().toString().toLowerCase();
-        Counter.builder(counterName)
-                .register(meterRegistry)
-                .increment(-1);
-
-        // Si la date de création (ie confirmation ou +) de la commande est aujourd'hui,
-        // il faut soustraire au bilan du jour
-        // Rem: le champ orderDate est modifié seulement si la commande change d'état depuis PENDING
-        if (order.getStatus()!=OrderStatus.PENDING && order.getOrderDate().toLocalDate().isEqual(LocalDate.now())) {
+        orderLifecycle.checkCancellation(order);
 
-            // Maj du métric du montant généré ajd
-            dailyTotal.add(order.getTotalAmount().doubleValue() * -1.0);
+        if (order.getStatus() == OrderStatus.PENDING) {
+            settleStockHold(order, false);
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
+        OrderStatus previousStatus = order.getStatus();
+        long revenueCents = orderLifecycle.applyStatusChange(order, OrderStatus.CANCELLED);
         orderRepository.saveAndFlush(order);
-        
-        // Métrique personnalisée
-        String counterNameNewStatus = "orders."+order.getStatus().toString().toLowerCase();
-        Counter.builder(counterNameNewStatus)
-                .register(meterRegistry)
-                .increment();
-
+        orderLifecycle.recordStatusChange(previousStatus, OrderStatus.CANCELLED);
+        revenueRollupService.record(order.getOrderDate(), revenueCents);
 
         log.info("Commande annulée avec succès: ID={}, Status={}", id, order.getStatus());
     }
 
     /**
-     * Recherche des commandes par nom
+     * Recherche des commandes d'un utilisateur, par page
      */
-    public List<OrderResponseDTO> searchOrdersByUserId(Long userId) {
+    public KeysetPage<OrderResponseDTO> searchOrdersByUserId(Long userId, Long after, Integer limit) {
         log.debug("Recherche des commandes de l'utilisateur: {}", userId);
 
         // 1. Vérif User
-        try {
-            userServiceWebClient.get().uri(MS_USER_BASE_URL +"/"+userId)
-                    .retrieve().toBodilessEntity().block();
-        } catch (WebClientResponseException.NotFound e) {
-            throw new ResourceNotFoundException("Utilisateur introuvable ID: " + userId);
-        } catch (WebClientRequestException e) {
-            throw new ExternalServiceException("Le service utilisateur est indisponible.");
-        }
-        
-        List<Order> orders = orderRepository.findAllUserOrder(userId);
-        
-        log.info("Nombre de commandes trouvés: {}", orders.size());
-        
-        return orders.stream()
-                .map(orderMapper::toDto)
-                .collect(Collectors.toList());
+        await(externalServicesClient.checkUser(userId));
+
+        return page(after, limit, () -> orderRepository.findAllUserOrder(userId),
+                (cursor, size) -> orderRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, cursor, size),
+                orderMapper::toDto);
+    }
+
+    /**
+     * Recherche des commandes d'un utilisateur avec leurs lignes, par page
+     */
+    public KeysetPage<OrderDetailsResponseDTO> searchOrderDetailsByUserId(Long userId, Long after, Integer limit) {
+        log.debug("Recherche des commandes de l'utilisateur avec leurs lignes: {}", userId);
+
+        await(externalServicesClient.checkUser(userId));
+
+        return page(after, limit, () -> orderRepository.findAllUserOrder(userId),
+                (cursor, size) -> orderRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, cursor, size),
+                this::toDetailsDto);
     }
 
     /**
-     * Recherche des commandes par catégorie
+     * Recherche des commandes par statut, par page
      */
-    public List<OrderResponseDTO> searchOrdersByStatus(String status) {
+    public KeysetPage<OrderResponseDTO> searchOrdersByStatus(String status, Long after, Integer limit) {
         log.debug("Recherche de commandes avec la catégorie: {}", status);
 
-        List<Order> orders = orderRepository.findByStatus(OrderStatus.valueOf(status));
+        OrderStatus orderStatus = OrderStatus.valueOf(status);
+        return page(after, limit, () -> orderRepository.findByStatus(orderStatus),
+                (cursor, size) -> orderRepository.findByStatusAndIdGreaterThanOrderByIdAsc(orderStatus, cursor, size),
+                orderMapper::toDto);
+    }
 
-        log.info("Nombre de commandes trouvés: {}", orders.size());
+    /**
+     * Recherche des commandes par statut avec leurs lignes, par page
+     */
+    public KeysetPage<OrderDetailsResponseDTO> searchOrderDetailsByStatus(String status, Long after, Integer limit) {
+        log.debug("Recherche de commandes avec leurs lignes, statut: {}", status);
 
-        return orders.stream()
-                .map(orderMapper::toDto)
-                .collect(Collectors.toList());
+        OrderStatus orderStatus = OrderStatus.valueOf(status);
+        return page(after, limit, () -> orderRepository.findByStatus(orderStatus),
+                (cursor, size) -> orderRepository.findByStatusAndIdGreaterThanOrderByIdAsc(orderStatus, cursor, size),
+                this::toDetailsDto);
     }
 
     /**
@@ -382,4 +297,41 @@ public class OrderService {
         }
     }
     
+
+    /**
+     * Page par clé : {@code limit + 1} commandes d'ID supérieur au curseur, la dernière signalant une page suivante.
+     * Si la pagination est désactivée et que le client n'en demande pas, renvoie la liste complète.
+     * Pour les lignes, le premier accès à celles d'une commande charge aussi celles des commandes suivantes
+     * (jusqu'à hibernate.default_batch_fetch_size par requête).
+     */
+    private <T> KeysetPage<T> page(Long after, Integer limit, Supplier<List<Order>> all,
+                                   BiFunction<Long, Limit, List<Order>> query, Function<Order, T> mapper) {
+        if (unpaginated && after == null && limit == null) {
+            List<Order> orders = all.get();
+            log.info("Nombre de commandes trouvés: {}", orders.size());
+            return KeysetPage.last(orders.stream().map(mapper).collect(Collectors.toList()));
+        }
+
+        int size = KeysetPage.limit(limit, defaultPageSize, maxPageSize);
+        KeysetPage<T> page = KeysetPage.of(query.apply(KeysetPage.after(after), Limit.of(size + 1)), size,
+                Order::getId, mapper);
+
+        log.info("Nombre de commandes trouvés: {} (page suivante après: {})", page.items().size(), page.nextCursor());
+        return page;
+    }
+
+    private OrderDetailsResponseDTO toDetailsDto(Order order) {
+        List<OrderItemResponseDTO> items = order.getItems().stream()
+                .map(orderItemMapper::toDto)
+                .collect(Collectors.toList());
+
+        return orderMapper.toDetailsDto(orderMapper.toDto(order), items);
+    }
+
+    /**
+     * Attend un appel aux services externes, en lui transmettant l'échéance de la requête en cours
+     */
+    private static <T> T await(Mono<T> call) {
+        return call.contextWrite(RequestDeadline::propagate).block();
+    }
 }
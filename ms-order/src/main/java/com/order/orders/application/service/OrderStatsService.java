@@ -0,0 +1,71 @@
+package com.order.orders.application.service;
+
+import com.order.orders.application.dto.OrderStatsResponseDTO;
+import com.order.orders.domain.entity.OrderStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nombre de commandes par statut, tenu en mémoire : initialisé au démarrage par une requête groupée
+ * (voir MetricsInitializer) puis mis à jour à chaque création et changement de statut.
+ * - Dans une transaction JPA, la mise à jour n'est appliquée qu'après le commit : un rollback ne fausse pas les nombres
+ * - Hors transaction liée au thread (profil "reactive"), elle est appliquée immédiatement : l'appelant ne la demande
+ *   qu'une fois la transaction R2DBC validée
+ * <p>
+ * Métriques : une gauge {@code orders.<statut>} par statut.
+ */
+@Slf4j
+@Service
+public class OrderStatsService {
+
+    private final Map<OrderStatus, AtomicLong> counts = new EnumMap<>(OrderStatus.class);
+
+    public OrderStatsService(MeterRegistry meterRegistry) {
+        for (OrderStatus status : OrderStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder("orders." + status.name().toLowerCase(), count, AtomicLong::get)
+                    .description("Nombre de commandes au statut " + status)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Remplace les nombres courants, les statuts absents valant 0
+     */
+    public void seed(Map<OrderStatus, Long> countsByStatus) {
+        counts.forEach((status, count) -> count.set(countsByStatus.getOrDefault(status, 0L)));
+        log.info("Nombre de commandes par statut: {}", countsByStatus);
+    }
+
+    public void recordCreated(OrderStatus status) {
+        AfterCommit.run(() -> counts.get(status).incrementAndGet());
+    }
+
+    public void recordStatusChange(OrderStatus from, OrderStatus to) {
+        if (from == to) return;
+        AfterCommit.run(() -> {
+            counts.get(from).decrementAndGet();
+            counts.get(to).incrementAndGet();
+        });
+    }
+
+    /**
+     * Nombres courants, sans accès à la base
+     */
+    public OrderStatsResponseDTO getStats() {
+        Map<OrderStatus, Long> snapshot = new EnumMap<>(OrderStatus.class);
+        counts.forEach((status, count) -> snapshot.put(status, count.get()));
+
+        return OrderStatsResponseDTO.builder()
+                .countsByStatus(snapshot)
+                .total(snapshot.values().stream().mapToLong(Long::longValue).sum())
+                .build();
+    }
+}
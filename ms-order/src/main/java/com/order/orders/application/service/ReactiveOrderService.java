@@ -0,0 +1,297 @@
+package com.order.orders.application.service;
+
+import com.order.orders.application.dto.*;
+import com.order.orders.application.mapper.OrderItemMapper;
+import com.order.orders.application.mapper.OrderMapper;
+import com.order.orders.domain.entity.IdempotencyRecord;
+import com.order.orders.domain.entity.Order;
+import com.order.orders.domain.entity.OrderItem;
+import com.order.orders.domain.entity.OrderStatus;
+import com.order.orders.infrastructure.client.ExternalServicesClient;
+import com.order.orders.infrastructure.exception.ResourceNotFoundException;
+import com.order.orders.infrastructure.persistence.ReactiveIdempotencyRecordRepository;
+import com.order.orders.infrastructure.persistence.ReactiveOrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Variante non bloquante d'{@link OrderService} pour le profil "reactive".
+ * Mêmes règles métier (via {@link OrderLifecycle}) et mêmes réponses ; les appels aux services externes
+ * et à la base sont composés sans jamais bloquer un thread de la boucle d'événements.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOrderService {
+
+    private final ReactiveOrderRepository reactiveOrderRepository;
+    private final ReactiveIdempotencyRecordRepository reactiveIdempotencyRecordRepository;
+    private final OrderMapper orderMapper;
+    private final OrderItemMapper orderItemMapper;
+    private final OrderLifecycle orderLifecycle;
+    private final ExternalServicesClient externalServicesClient;
+    private final TransactionalOperator orderTransactionalOperator;
+    private final RevenueRollupService revenueRollupService;
+
+    // Même taille de lot que le chargement des lignes côté JPA
+    @Value("${spring.jpa.properties.hibernate.default_batch_fetch_size:50}")
+    private int itemsBatchSize = 50;
+
+    @Value("${pagination.default-limit:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxPageSize = 500;
+
+    @Value("${pagination.unpaginated:false}")
+    private boolean unpaginated = false;
+
+    /**
+     * Récupère une page de commandes, par ID croissant
+     */
+    public Mono<KeysetPage<OrderResponseDTO>> getOrders(Long after, Integer limit) {
+        return page(after, limit, reactiveOrderRepository.findAll(), reactiveOrderRepository::findPage,
+                orders -> orders.map(orderMapper::toDto));
+    }
+
+    /**
+     * Récupère une page de commandes avec leurs lignes
+     */
+    public Mono<KeysetPage<OrderDetailsResponseDTO>> getOrderDetails(Long after, Integer limit) {
+        return page(after, limit, reactiveOrderRepository.findAll(), reactiveOrderRepository::findPage,
+                this::withItems);
+    }
+
+    /**
+     * Récupère une commande par son ID, avec ses lignes
+     */
+    public Mono<OrderDetailsResponseDTO> getOrderById(Long id) {
+        return findOrder(id)
+                .flatMap(order -> reactiveOrderRepository.findItemsByOrderId(order.getId())
+                        .map(orderItemMapper::toDto)
+                        .collectList()
+                        .map(items -> orderMapper.toDetailsDto(orderMapper.toDto(order), items)));
+    }
+
+    /**
+     * Crée une nouvelle commande.
+     * Le stock est réservé avant l'écriture en base, pour ne pas garder de transaction ouverte pendant l'appel
+     * à ms-product ; si l'enregistrement échoue ensuite, la réservation expire d'elle-même.
+     */
+    public Mono<OrderResponseDTO> createOrder(OrderRequestDTO orderRequestDTO) {
+        return createOrder(orderRequestDTO, null);
+    }
+
+    /**
+     * Crée une nouvelle commande et enregistre sa clé Idempotency-Key dans la même transaction :
+     * si la clé existe déjà, la commande est annulée avec elle.
+     *
+     * @param idempotencyRecord Construit l'enregistrement de la clé à partir de la réponse ; null sans clé
+     */
+    public Mono<OrderResponseDTO> createOrder(OrderRequestDTO orderRequestDTO,
+                                              Function<OrderResponseDTO, IdempotencyRecord> idempotencyRecord) {
+        log.debug("Création d'une nouvelle commande: {} ({} articles)", orderRequestDTO.getUserId(), orderRequestDTO.getItems().size());
+
+        return externalServicesClient.validateOrder(orderRequestDTO)
+                .flatMap(products -> {
+                    Order order = orderMapper.toEntity(orderRequestDTO);
+                    for (OrderItemRequestDTO itemRequestDTO : orderRequestDTO.getItems()) {
+                        order.addItem(orderItemMapper.toEntity(itemRequestDTO,
+                                products.get(itemRequestDTO.getProductId()), null));
+                    }
+
+                    return externalServicesClient.placeStockHold(orderRequestDTO.getItems())
+                            .flatMap(stockHoldId -> {
+                                order.setStockHoldId(stockHoldId);
+                                Mono<Order> saved = reactiveOrderRepository.insert(order);
+                                if (idempotencyRecord != null) {
+                                    saved = saved.flatMap(inserted -> reactiveIdempotencyRecordRepository
+                                            .insert(idempotencyRecord.apply(orderMapper.toDto(inserted)))
+                                            .thenReturn(inserted));
+                                }
+                                return saved.as(orderTransactionalOperator::transactional);
+                            });
+                })
+                // Émis après le commit : une commande annulée par un rollback n'est pas comptée
+                .doOnNext(order -> {
+                    orderLifecycle.recordCreated(order);
+                    log.info("Commande créé avec succès: ID={}, UserId={}, TotalPrice={}", order.getId(),
+                            order.getUserId(), order.getTotalAmount());
+                })
+                .map(orderMapper::toDto);
+    }
+
+    /**
+     * Met à jour le statut d'une commande existante
+     */
+    public Mono<OrderResponseDTO> updateOrderStatus(Long id, OrderStatusRequestDTO orderStatusRequestDTO) {
+        return Mono.fromCallable(() -> {
+                    OrderStatus newStatus = OrderStatus.valueOf(orderStatusRequestDTO.getStatus());
+                    orderLifecycle.checkTargetStatus(newStatus);
+                    return newStatus;
+                })
+                .flatMap(newStatus -> findOrder(id)
+                        .flatMap(order -> {
+                            orderLifecycle.checkStatusChange(order, newStatus);
+                            return changeStatus(order, newStatus, orderLifecycle.commitsStockHold(newStatus));
+                        }))
+                .map(orderMapper::toDto);
+    }
+
+    /**
+     * Annule une commande
+     */
+    public Mono<Void> cancelOrder(Long id) {
+        return findOrder(id)
+                .flatMap(order -> {
+                    orderLifecycle.checkCancellation(order);
+                    return changeStatus(order, OrderStatus.CANCELLED, false);
+                })
+                .doOnNext(order -> log.info("Commande annulée avec succès: ID={}, Status={}", id, order.getStatus()))
+                .then();
+    }
+
+    /**
+     * Recherche les commandes d'un utilisateur, par page
+     */
+    public Mono<KeysetPage<OrderResponseDTO>> searchOrdersByUserId(Long userId, Long after, Integer limit) {
+        return externalServicesClient.checkUser(userId)
+                .then(page(after, limit, reactiveOrderRepository.findByUserId(userId),
+                        (cursor, size) -> reactiveOrderRepository.findPageByUserId(userId, cursor, size),
+                        orders -> orders.map(orderMapper::toDto)));
+    }
+
+    /**
+     * Recherche les commandes d'un utilisateur avec leurs lignes, par page
+     */
+    public Mono<KeysetPage<OrderDetailsResponseDTO>> searchOrderDetailsByUserId(Long userId, Long after, Integer limit) {
+        return externalServicesClient.checkUser(userId)
+                .then(page(after, limit, reactiveOrderRepository.findByUserId(userId),
+                        (cursor, size) -> reactiveOrderRepository.findPageByUserId(userId, cursor, size),
+                        this::withItems));
+    }
+
+    /**
+     * Recherche des commandes par statut, par page
+     */
+    public Mono<KeysetPage<OrderResponseDTO>> searchOrdersByStatus(String status, Long after, Integer limit) {
+        return Mono.fromCallable(() -> OrderStatus.valueOf(status))
+                .flatMap(orderStatus -> page(after, limit, reactiveOrderRepository.findByStatus(orderStatus),
+                        (cursor, size) -> reactiveOrderRepository.findPageByStatus(orderStatus, cursor, size),
+                        orders -> orders.map(orderMapper::toDto)));
+    }
+
+    /**
+     * Recherche des commandes par statut avec leurs lignes, par page
+     */
+    public Mono<KeysetPage<OrderDetailsResponseDTO>> searchOrderDetailsByStatus(String status, Long after, Integer limit) {
+        return Mono.fromCallable(() -> OrderStatus.valueOf(status))
+                .flatMap(orderStatus -> page(after, limit, reactiveOrderRepository.findByStatus(orderStatus),
+                        (cursor, size) -> reactiveOrderRepository.findPageByStatus(orderStatus, cursor, size),
+                        this::withItems));
+    }
+
+    /**
+     * Exporte les commandes filtrées, par ID croissant ; lues au fil de l'écriture de la réponse
+     *
+     * @param from Premier jour de création inclus, sans limite si null
+     * @param to   Dernier jour de création inclus, sans limite si null
+     */
+    public Flux<OrderResponseDTO> exportOrders(OrderStatus status, LocalDate from, LocalDate to) {
+        return reactiveOrderRepository.streamForExport(status,
+                        from == null ? null : from.atStartOfDay(),
+                        to == null ? null : to.plusDays(1).atStartOfDay())
+                .map(orderMapper::toDto);
+    }
+
+    /**
+     * Vérifie si au moins une commande contient le produit
+     */
+    public Mono<Boolean> searchProductPresence(Long id) {
+        return reactiveOrderRepository.existsItemByProductId(id);
+    }
+
+    /**
+     * Page par clé, comme {@link OrderService} : {@code limit + 1} commandes lues, la dernière signalant une page
+     * suivante ; liste complète si la pagination est désactivée et que le client n'en demande pas.
+     */
+    private <T> Mono<KeysetPage<T>> page(Long after, Integer limit, Flux<Order> all,
+                                         BiFunction<Long, Integer, Flux<Order>> query,
+                                         Function<Flux<Order>, Flux<T>> mapper) {
+        if (unpaginated && after == null && limit == null) {
+            return mapper.apply(all).collectList().map(KeysetPage::last);
+        }
+
+        int size = KeysetPage.limit(limit, defaultPageSize, maxPageSize);
+        return query.apply(KeysetPage.after(after), size + 1)
+                .collectList()
+                .flatMap(rows -> {
+                    KeysetPage<Order> page = KeysetPage.of(rows, size, Order::getId, Function.identity());
+                    return mapper.apply(Flux.fromIterable(page.items()))
+                            .collectList()
+                            .map(items -> new KeysetPage<>(items, page.nextCursor()));
+                });
+    }
+
+    /**
+     * Charge les lignes par lots de commandes : une requête par lot plutôt qu'une par commande
+     */
+    private Flux<OrderDetailsResponseDTO> withItems(Flux<Order> orders) {
+        return orders.buffer(itemsBatchSize)
+                .concatMap(batch -> reactiveOrderRepository.findItemsByOrderIds(batch.stream().map(Order::getId).toList())
+                        .collectMultimap(OrderItem::getOrderId)
+                        .flatMapIterable(itemsByOrder -> batch.stream()
+                                .map(order -> orderMapper.toDetailsDto(orderMapper.toDto(order),
+                                        itemsByOrder.getOrDefault(order.getId(), List.of()).stream()
+                                                .map(orderItemMapper::toDto)
+                                                .toList()))
+                                .toList()));
+    }
+
+    private Mono<Order> findOrder(Long id) {
+        return reactiveOrderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Order", "id", id)));
+    }
+
+    /**
+     * Sortie du statut PENDING : la réservation de stock est confirmée ou libérée avant d'enregistrer le statut.
+     */
+    private Mono<Order> changeStatus(Order order, OrderStatus newStatus, boolean commitStockHold) {
+        Mono<Void> settle = order.getStatus() == OrderStatus.PENDING && order.getStockHoldId() != null
+                ? externalServicesClient.settleStockHold(order.getStockHoldId(), commitStockHold)
+                : Mono.empty();
+
+        return settle.then(Mono.defer(() -> {
+            OrderStatus previousStatus = order.getStatus();
+            long revenueCents = orderLifecycle.applyStatusChange(order, newStatus);
+            // Nombre de commandes par statut mis à jour après le commit, comme en JPA. Les agrégats de chiffre
+            // d'affaires restent en JPA : écrits hors de la boucle d'événements, une fois le statut enregistré ; le
+            // statut étant déjà validé, un échec de leur écriture est laissé à la réconciliation
+            return reactiveOrderRepository.updateStatus(order)
+                    .as(orderTransactionalOperator::transactional)
+                    .doOnNext(saved -> orderLifecycle.recordStatusChange(previousStatus, newStatus))
+                    .flatMap(saved -> Mono.fromRunnable(() -> revenueRollupService.record(saved.getOrderDate(), revenueCents))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .onErrorResume(e -> {
+                                log.error("Échec de la mise à jour du chiffre d'affaires de la commande {}, reportée à la réconciliation",
+                                        saved.getId(), e);
+                                revenueRollupService.recordLater(saved.getOrderDate(), revenueCents);
+                                return Mono.empty();
+                            })
+                            .thenReturn(saved));
+        }));
+    }
+}
@@ -0,0 +1,218 @@
+package com.order.orders.application.service;
+
+import com.order.orders.application.dto.RevenueBucketResponseDTO;
+import com.order.orders.application.dto.RevenueResponseDTO;
+import com.order.orders.domain.entity.RevenueBucket;
+import com.order.orders.domain.entity.RevenueGranularity;
+import com.order.orders.domain.repository.RevenueBucketRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Chiffre d'affaires agrégé par minute, heure et jour (table revenue_buckets), en centimes exacts.
+ * - Mis à jour à chaque confirmation (ajout) et à chaque annulation d'une commande confirmée (retrait), dans la
+ *   transaction du changement de statut, aux agrégats de la date de commande
+ * - Reconstruit depuis les commandes au démarrage si la table est vide
+ * - Fenêtres glissantes lues sur la granularité la plus fine qui reste bornée : minutes jusqu'à 6 h,
+ *   heures jusqu'à 7 jours, jours au-delà ; la fenêtre commence au début de l'agrégat contenant {@code now - window}
+ * - Agrégats par minute et par heure supprimés après {@code revenue.retention.*}
+ * - Variations dont l'écriture a échoué après le commit du statut (profil "reactive") : gardées en mémoire et
+ *   reportées par la réconciliation toutes les {@code revenue.reconcile-interval}, jusqu'à succès
+ * <p>
+ * Métriques : gauge {@code commandes.montant.total.jour}, montant du jour courant, remis à zéro au changement de jour ;
+ * gauge {@code commandes.montant.reports.en_attente}, variations en attente de réconciliation.
+ */
+@Slf4j
+@Service
+public class RevenueRollupService {
+
+    private static final Duration MINUTE_WINDOW_MAX = Duration.ofHours(6);
+    private static final Duration HOUR_WINDOW_MAX = Duration.ofDays(7);
+
+    private final RevenueBucketRepository revenueBucketRepository;
+
+    // Variations à reporter par la réconciliation
+    private final Queue<PendingRevenue> pending = new ConcurrentLinkedQueue<>();
+
+    @Value("${revenue.retention.minute:PT48H}")
+    private Duration minuteRetention = Duration.ofHours(48);
+
+    @Value("${revenue.retention.hour:P90D}")
+    private Duration hourRetention = Duration.ofDays(90);
+
+    // Montant du jour pour la gauge, protégé par le verrou de l'instance
+    private LocalDate today = LocalDate.now();
+    private long todayCents;
+
+    public RevenueRollupService(RevenueBucketRepository revenueBucketRepository, MeterRegistry meterRegistry) {
+        this.revenueBucketRepository = revenueBucketRepository;
+        Gauge.builder("commandes.montant.total.jour", this, RevenueRollupService::todayRevenue)
+                .description("Chiffre d'affaires des commandes confirmées aujourd'hui")
+                .register(meterRegistry);
+        Gauge.builder("commandes.montant.reports.en_attente", pending, Queue::size)
+                .description("Variations de chiffre d'affaires en attente de report sur les agrégats")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reconstruit les agrégats si la table est vide, puis charge le montant du jour
+     */
+    @Transactional
+    public void initialize() {
+        if (revenueBucketRepository.count() == 0) {
+            int buckets = revenueBucketRepository.rebuildFromOrders();
+            log.info("Agrégats de chiffre d'affaires reconstruits depuis les commandes: {}", buckets);
+        }
+
+        LocalDate day = LocalDate.now();
+        long cents = revenueBucketRepository.findById(new RevenueBucket.Key(RevenueGranularity.DAY, day.atStartOfDay()))
+                .map(RevenueBucket::getAmountCents)
+                .orElse(0L);
+        synchronized (this) {
+            today = day;
+            todayCents = cents;
+        }
+    }
+
+    /**
+     * Reporte une variation du chiffre d'affaires sur les agrégats de la date de commande
+     *
+     * @param amountCents Montant de la commande en centimes, négatif pour une annulation ; 0 : rien à reporter
+     */
+    @Transactional
+    public void record(LocalDateTime orderDate, long amountCents) {
+        if (amountCents == 0 || orderDate == null) return;
+        apply(orderDate, amountCents);
+    }
+
+    /**
+     * Garde une variation dont l'écriture a échoué, pour la prochaine réconciliation
+     */
+    public void recordLater(LocalDateTime orderDate, long amountCents) {
+        if (amountCents == 0 || orderDate == null) return;
+        pending.add(new PendingRevenue(orderDate, amountCents));
+    }
+
+    /**
+     * Reporte les variations en attente dans une seule transaction ; remises en attente si elle échoue
+     */
+    @Scheduled(fixedDelayString = "${revenue.reconcile-interval:PT1M}")
+    @Transactional
+    public void reconcilePending() {
+        List<PendingRevenue> batch = new ArrayList<>();
+        for (PendingRevenue revenue = pending.poll(); revenue != null; revenue = pending.poll()) {
+            batch.add(revenue);
+        }
+        if (batch.isEmpty()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    log.info("{} variations de chiffre d'affaires en attente reportées sur les agrégats", batch.size());
+                } else {
+                    pending.addAll(batch);
+                    log.warn("Réconciliation du chiffre d'affaires en échec, {} variations gardées en attente", batch.size());
+                }
+            }
+        });
+        batch.forEach(revenue -> apply(revenue.orderDate(), revenue.amountCents()));
+    }
+
+    private void apply(LocalDateTime orderDate, long amountCents) {
+        long orders = Long.signum(amountCents);
+        for (RevenueGranularity granularity : RevenueGranularity.values()) {
+            revenueBucketRepository.add(granularity.name(), granularity.bucketStart(orderDate), amountCents, orders);
+        }
+        AfterCommit.run(() -> addToday(orderDate.toLocalDate(), amountCents));
+    }
+
+    /**
+     * Chiffre d'affaires de la fenêtre glissante se terminant maintenant, sans lire la table des commandes
+     */
+    @Transactional(readOnly = true)
+    public RevenueResponseDTO getRevenue(Duration window) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("La fenêtre doit être une durée positive");
+        }
+
+        RevenueGranularity granularity = window.compareTo(MINUTE_WINDOW_MAX) <= 0 ? RevenueGranularity.MINUTE
+                : window.compareTo(HOUR_WINDOW_MAX) <= 0 ? RevenueGranularity.HOUR
+                : RevenueGranularity.DAY;
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = granularity.bucketStart(to.minus(window));
+
+        List<RevenueBucket> buckets = revenueBucketRepository
+                .findByGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(granularity, from);
+
+        return RevenueResponseDTO.builder()
+                .window(window.toString())
+                .granularity(granularity)
+                .from(from)
+                .to(to)
+                .revenue(toAmount(buckets.stream().mapToLong(RevenueBucket::getAmountCents).sum()))
+                .orderCount(buckets.stream().mapToLong(RevenueBucket::getOrderCount).sum())
+                .buckets(buckets.stream()
+                        .map(bucket -> RevenueBucketResponseDTO.builder()
+                                .start(bucket.getBucketStart())
+                                .revenue(toAmount(bucket.getAmountCents()))
+                                .orderCount(bucket.getOrderCount())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${revenue.cleanup-interval:PT1H}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = revenueBucketRepository.deleteOlderThan(RevenueGranularity.MINUTE, now.minus(minuteRetention))
+                + revenueBucketRepository.deleteOlderThan(RevenueGranularity.HOUR, now.minus(hourRetention));
+        if (deleted > 0) {
+            log.info("{} agrégats de chiffre d'affaires expirés supprimés", deleted);
+        }
+    }
+
+    private synchronized void addToday(LocalDate day, long cents) {
+        rollDay();
+        if (day.equals(today)) {
+            todayCents += cents;
+        }
+    }
+
+    private synchronized double todayRevenue() {
+        rollDay();
+        return todayCents / 100.0;
+    }
+
+    private void rollDay() {
+        LocalDate now = LocalDate.now();
+        if (!now.equals(today)) {
+            today = now;
+            todayCents = 0;
+        }
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private record PendingRevenue(LocalDateTime orderDate, long amountCents) {
+    }
+}
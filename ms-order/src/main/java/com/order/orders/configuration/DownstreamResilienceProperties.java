@@ -0,0 +1,52 @@
+package com.order.orders.configuration;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Disjoncteur et limite d'appels simultanés d'un service appelé, liés à {@code service.<nom>.resilience}.
+ */
+@Data
+public class DownstreamResilienceProperties {
+
+    /**
+     * Appels simultanés autorisés vers le service ; au-delà, l'appel est refusé immédiatement (503)
+     */
+    private int maxConcurrentCalls = 50;
+
+    /**
+     * Nombre des derniers appels pris en compte pour calculer les taux d'échec et de lenteur
+     */
+    private int slidingWindowSize = 20;
+
+    /**
+     * Nombre d'appels à observer avant que le disjoncteur puisse s'ouvrir
+     */
+    private int minimumNumberOfCalls = 10;
+
+    /**
+     * Taux d'échec (en %) à partir duquel le disjoncteur s'ouvre
+     */
+    private float failureRateThreshold = 50;
+
+    /**
+     * Un appel plus long est compté comme lent
+     */
+    private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+
+    /**
+     * Taux d'appels lents (en %) à partir duquel le disjoncteur s'ouvre
+     */
+    private float slowCallRateThreshold = 80;
+
+    /**
+     * Durée pendant laquelle le disjoncteur reste ouvert avant de laisser passer des appels de test
+     */
+    private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+    /**
+     * Appels de test autorisés en demi-ouverture, qui décident de la fermeture ou d'une nouvelle ouverture
+     */
+    private int permittedCallsInHalfOpenState = 3;
+}
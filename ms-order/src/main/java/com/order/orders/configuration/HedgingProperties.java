@@ -0,0 +1,49 @@
+package com.order.orders.configuration;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Requêtes de secours (hedging) des lectures idempotentes d'un service appelé, liées à {@code service.<nom>.hedging}.
+ */
+@Data
+public class HedgingProperties {
+
+    /**
+     * Désactivé par défaut : chaque requête de secours est une charge supplémentaire pour le service appelé
+     */
+    private boolean enabled = false;
+
+    /**
+     * Percentile des latences récentes au-delà duquel la requête de secours part
+     */
+    private double percentile = 95;
+
+    /**
+     * Délai utilisé tant que {@code min-samples} latences n'ont pas été observées
+     */
+    private Duration initialDelay = Duration.ofMillis(100);
+
+    /**
+     * Délai plancher, pour ne pas doubler les appels quand le service répond très vite
+     */
+    private Duration minDelay = Duration.ofMillis(20);
+
+    /**
+     * Nombre de latences récentes conservées pour calculer le percentile
+     */
+    private int windowSize = 200;
+
+    private int minSamples = 20;
+
+    /**
+     * Requêtes de secours autorisées par requête principale (0.05 = au plus 5 % d'appels en plus)
+     */
+    private double budgetRatio = 0.05;
+
+    /**
+     * Requêtes de secours pouvant être envoyées d'affilée lorsque le budget accumulé le permet
+     */
+    private int maxBurst = 10;
+}
@@ -0,0 +1,26 @@
+package com.order.orders.configuration;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Répartition de charge entre les instances d'un service appelé, liée à {@code service.<nom>.load-balancer}.
+ */
+@Data
+public class LoadBalancerProperties {
+
+    /**
+     * Endpoint de santé interrogé sur chaque instance, relatif à son URL
+     */
+    private String healthPath = "actuator/health/readiness";
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Échecs consécutifs (erreur réseau ou 5xx) après lesquels une instance est écartée jusqu'à la prochaine sonde réussie
+     */
+    private int ejectAfterFailures = 3;
+}
@@ -0,0 +1,79 @@
+package com.order.orders.configuration;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Configuration du profil "reactive" : serveur Netty et accès R2DBC.
+ * Le pool n'est volontairement pas exposé comme bean ConnectionFactory, ni le R2dbcTransactionManager comme
+ * TransactionManager : Spring Boot garderait sinon R2DBC pour data.sql et n'instancierait plus le
+ * JpaTransactionManager dont dépendent les services JPA restants (idempotence, chiffre d'affaires agrégé,
+ * métriques au démarrage).
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    @Value("${spring.r2dbc.url}")
+    private String url;
+
+    @Value("${spring.r2dbc.username:sa}")
+    private String username;
+
+    @Value("${spring.r2dbc.password:}")
+    private String password;
+
+    @Value("${spring.r2dbc.pool.initial-size:4}")
+    private int initialSize;
+
+    @Value("${spring.r2dbc.pool.max-size:20}")
+    private int maxSize;
+
+    private ConnectionPool connectionPool;
+
+    /**
+     * Tomcat reste sur le classpath pour le mode servlet ; sans ce bean, Spring Boot le préférerait à Netty.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient orderDatabaseClient() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .build());
+
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Bean
+    public TransactionalOperator orderTransactionalOperator(DatabaseClient orderDatabaseClient) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(orderDatabaseClient.getConnectionFactory()));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
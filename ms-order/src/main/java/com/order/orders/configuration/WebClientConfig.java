@@ -1,32 +1,169 @@
 package com.order.orders.configuration;
 
+import com.order.orders.infrastructure.client.DeadlineExchangeFilter;
+import com.order.orders.infrastructure.client.DownstreamMetricsFilter;
+import com.order.orders.infrastructure.client.DownstreamResilienceFilter;
+import com.order.orders.infrastructure.client.HedgingPolicy;
+import com.order.orders.infrastructure.client.LoadBalancingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
 
+    private static final String READ_TIMEOUT_HANDLER = "downstreamReadTimeout";
+    private static final String WRITE_TIMEOUT_HANDLER = "downstreamWriteTimeout";
+
+    /**
+     * Une ou plusieurs instances, séparées par des virgules
+     */
     @Value("${service.product.url}")
-    private String urlMsProducts;
+    private List<String> urlMsProducts;
     public static final String MS_PRODUCT_BASE_URL = "/api/v1/products";
 
     @Value("${service.user.url}")
-    private String urlMsUsers;
+    private List<String> urlMsUsers;
     public static final String MS_USER_BASE_URL = "/api/v1/users";
 
     @Bean
-    public WebClient productServiceWebClient(WebClient.Builder builder) {
-        return builder
-                .baseUrl(urlMsProducts)
-                .build();
+    @ConfigurationProperties("service.product.http")
+    public DownstreamHttpProperties productHttpProperties() {
+        return new DownstreamHttpProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("service.user.http")
+    public DownstreamHttpProperties userHttpProperties() {
+        return new DownstreamHttpProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("service.product.resilience")
+    public DownstreamResilienceProperties productResilienceProperties() {
+        return new DownstreamResilienceProperties();
     }
 
     @Bean
-    public WebClient userServiceWebClient(WebClient.Builder builder) {
+    @ConfigurationProperties("service.user.resilience")
+    public DownstreamResilienceProperties userResilienceProperties() {
+        return new DownstreamResilienceProperties();
+    }
+
+    @Bean
+    public DownstreamResilienceFilter productResilienceFilter(MeterRegistry meterRegistry) {
+        return new DownstreamResilienceFilter("product", productResilienceProperties(), meterRegistry);
+    }
+
+    @Bean
+    public DownstreamResilienceFilter userResilienceFilter(MeterRegistry meterRegistry) {
+        return new DownstreamResilienceFilter("user", userResilienceProperties(), meterRegistry);
+    }
+
+    @Bean
+    @ConfigurationProperties("service.product.load-balancer")
+    public LoadBalancerProperties productLoadBalancerProperties() {
+        return new LoadBalancerProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("service.user.load-balancer")
+    public LoadBalancerProperties userLoadBalancerProperties() {
+        return new LoadBalancerProperties();
+    }
+
+    @Bean
+    public LoadBalancingFilter productLoadBalancer(MeterRegistry meterRegistry) {
+        return new LoadBalancingFilter("product", urlMsProducts, productLoadBalancerProperties(), meterRegistry);
+    }
+
+    @Bean
+    public LoadBalancingFilter userLoadBalancer(MeterRegistry meterRegistry) {
+        return new LoadBalancingFilter("user", urlMsUsers, userLoadBalancerProperties(), meterRegistry);
+    }
+
+    @Bean
+    @ConfigurationProperties("service.product.hedging")
+    public HedgingProperties productHedgingProperties() {
+        return new HedgingProperties();
+    }
+
+    /**
+     * Requêtes de secours des lectures de produits (GET /batch), utilisées par ExternalServicesClient
+     */
+    @Bean
+    public HedgingPolicy productHedgingPolicy(MeterRegistry meterRegistry) {
+        return new HedgingPolicy("product", productHedgingProperties(), meterRegistry);
+    }
+
+    @Bean
+    public WebClient productServiceWebClient(WebClient.Builder builder, MeterRegistry meterRegistry) {
+        return downstreamWebClient(builder, "product", productLoadBalancer(meterRegistry), productHttpProperties(),
+                productResilienceFilter(meterRegistry), meterRegistry);
+    }
+
+    @Bean
+    public WebClient userServiceWebClient(WebClient.Builder builder, MeterRegistry meterRegistry) {
+        return downstreamWebClient(builder, "user", userLoadBalancer(meterRegistry), userHttpProperties(),
+                userResilienceFilter(meterRegistry), meterRegistry);
+    }
+
+    /**
+     * Un pool de connexions par service appelé, pour qu'un service lent n'épuise pas les connexions des autres.
+     * Les métriques du pool Reactor Netty (reactor.netty.connection.provider.*) sont publiées sous le nom du service.
+     * L'échéance de la requête entrante est vérifiée en premier : un appel abandonné faute de temps ne compte pas comme
+     * un échec du service. Le disjoncteur suit : un appel refusé n'occupe ni connexion ni place dans les métriques de latence.
+     * La répartition de charge choisit l'instance en dernier, juste avant l'envoi.
+     */
+    private WebClient downstreamWebClient(WebClient.Builder builder, String downstream, LoadBalancingFilter loadBalancer,
+                                          DownstreamHttpProperties http, DownstreamResilienceFilter resilienceFilter,
+                                          MeterRegistry meterRegistry) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(downstream)
+                .maxConnections(http.getMaxConnections())
+                .pendingAcquireMaxCount(http.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(http.getPendingAcquireTimeout())
+                .maxIdleTime(http.getMaxIdleTime())
+                .maxLifeTime(http.getMaxLifeTime())
+                .evictInBackground(http.getEvictionInterval())
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, http.isKeepAlive())
+                .keepAlive(http.isKeepAlive())
+                .responseTimeout(http.getResponseTimeout())
+                // Délais posés à chaque requête et retirés quand la connexion revient au pool : posés à la connexion,
+                // ils fermeraient les connexions restées inactives plus longtemps que le read-timeout
+                .doOnRequest((request, connection) -> connection
+                        .addHandlerLast(READ_TIMEOUT_HANDLER, new ReadTimeoutHandler(http.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                        .addHandlerLast(WRITE_TIMEOUT_HANDLER, new WriteTimeoutHandler(http.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)))
+                .observe((connection, state) -> {
+                    if (state == ConnectionObserver.State.RELEASED) {
+                        connection.removeHandler(READ_TIMEOUT_HANDLER).removeHandler(WRITE_TIMEOUT_HANDLER);
+                    }
+                });
+
         return builder
-                .baseUrl(urlMsUsers)
+                .baseUrl(loadBalancer.getDefaultBaseUrl().toString())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new DeadlineExchangeFilter(downstream, meterRegistry))
+                .filter(resilienceFilter)
+                .filter(new DownstreamMetricsFilter(downstream, meterRegistry, http.getMaxConnections()))
+                .filter(loadBalancer)
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.order.orders.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réponse enregistrée pour une clé Idempotency-Key, rejouée si la même requête est renvoyée.
+ * La clé primaire garantit qu'une seule requête par clé crée une commande, même entre plusieurs instances :
+ * l'enregistrement est toujours inséré (persist), jamais fusionné avec une ligne existante.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Lob
+    @Column(name = "response_body", nullable = false)
+    private String responseBody;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    /**
+     * Clé attribuée par le client : sans cela, save() ferait un merge et écraserait la clé d'une autre requête
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
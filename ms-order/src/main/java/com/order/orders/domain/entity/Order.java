@@ -5,7 +5,9 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -15,15 +17,26 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        // Listes paginées par clé : filtre puis ID
+        indexes = {
+                @Index(name = "idx_orders_status_id", columnList = "status, id"),
+                @Index(name = "idx_orders_user_id_id", columnList = "user_id, id"),
+                // Export filtré par date de création
+                @Index(name = "idx_orders_created_at", columnList = "created_at")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Order {
 
+    /**
+     * IDs réservés par blocs de 50 (optimiseur pooled-lo) : un seul appel à la séquence pour 50 insertions
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -45,6 +58,12 @@ public class Order {
     @Column(name = "shipping_address")
     private String shippingAddress;
 
+    /**
+     * Réservation temporaire de stock côté ms-product, confirmée ou libérée à la sortie du statut PENDING
+     */
+    @Column(name = "stock_hold_id")
+    private Long stockHoldId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -53,8 +72,16 @@ public class Order {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @Transient
-    private ArrayList<OrderItem> items = new ArrayList<>();
+    /**
+     * Lignes de la commande, chargées à la demande : par une requête avec jointure pour le détail d'une commande,
+     * par lots (hibernate.default_batch_fetch_size) pour une liste de commandes.
+     * Les lignes sont enregistrées par leur repository, via leur colonne order_id.
+     */
+    @OneToMany(mappedBy = "order", fetch = FetchType.LAZY)
+    @OrderBy("id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<OrderItem> items = new ArrayList<>();
 
     public void addItem(OrderItem item) {
         if (item == null) return;
@@ -71,6 +98,7 @@ public class Order {
         this.status = clone.status;
         this.totalAmount = clone.totalAmount;
         this.shippingAddress = clone.shippingAddress;
+        this.stockHoldId = clone.stockHoldId;
         this.createdAt = clone.createdAt;
         this.updatedAt = clone.updatedAt;
         this.items = clone.items;
@@ -5,7 +5,9 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -20,14 +22,27 @@ import java.time.LocalDateTime;
 @Builder
 public class OrderItem {
 
+    /**
+     * IDs réservés par blocs de 50 (optimiseur pooled-lo) : un seul appel à la séquence pour 50 insertions
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
     @Column(name = "order_id", nullable = false)
     private Long orderId;
 
+    /**
+     * Côté inverse de {@link Order#getItems()}, en lecture seule : la colonne order_id est écrite via orderId
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Order order;
+
     @NotNull
     @Column(name = "product_id", nullable = false)
     private Long productId;
@@ -0,0 +1,48 @@
+package com.order.orders.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Chiffre d'affaires des commandes confirmées dont la date de commande tombe dans [bucketStart, bucketStart + granularité[.
+ * Montant en centimes, exact ; une commande annulée après confirmation est retirée de ses agrégats.
+ */
+@Entity
+@Table(name = "revenue_buckets")
+@IdClass(RevenueBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueBucket {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", columnDefinition = "VARCHAR(10)")
+    private RevenueGranularity granularity;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "amount_cents", nullable = false)
+    private long amountCents;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private RevenueGranularity granularity;
+        private LocalDateTime bucketStart;
+    }
+}
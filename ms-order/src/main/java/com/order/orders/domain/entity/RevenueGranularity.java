@@ -0,0 +1,26 @@
+package com.order.orders.domain.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Durée couverte par un agrégat de chiffre d'affaires
+ */
+public enum RevenueGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RevenueGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Début de l'agrégat contenant cet instant
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+}
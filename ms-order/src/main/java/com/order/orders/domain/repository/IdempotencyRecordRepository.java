@@ -0,0 +1,28 @@
+package com.order.orders.domain.repository;
+
+import com.order.orders.domain.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Supprime les clés expirées
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+
+    /**
+     * Supprime la clé si elle a expiré sans avoir encore été purgée, pour qu'elle puisse être insérée à nouveau.
+     * Le contexte de persistance est vidé : il ne doit plus contenir l'ancien enregistrement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.expiresAt < :now")
+    int deleteExpired(String key, LocalDateTime now);
+}
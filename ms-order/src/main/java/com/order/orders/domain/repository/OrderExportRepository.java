@@ -0,0 +1,25 @@
+package com.order.orders.domain.repository;
+
+import com.order.orders.domain.entity.Order;
+import com.order.orders.domain.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Requête d'export des commandes, construite selon les filtres renseignés (voir OrderExportRepositoryImpl)
+ */
+public interface OrderExportRepository {
+
+    /**
+     * Lignes lues par aller-retour avec la base lors d'un export
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Commandes à exporter, par ID croissant, lues au fil du parcours du flux (à fermer, dans une transaction).
+     * Filtres optionnels : statut et date de création dans [from, to[ (index idx_orders_created_at).
+     * Entités en lecture seule : pas de copie conservée pour la détection des modifications.
+     */
+    Stream<Order> streamForExport(OrderStatus status, LocalDateTime from, LocalDateTime to);
+}
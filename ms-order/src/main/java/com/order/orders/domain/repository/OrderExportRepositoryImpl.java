@@ -0,0 +1,37 @@
+package com.order.orders.domain.repository;
+
+import com.order.orders.domain.entity.Order;
+import com.order.orders.domain.entity.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Seuls les filtres renseignés figurent dans la requête : un prédicat "(:from IS NULL OR ...)" empêcherait
+ * la base d'utiliser l'index idx_orders_created_at.
+ */
+@RequiredArgsConstructor
+class OrderExportRepositoryImpl implements OrderExportRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Stream<Order> streamForExport(OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        StringBuilder jpql = new StringBuilder("SELECT o FROM Order o WHERE 1 = 1");
+        if (status != null) jpql.append(" AND o.status = :status");
+        if (from != null) jpql.append(" AND o.createdAt >= :from");
+        if (to != null) jpql.append(" AND o.createdAt < :to");
+
+        TypedQuery<Order> query = entityManager.createQuery(jpql.append(" ORDER BY o.id").toString(), Order.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (status != null) query.setParameter("status", status);
+        if (from != null) query.setParameter("from", from);
+        if (to != null) query.setParameter("to", to);
+        return query.getResultStream();
+    }
+}
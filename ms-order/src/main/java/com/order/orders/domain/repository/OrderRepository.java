@@ -1,6 +1,8 @@
 package com.order.orders.domain.repository;
 
 import com.order.orders.domain.entity.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -18,13 +20,25 @@ import java.util.Optional;
  * - Queries personnalisées avec @Query si nécessaire
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderExportRepository {
 
     /**
      * Recherche un produit par id (méthode de requête dérivée)
      */
     Optional<Order> findById(Long id);
 
+    /**
+     * Recherche une commande avec ses lignes en une requête (jointure explicite)
+     */
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :id")
+    Optional<Order> findByIdFetchingItems(Long id);
+
+    /**
+     * Recherche une commande avec ses lignes en une requête (graphe d'entités)
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
     /**
      * Recherche les produits par categorie
      */
@@ -38,4 +52,34 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findAllUserOrder(Long userId);
 
     List<Order> findByStatus(OrderStatus status);
+
+    /**
+     * Pages par clé : commandes d'ID supérieur au curseur, par ID croissant (clé primaire)
+     */
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Index idx_orders_user_id_id
+     */
+    List<Order> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long after, Limit limit);
+
+    /**
+     * Index idx_orders_status_id
+     */
+    List<Order> findByStatusAndIdGreaterThanOrderByIdAsc(OrderStatus status, Long after, Limit limit);
+
+    /**
+     * Nombre de commandes d'un statut
+     */
+    interface StatusCount {
+        OrderStatus getStatus();
+
+        long getCount();
+    }
+
+    /**
+     * Nombre de commandes par statut, en une requête groupée (index idx_orders_status_id)
+     */
+    @Query("SELECT o.status AS status, COUNT(o) AS count FROM Order o GROUP BY o.status")
+    List<StatusCount> countByStatus();
 }
@@ -0,0 +1,56 @@
+package com.order.orders.domain.repository;
+
+import com.order.orders.domain.entity.RevenueBucket;
+import com.order.orders.domain.entity.RevenueGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevenueBucketRepository extends JpaRepository<RevenueBucket, RevenueBucket.Key> {
+
+    /**
+     * Ajoute un montant (éventuellement négatif) à un agrégat, créé s'il n'existe pas, en une requête atomique
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            MERGE INTO revenue_buckets b
+            USING (SELECT CAST(:granularity AS VARCHAR(10)) AS granularity, CAST(:bucketStart AS TIMESTAMP) AS bucket_start) s
+            ON b.granularity = s.granularity AND b.bucket_start = s.bucket_start
+            WHEN MATCHED THEN UPDATE SET amount_cents = b.amount_cents + :amountCents, order_count = b.order_count + :orderCount
+            WHEN NOT MATCHED THEN INSERT (granularity, bucket_start, amount_cents, order_count)
+                VALUES (s.granularity, s.bucket_start, :amountCents, :orderCount)
+            """)
+    int add(String granularity, LocalDateTime bucketStart, long amountCents, long orderCount);
+
+    List<RevenueBucket> findByGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(
+            RevenueGranularity granularity, LocalDateTime from);
+
+    /**
+     * Reconstruit tous les agrégats depuis les commandes confirmées et non annulées, une requête groupée par granularité
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO revenue_buckets (granularity, bucket_start, amount_cents, order_count)
+            SELECT 'MINUTE', DATE_TRUNC('MINUTE', order_date), CAST(SUM(total_amount) * 100 AS BIGINT), COUNT(*)
+                FROM orders WHERE order_date IS NOT NULL AND status <> 'CANCELLED' GROUP BY DATE_TRUNC('MINUTE', order_date)
+            UNION ALL
+            SELECT 'HOUR', DATE_TRUNC('HOUR', order_date), CAST(SUM(total_amount) * 100 AS BIGINT), COUNT(*)
+                FROM orders WHERE order_date IS NOT NULL AND status <> 'CANCELLED' GROUP BY DATE_TRUNC('HOUR', order_date)
+            UNION ALL
+            SELECT 'DAY', DATE_TRUNC('DAY', order_date), CAST(SUM(total_amount) * 100 AS BIGINT), COUNT(*)
+                FROM orders WHERE order_date IS NOT NULL AND status <> 'CANCELLED' GROUP BY DATE_TRUNC('DAY', order_date)
+            """)
+    int rebuildFromOrders();
+
+    /**
+     * Supprime les agrégats d'une granularité antérieurs à une date
+     */
+    @Modifying
+    @Query("DELETE FROM RevenueBucket b WHERE b.granularity = :granularity AND b.bucketStart < :before")
+    int deleteOlderThan(RevenueGranularity granularity, LocalDateTime before);
+}
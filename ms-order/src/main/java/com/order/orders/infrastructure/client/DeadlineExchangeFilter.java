@@ -0,0 +1,64 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.infrastructure.exception.DeadlineExceededException;
+import com.order.orders.infrastructure.web.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Transmet l'échéance de la requête entrante au service appelé ({@value RequestDeadline#HEADER} = temps restant)
+ * et borne l'appel par ce temps restant. Un appel dont l'échéance est déjà passée n'est pas envoyé.
+ * L'échéance est lue dans le contexte Reactor uniquement, jamais sur le thread courant : les requêtes de secours
+ * et les lots de produits partent d'autres threads (voir {@link RequestDeadline#propagate}).
+ * Métrique {@code webclient.deadline.exceeded}, par service et phase (before_call|during_call).
+ */
+public class DeadlineExchangeFilter implements ExchangeFilterFunction {
+
+    private final String downstream;
+    private final Counter beforeCall;
+    private final Counter duringCall;
+
+    public DeadlineExchangeFilter(String downstream, MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.beforeCall = Counter.builder("webclient.deadline.exceeded")
+                .tag("downstream", downstream).tag("phase", "before_call").register(meterRegistry);
+        this.duringCall = Counter.builder("webclient.deadline.exceeded")
+                .tag("downstream", downstream).tag("phase", "during_call").register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Instant deadline = context.<Instant>getOrEmpty(RequestDeadline.CONTEXT_KEY).orElse(null);
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+
+            Duration remaining = RequestDeadline.remaining(deadline);
+            if (!remaining.isPositive()) {
+                beforeCall.increment();
+                return Mono.error(new DeadlineExceededException(
+                        "L'échéance de la requête est dépassée, appel au service " + downstream + " abandonné"));
+            }
+
+            ClientRequest withDeadline = ClientRequest.from(request)
+                    .header(RequestDeadline.HEADER, String.valueOf(remaining.toMillis()))
+                    .build();
+
+            return next.exchange(withDeadline)
+                    .timeout(remaining, Mono.error(() -> {
+                        duringCall.increment();
+                        return new DeadlineExceededException(
+                                "L'échéance de la requête a expiré pendant l'appel au service " + downstream);
+                    }));
+        });
+    }
+}
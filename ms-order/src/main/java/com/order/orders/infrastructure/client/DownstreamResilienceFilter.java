@@ -0,0 +1,262 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.configuration.DownstreamResilienceProperties;
+import com.order.orders.infrastructure.exception.ExternalServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Disjoncteur et limite d'appels simultanés (bulkhead) d'un service appelé.
+ * - Fermé : les appels passent, leurs résultats alimentent une fenêtre glissante des derniers appels
+ * - Ouvert : dès que le taux d'échec (erreur réseau, délai dépassé ou 5xx) ou d'appels lents dépasse son seuil,
+ *   les appels sont refusés sans toucher le réseau, pendant {@code waitDurationInOpenState}
+ * - Demi-ouvert : quelques appels de test décident de la fermeture ou d'une nouvelle ouverture
+ * Les refus (circuit ouvert ou trop d'appels en cours) lèvent une {@link ExternalServiceException}, soit un 503.
+ * <p>
+ * Métriques, par service : {@code circuitbreaker.state}, {@code circuitbreaker.transitions},
+ * {@code circuitbreaker.calls}, {@code circuitbreaker.failure.rate}, {@code circuitbreaker.slow.call.rate},
+ * {@code bulkhead.available.concurrent.calls} et {@code bulkhead.rejected}.
+ */
+@Slf4j
+public class DownstreamResilienceFilter implements ExchangeFilterFunction {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int TRANSITION_HISTORY_SIZE = 10;
+
+    public record Transition(State from, State to, Instant at) {
+    }
+
+    public record Snapshot(State state, float failureRate, float slowCallRate, int bufferedCalls,
+                           int availableConcurrentCalls, int maxConcurrentCalls, List<Transition> transitions) {
+    }
+
+    private final String downstream;
+    private final DownstreamResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore bulkhead;
+    private final long slowCallNanos;
+
+    private Clock clock = Clock.systemUTC();
+
+    // État du disjoncteur, protégé par le verrou de l'instance
+    private State state = State.CLOSED;
+    private Instant openedAt;
+    private int halfOpenPermits;
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int bufferedCalls;
+    private int nextSlot;
+    private int failures;
+    private int slows;
+    private final Deque<Transition> transitions = new ArrayDeque<>();
+
+    private final Counter bulkheadRejected;
+    private final Counter notPermitted;
+
+    public DownstreamResilienceFilter(String downstream, DownstreamResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+        this.slowCallNanos = properties.getSlowCallDurationThreshold().toNanos();
+        this.failedCalls = new boolean[properties.getSlidingWindowSize()];
+        this.slowCalls = new boolean[properties.getSlidingWindowSize()];
+
+        for (State value : State.values()) {
+            Gauge.builder("circuitbreaker.state", this, filter -> filter.getState() == value ? 1 : 0)
+                    .tag("downstream", downstream)
+                    .tag("state", value.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("circuitbreaker.failure.rate", this, filter -> filter.snapshot().failureRate())
+                .tag("downstream", downstream)
+                .baseUnit("percent")
+                .register(meterRegistry);
+        Gauge.builder("circuitbreaker.slow.call.rate", this, filter -> filter.snapshot().slowCallRate())
+                .tag("downstream", downstream)
+                .baseUnit("percent")
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.available.concurrent.calls", bulkhead, Semaphore::availablePermits)
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+
+        bulkheadRejected = Counter.builder("bulkhead.rejected").tag("downstream", downstream).register(meterRegistry);
+        notPermitted = callCounter("not_permitted");
+    }
+
+    public String getDownstream() {
+        return downstream;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            if (!tryAcquirePermission()) {
+                notPermitted.increment();
+                return Mono.error(new ExternalServiceException(
+                        "Le service " + downstream + " est temporairement indisponible (circuit ouvert)."));
+            }
+            if (!bulkhead.tryAcquire()) {
+                releasePermission();
+                bulkheadRejected.increment();
+                return Mono.error(new ExternalServiceException(
+                        "Trop d'appels simultanés vers le service " + downstream + ", appel refusé."));
+            }
+
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+
+            // Le permis est rendu à la réception des en-têtes : la lecture du corps reste bornée par le read-timeout
+            return next.exchange(request)
+                    .doOnSuccess(response -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            onResult(System.nanoTime() - start, response != null && response.statusCode().is5xxServerError());
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (recorded.compareAndSet(false, true)) onResult(System.nanoTime() - start, true);
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) releasePermission();
+                    })
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+
+    public synchronized State getState() {
+        refreshOpenState();
+        return state;
+    }
+
+    public synchronized Snapshot snapshot() {
+        refreshOpenState();
+        return new Snapshot(state, rate(failures), rate(slows), bufferedCalls, bulkhead.availablePermits(),
+                properties.getMaxConcurrentCalls(), List.copyOf(transitions));
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        refreshOpenState();
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (halfOpenPermits == 0) yield false;
+                halfOpenPermits--;
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * Appel autorisé mais non effectué ou annulé : en demi-ouverture, l'appel de test est rendu.
+     */
+    synchronized void releasePermission() {
+        if (state == State.HALF_OPEN && halfOpenPermits < properties.getPermittedCallsInHalfOpenState()) {
+            halfOpenPermits++;
+        }
+    }
+
+    synchronized void onResult(long durationNanos, boolean failed) {
+        boolean slow = durationNanos > slowCallNanos;
+        callCounter((slow ? "slow_" : "") + (failed ? "failure" : "success")).increment();
+
+        // Appel parti avant l'ouverture du circuit : son résultat ne compte plus
+        if (state == State.OPEN) return;
+
+        record(failed, slow);
+
+        if (state == State.HALF_OPEN) {
+            if (bufferedCalls >= properties.getPermittedCallsInHalfOpenState()) {
+                transitionTo(thresholdExceeded() ? State.OPEN : State.CLOSED);
+            }
+        } else if (bufferedCalls >= Math.min(properties.getMinimumNumberOfCalls(), failedCalls.length) && thresholdExceeded()) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (bufferedCalls == failedCalls.length) {
+            if (failedCalls[nextSlot]) failures--;
+            if (slowCalls[nextSlot]) slows--;
+        } else {
+            bufferedCalls++;
+        }
+        failedCalls[nextSlot] = failed;
+        slowCalls[nextSlot] = slow;
+        if (failed) failures++;
+        if (slow) slows++;
+        nextSlot = (nextSlot + 1) % failedCalls.length;
+    }
+
+    private boolean thresholdExceeded() {
+        return rate(failures) >= properties.getFailureRateThreshold()
+                || rate(slows) >= properties.getSlowCallRateThreshold();
+    }
+
+    /**
+     * @return Le taux en %, ou -1 tant qu'aucun appel n'a été observé
+     */
+    private float rate(int count) {
+        return bufferedCalls == 0 ? -1 : count * 100f / bufferedCalls;
+    }
+
+    private void refreshOpenState() {
+        if (state == State.OPEN
+                && !clock.instant().isBefore(openedAt.plus(properties.getWaitDurationInOpenState()))) {
+            transitionTo(State.HALF_OPEN);
+        }
+    }
+
+    private void transitionTo(State target) {
+        State previous = state;
+        state = target;
+        bufferedCalls = 0;
+        nextSlot = 0;
+        failures = 0;
+        slows = 0;
+        Arrays.fill(failedCalls, false);
+        Arrays.fill(slowCalls, false);
+
+        if (target == State.OPEN) openedAt = clock.instant();
+        if (target == State.HALF_OPEN) halfOpenPermits = properties.getPermittedCallsInHalfOpenState();
+
+        if (transitions.size() == TRANSITION_HISTORY_SIZE) transitions.removeFirst();
+        transitions.addLast(new Transition(previous, target, clock.instant()));
+
+        Counter.builder("circuitbreaker.transitions")
+                .tag("downstream", downstream)
+                .tag("from", previous.name().toLowerCase())
+                .tag("to", target.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+        log.warn("Disjoncteur du service {} : {} -> {}", downstream, previous, target);
+    }
+
+    private Counter callCounter(String outcome) {
+        return Counter.builder("circuitbreaker.calls")
+                .tag("downstream", downstream)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+}
@@ -0,0 +1,209 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.application.dto.OrderItemRequestDTO;
+import com.order.orders.application.dto.OrderRequestDTO;
+import com.order.orders.infrastructure.exception.ExternalServiceException;
+import com.order.orders.infrastructure.exception.FieldValueException;
+import com.order.orders.infrastructure.exception.InsufficientStockException;
+import com.order.orders.infrastructure.exception.ResourceNotFoundException;
+import com.product.products.application.dto.ProductResponseDTO;
+import com.product.products.application.dto.StockHoldItemDTO;
+import com.product.products.application.dto.StockHoldRequestDTO;
+import com.product.products.application.dto.StockHoldResponseDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.order.orders.configuration.WebClientConfig.MS_PRODUCT_BASE_URL;
+import static com.order.orders.configuration.WebClientConfig.MS_USER_BASE_URL;
+
+/**
+ * Appels de ms-order vers ms-membership et ms-product.
+ * Toutes les méthodes sont non bloquantes : le service servlet les termine par {@code block()},
+ * la variante réactive les compose directement.
+ * Les erreurs HTTP sont traduites en exceptions métier (404, 412, 503).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExternalServicesClient {
+
+    private static final String PRODUCT_DOWNSTREAM = "product";
+    private static final String USER_DOWNSTREAM = "user";
+
+    private final WebClient productServiceWebClient;
+    private final WebClient userServiceWebClient;
+    private final RequestCoalescer requestCoalescer;
+    private final UserExistenceCache userExistenceCache;
+    private final HedgingPolicy productHedgingPolicy;
+
+    @Value("${service.product.batch-size:50}")
+    private int productBatchSize = 50;
+
+    @Value("${service.product.max-concurrency:4}")
+    private int productMaxConcurrency = 4;
+
+    /**
+     * Vérifie l'utilisateur et les produits d'une commande sans attendre un appel avant de lancer le suivant.
+     * Le premier NotFound ou stock insuffisant fait échouer la validation et annule les appels restants.
+     *
+     * @return Les produits de la commande, indexés par ID, réutilisés pour la création des lignes
+     */
+    public Mono<Map<Long, ProductResponseDTO>> validateOrder(OrderRequestDTO orderRequestDTO) {
+        return Mono.zip(checkUser(orderRequestDTO.getUserId()), checkProducts(orderRequestDTO.getItems()))
+                .map(Tuple2::getT2);
+    }
+
+    /**
+     * Vérifie l'existence de l'utilisateur, d'abord dans le cache puis auprès de ms-membership ;
+     * les vérifications simultanées du même ID partagent un seul appel.
+     */
+    public Mono<Long> checkUser(Long userId) {
+        Boolean exists = userExistenceCache.get(userId);
+        if (Boolean.TRUE.equals(exists)) {
+            return Mono.just(userId);
+        }
+        if (Boolean.FALSE.equals(exists)) {
+            return Mono.error(new ResourceNotFoundException("Utilisateur introuvable ID: " + userId));
+        }
+
+        return requestCoalescer.coalesce(USER_DOWNSTREAM, userId, () ->
+                userServiceWebClient.get().uri(MS_USER_BASE_URL + "/" + userId)
+                        .retrieve().toBodilessEntity()
+                        .thenReturn(userId)
+                        .doOnNext(id -> userExistenceCache.put(id, true))
+                        .onErrorMap(WebClientResponseException.NotFound.class, e -> {
+                            userExistenceCache.put(userId, false);
+                            return new ResourceNotFoundException("Utilisateur introuvable ID: " + userId);
+                        })
+                        .onErrorMap(WebClientRequestException.class,
+                                e -> new ExternalServiceException("Le service utilisateur est indisponible.")));
+    }
+
+    /**
+     * Récupère les produits par lots de {@code productBatchSize} IDs, avec au plus
+     * {@code productMaxConcurrency} appels simultanés, et vérifie le stock de chaque produit dès sa réception.
+     */
+    public Mono<Map<Long, ProductResponseDTO>> checkProducts(List<OrderItemRequestDTO> items) {
+        Map<Long, Integer> requested = items.stream()
+                .collect(Collectors.toMap(OrderItemRequestDTO::getProductId, OrderItemRequestDTO::getQuantity,
+                        Integer::sum, LinkedHashMap::new));
+
+        return Flux.fromIterable(requested.keySet())
+                .buffer(productBatchSize)
+                .flatMap(this::fetchProductBatch, productMaxConcurrency)
+                .doOnNext(product -> {
+                    int quantity = requested.get(product.getId());
+                    if (product.getStock() < quantity) {
+                        throw new InsufficientStockException(
+                                String.format("Stock insuffisant pour '%s'. Demandé: %d, Dispo: %d",
+                                        product.getName(), quantity, product.getStock()));
+                    }
+                })
+                .collectMap(ProductResponseDTO::getId)
+                .doOnNext(products -> requested.keySet().stream()
+                        .filter(id -> !products.containsKey(id))
+                        .findFirst()
+                        .ifPresent(id -> {
+                            throw new ResourceNotFoundException("Produit introuvable ID: " + id);
+                        }));
+    }
+
+    /**
+     * Les produits déjà demandés par une autre commande en cours rejoignent cet appel ;
+     * seuls les autres IDs du lot partent vers ms-product.
+     */
+    private Flux<ProductResponseDTO> fetchProductBatch(List<Long> ids) {
+        return requestCoalescer.coalesceAll(PRODUCT_DOWNSTREAM, ids, this::loadProducts)
+                .flatMapIterable(Map::values);
+    }
+
+    /**
+     * Lecture idempotente : une requête de secours peut partir si ms-product tarde à répondre (voir HedgingPolicy).
+     */
+    private Mono<Map<Long, ProductResponseDTO>> loadProducts(List<Long> ids) {
+        String joinedIds = ids.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        return productHedgingPolicy.hedge(() -> productServiceWebClient.get()
+                        .uri(MS_PRODUCT_BASE_URL + "/batch?ids=" + joinedIds)
+                        .retrieve()
+                        .bodyToFlux(ProductResponseDTO.class)
+                        .collectMap(ProductResponseDTO::getId))
+                .onErrorMap(WebClientRequestException.class,
+                        e -> new ExternalServiceException("Le service produit est indisponible."));
+    }
+
+    /**
+     * Réserve temporairement le stock de toutes les lignes de la commande en un seul appel à ms-product.
+     *
+     * @return L'identifiant de la réservation
+     */
+    public Mono<Long> placeStockHold(List<OrderItemRequestDTO> items) {
+        List<StockHoldItemDTO> holdItems = items.stream()
+                .map(item -> new StockHoldItemDTO(item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList());
+
+        return productServiceWebClient.post()
+                .uri(MS_PRODUCT_BASE_URL + "/stock/holds")
+                .bodyValue(new StockHoldRequestDTO(holdItems, null))
+                .retrieve().bodyToMono(StockHoldResponseDTO.class)
+                .map(StockHoldResponseDTO::getId)
+                .switchIfEmpty(Mono.error(() -> new ExternalServiceException("Le service produit n'a pas renvoyé de réservation.")))
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return new ResourceNotFoundException("Produit introuvable lors de la réservation du stock");
+                    }
+                    if (e.getStatusCode() == HttpStatus.PRECONDITION_FAILED) {
+                        return new InsufficientStockException("Stock insuffisant lors de la réservation pour au moins un produit de la commande");
+                    }
+                    return new ExternalServiceException("product", String.valueOf(e.getStatusCode().value()), e);
+                })
+                .onErrorMap(WebClientRequestException.class,
+                        e -> new ExternalServiceException("Le service produit est indisponible."));
+    }
+
+    /**
+     * Confirme (commit) ou libère une réservation de stock.
+     * La confirmation peut être rejouée : ms-product accepte une réservation déjà confirmée.
+     * Une libération refusée (412) signifie que la réservation a déjà été confirmée, par un appel dont la commande
+     * n'a pas été enregistrée (échec de l'écriture, échéance dépassée) : comme à l'annulation d'une commande
+     * confirmée, le stock n'est pas rendu et l'annulation se poursuit.
+     */
+    public Mono<Void> settleStockHold(Long stockHoldId, boolean commit) {
+        WebClient.RequestHeadersSpec<?> request = commit
+                ? productServiceWebClient.post().uri(MS_PRODUCT_BASE_URL + "/stock/holds/" + stockHoldId + "/commit")
+                : productServiceWebClient.delete().uri(MS_PRODUCT_BASE_URL + "/stock/holds/" + stockHoldId);
+
+        return request.retrieve().toBodilessEntity()
+                .then()
+                .onErrorResume(e -> !commit && e instanceof WebClientResponseException response
+                        && response.getStatusCode() == HttpStatus.PRECONDITION_FAILED, e -> {
+                    log.warn("Réservation de stock {} déjà confirmée, non libérée : le stock n'est pas rendu", stockHoldId);
+                    return Mono.empty();
+                })
+                .onErrorMap(WebClientResponseException.class, e -> {
+                    if (e.getStatusCode() == HttpStatus.PRECONDITION_FAILED || e.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return new FieldValueException("order", "stockHoldId", stockHoldId,
+                                "La réservation de stock a expiré ou n'est plus active, la commande doit être annulée");
+                    }
+                    return new ExternalServiceException("product", String.valueOf(e.getStatusCode().value()), e);
+                })
+                .onErrorMap(WebClientRequestException.class,
+                        e -> new ExternalServiceException("Le service produit est indisponible."));
+    }
+}
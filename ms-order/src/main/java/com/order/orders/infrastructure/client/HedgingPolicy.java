@@ -0,0 +1,135 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.configuration.HedgingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Requêtes de secours (hedging) pour les lectures idempotentes d'un service appelé.
+ * Si la requête principale n'a pas répondu après le percentile configuré des latences récentes, une seconde
+ * requête identique part ; la première réponse reçue est gardée et l'autre requête est annulée.
+ * - Une erreur de la requête principale est renvoyée telle quelle ; une erreur de la requête de secours est ignorée
+ * - Le budget limite les requêtes de secours à {@code budget-ratio} des requêtes principales
+ * - Avec plusieurs instances, la requête de secours part vers une autre instance que la requête principale
+ *   (voir {@link LoadBalancingFilter#EXCLUDED_INSTANCES_KEY})
+ * - Les deux requêtes sont souscrites dans la chaîne de l'appelant : la requête de secours garde son contexte Reactor,
+ *   dont l'échéance transmise par {@link DeadlineExchangeFilter}
+ * <p>
+ * Métriques, par service : {@code webclient.hedge.requests} (result=sent|budget_exhausted),
+ * {@code webclient.hedge.wins} (winner=primary|hedge) et {@code webclient.hedge.delay}.
+ */
+public class HedgingPolicy {
+
+    private final HedgingProperties properties;
+
+    // Latences récentes des requêtes principales (en ns) et délai calculé, protégés par le verrou de l'instance
+    private final long[] latencies;
+    private int samples;
+    private int nextSlot;
+    private long delayNanos;
+    private double budget;
+
+    private final Counter hedgesSent;
+    private final Counter budgetExhausted;
+    private final Counter primaryWins;
+    private final Counter hedgeWins;
+
+    public HedgingPolicy(String downstream, HedgingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.latencies = new long[properties.getWindowSize()];
+        this.delayNanos = properties.getInitialDelay().toNanos();
+
+        hedgesSent = Counter.builder("webclient.hedge.requests").tag("downstream", downstream).tag("result", "sent").register(meterRegistry);
+        budgetExhausted = Counter.builder("webclient.hedge.requests").tag("downstream", downstream).tag("result", "budget_exhausted").register(meterRegistry);
+        primaryWins = Counter.builder("webclient.hedge.wins").tag("downstream", downstream).tag("winner", "primary").register(meterRegistry);
+        hedgeWins = Counter.builder("webclient.hedge.wins").tag("downstream", downstream).tag("winner", "hedge").register(meterRegistry);
+        Gauge.builder("webclient.hedge.delay", this, policy -> policy.currentDelay().toNanos() / 1_000_000.0)
+                .tag("downstream", downstream)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param call Requête idempotente, appelée une seconde fois pour la requête de secours
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Duration delay = currentDelay();
+            addBudget();
+
+            // Écrit sur le thread du délai, lu sur celui de la réponse principale
+            AtomicBoolean hedged = new AtomicBoolean();
+            Set<String> usedInstances = ConcurrentHashMap.newKeySet();
+            Mono<T> primary = call.get()
+                    .contextWrite(context -> context.put(LoadBalancingFilter.EXCLUDED_INSTANCES_KEY, usedInstances))
+                    .doOnNext(value -> {
+                        recordLatency(System.nanoTime() - start);
+                        if (hedged.get()) primaryWins.increment();
+                    });
+
+            // Ne signale rien tant que la requête de secours n'a pas de réponse : seule la requête principale
+            // peut alors terminer l'appel, y compris en erreur
+            Mono<T> hedge = Mono.delay(delay)
+                    .flatMap(tick -> {
+                        if (!tryAcquireBudget()) {
+                            budgetExhausted.increment();
+                            return Mono.<T>never();
+                        }
+                        hedged.set(true);
+                        hedgesSent.increment();
+                        return call.get()
+                                .contextWrite(context -> context.put(LoadBalancingFilter.EXCLUDED_INSTANCES_KEY, usedInstances))
+                                .onErrorResume(error -> Mono.never());
+                    })
+                    .doOnNext(value -> {
+                        // La latence de la requête principale est au moins égale à celle observée ici
+                        recordLatency(System.nanoTime() - start);
+                        hedgeWins.increment();
+                    });
+
+            return Mono.firstWithSignal(primary, hedge);
+        });
+    }
+
+    public synchronized Duration currentDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[nextSlot] = nanos;
+        nextSlot = (nextSlot + 1) % latencies.length;
+        samples = Math.min(samples + 1, latencies.length);
+
+        // Le percentile est recalculé toutes les minSamples mesures plutôt qu'à chaque réponse
+        if (samples >= properties.getMinSamples() && nextSlot % properties.getMinSamples() == 0) {
+            long[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(properties.getPercentile() / 100 * samples) - 1;
+            delayNanos = Math.max(sorted[Math.max(index, 0)], properties.getMinDelay().toNanos());
+        }
+    }
+
+    private synchronized void addBudget() {
+        budget = Math.min(budget + properties.getBudgetRatio(), properties.getMaxBurst());
+    }
+
+    private synchronized boolean tryAcquireBudget() {
+        if (budget < 1) return false;
+        budget -= 1;
+        return true;
+    }
+}
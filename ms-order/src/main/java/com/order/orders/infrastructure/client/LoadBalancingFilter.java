@@ -0,0 +1,208 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.configuration.LoadBalancerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Répartition de charge côté client entre les instances d'un service appelé.
+ * - Sélection « power of two choices » : deux instances saines tirées au hasard, la moins chargée
+ *   (requêtes en cours) est retenue
+ * - Une instance est écartée après {@code eject-after-failures} échecs consécutifs ou une sonde de santé en échec,
+ *   et réintégrée à la première sonde réussie ; si aucune instance n'est saine, toutes restent utilisables
+ * - Les instances listées dans le contexte Reactor sous {@link #EXCLUDED_INSTANCES_KEY} sont évitées quand c'est
+ *   possible (requêtes de secours, voir {@link HedgingPolicy})
+ * <p>
+ * Métriques, par service et instance : {@code webclient.instance.requests} (latence, outcome=success|error),
+ * {@code webclient.instance.outstanding}, {@code webclient.instance.healthy} et {@code webclient.instance.ejections}.
+ */
+@Slf4j
+public class LoadBalancingFilter implements ExchangeFilterFunction, DisposableBean {
+
+    /**
+     * Clé du contexte Reactor : {@code Set<String>} des instances déjà utilisées par les autres tentatives de l'appel,
+     * complété par ce filtre
+     */
+    public static final String EXCLUDED_INSTANCES_KEY = LoadBalancingFilter.class.getName() + ".excluded";
+
+    private final String downstream;
+    private final LoadBalancerProperties properties;
+    private final List<Instance> instances;
+    private final Disposable healthChecks;
+
+    private final class Instance {
+
+        private final URI uri;
+        private final String name;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean healthy = true;
+        private final Timer successes;
+        private final Timer errors;
+        private final Counter ejections;
+
+        private Instance(URI uri, MeterRegistry meterRegistry) {
+            this.uri = uri;
+            this.name = uri.getAuthority();
+            this.successes = timer(meterRegistry, "success");
+            this.errors = timer(meterRegistry, "error");
+            this.ejections = Counter.builder("webclient.instance.ejections")
+                    .tag("downstream", downstream).tag("instance", name)
+                    .register(meterRegistry);
+            Gauge.builder("webclient.instance.outstanding", outstanding, AtomicInteger::get)
+                    .tag("downstream", downstream).tag("instance", name)
+                    .register(meterRegistry);
+            Gauge.builder("webclient.instance.healthy", this, instance -> instance.healthy ? 1 : 0)
+                    .tag("downstream", downstream).tag("instance", name)
+                    .register(meterRegistry);
+        }
+
+        private Timer timer(MeterRegistry meterRegistry, String outcome) {
+            return Timer.builder("webclient.instance.requests")
+                    .tag("downstream", downstream).tag("instance", name).tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        private void onResult(long start, boolean success) {
+            (success ? successes : errors).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (success) {
+                consecutiveFailures.set(0);
+            } else if (consecutiveFailures.incrementAndGet() >= properties.getEjectAfterFailures() && instances.size() > 1) {
+                setHealthy(false, consecutiveFailures.get() + " échecs consécutifs");
+            }
+        }
+
+        private void setHealthy(boolean healthy, String reason) {
+            if (this.healthy == healthy) return;
+            this.healthy = healthy;
+            if (healthy) {
+                consecutiveFailures.set(0);
+                log.info("Instance {} du service {} réintégrée", name, downstream);
+            } else {
+                ejections.increment();
+                log.warn("Instance {} du service {} écartée: {}", name, downstream, reason);
+            }
+        }
+    }
+
+    public LoadBalancingFilter(String downstream, List<String> urls, LoadBalancerProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.downstream = downstream;
+        this.properties = properties;
+        this.instances = urls.stream()
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(url -> new Instance(URI.create(url), meterRegistry))
+                .toList();
+        if (instances.isEmpty()) {
+            throw new IllegalArgumentException("Aucune instance configurée pour le service " + downstream);
+        }
+
+        // Une seule instance : rien à écarter, pas de sonde
+        this.healthChecks = instances.size() == 1 ? null : startHealthChecks();
+    }
+
+    public URI getDefaultBaseUrl() {
+        return instances.get(0).uri;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Set<String> excluded = context.getOrDefault(EXCLUDED_INSTANCES_KEY, null);
+            Instance instance = choose(excluded);
+            if (excluded != null) excluded.add(instance.name);
+
+            URI url = UriComponentsBuilder.fromUri(request.url())
+                    .scheme(instance.uri.getScheme())
+                    .host(instance.uri.getHost())
+                    .port(instance.uri.getPort())
+                    .build(true)
+                    .toUri();
+
+            long start = System.nanoTime();
+            instance.outstanding.incrementAndGet();
+
+            return next.exchange(ClientRequest.from(request).url(url).build())
+                    .doOnSuccess(response -> instance.onResult(start,
+                            response == null || !response.statusCode().is5xxServerError()))
+                    .doOnError(error -> instance.onResult(start, false))
+                    .doFinally(signal -> instance.outstanding.decrementAndGet());
+        });
+    }
+
+    /**
+     * Instances saines non exclues, à défaut saines, à défaut toutes : mieux vaut tenter une instance douteuse
+     * que refuser l'appel.
+     */
+    private Instance choose(Set<String> excluded) {
+        List<Instance> candidates = instances.stream()
+                .filter(instance -> instance.healthy && (excluded == null || !excluded.contains(instance.name)))
+                .toList();
+        if (candidates.isEmpty()) {
+            candidates = instances.stream().filter(instance -> instance.healthy).toList();
+        }
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) second++;
+
+        Instance a = candidates.get(first);
+        Instance b = candidates.get(second);
+        return a.outstanding.get() <= b.outstanding.get() ? a : b;
+    }
+
+    private Disposable startHealthChecks() {
+        WebClient healthClient = WebClient.create();
+
+        return Flux.interval(properties.getHealthCheckInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> Flux.fromIterable(instances)
+                        .flatMap(instance -> healthClient.get()
+                                .uri(UriComponentsBuilder.fromUri(instance.uri)
+                                        .pathSegment(properties.getHealthPath().split("/"))
+                                        .build()
+                                        .toUri())
+                                .retrieve()
+                                .toBodilessEntity()
+                                .map(response -> true)
+                                .timeout(properties.getHealthCheckTimeout())
+                                .onErrorReturn(false)
+                                .doOnNext(up -> instance.setHealthy(up, "sonde de santé en échec")))
+                        .then())
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        if (healthChecks != null) healthChecks.dispose();
+    }
+}
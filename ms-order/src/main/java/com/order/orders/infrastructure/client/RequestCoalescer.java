@@ -0,0 +1,148 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.infrastructure.exception.DeadlineExceededException;
+import com.order.orders.infrastructure.web.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Regroupement (single-flight) des appels concurrents vers les services externes.
+ * Tant qu'un appel est en cours pour une clé donnée, les demandes suivantes pour la même clé
+ * partagent son résultat au lieu de déclencher un nouvel appel. La clé est libérée dès la fin de l'appel :
+ * aucun résultat n'est conservé au-delà de l'appel en cours.
+ * - L'appel est souscrit dans la chaîne du premier demandeur : il voit son contexte Reactor et démarre sur son thread
+ * - Sauf l'échéance : seuls les demandeurs dont l'échéance tombe dans la même tranche de {@code DEADLINE_BUCKET}
+ *   partagent un appel, qui porte la fin de la tranche, postérieure à chacune de leurs échéances. Chaque demandeur
+ *   applique sa propre échéance de son côté : un demandeur pressé n'impose pas son délai aux autres
+ * - Il est partagé par comptage de références : annulé quand tous les demandeurs ont annulé, ce qui libère aussi
+ *   ses clés
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestCoalescer {
+
+    /**
+     * Largeur des tranches d'échéance : au plus ce délai ajouté à l'échéance transmise au service appelé
+     */
+    static final Duration DEADLINE_BUCKET = Duration.ofMillis(100);
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Exécute {@code call} pour la clé, ou rejoint l'appel déjà en cours pour cette clé.
+     *
+     * @param downstream Nom du service appelé, utilisé pour isoler les clés et taguer les métriques
+     */
+    public <K, V> Mono<V> coalesce(String downstream, K key, Supplier<Mono<V>> call) {
+        return coalesceAll(downstream, List.of(key), keys -> call.get().map(value -> Map.of(key, value)))
+                .flatMap(values -> Mono.justOrEmpty(values.get(key)));
+    }
+
+    /**
+     * Variante par lot : les clés déjà en cours rejoignent leur appel, les autres sont chargées
+     * ensemble par un seul appel à {@code loader}.
+     *
+     * @return Les valeurs trouvées, indexées par clé ; une clé absente du résultat du loader est absente ici
+     */
+    public <K, V> Mono<Map<K, V>> coalesceAll(String downstream, Collection<K> keys,
+                                              Function<List<K>, Mono<Map<K, V>>> loader) {
+        return Mono.deferContextual(context -> {
+            Instant deadline = context.<Instant>getOrEmpty(RequestDeadline.CONTEXT_KEY).orElse(null);
+            if (deadline != null && !RequestDeadline.remaining(deadline).isPositive()) {
+                return Mono.error(new DeadlineExceededException(
+                        "L'échéance de la requête est dépassée, appel au service " + downstream + " abandonné"));
+            }
+            Instant sharedDeadline = deadline == null ? null : bucketEnd(deadline);
+
+            List<K> owned = new ArrayList<>();
+            Map<K, Mono<V>> joined = new LinkedHashMap<>();
+            Map<K, Mono<V>> ownedFlights = new LinkedHashMap<>();
+            Runnable release = () -> ownedFlights.forEach((key, flight) ->
+                    inFlight.remove(flightKey(downstream, key, sharedDeadline), flight));
+
+            // Appel commun aux clés de ce demandeur, démarré par la première souscription et annulé quand tous les
+            // demandeurs ont annulé. Les clés sont libérées avant l'émission : une demande arrivant après la réponse
+            // relance un appel
+            Flux<Map<K, V>> batch = Flux.from(Mono.defer(() -> loader.apply(List.copyOf(owned))))
+                    .contextWrite(shared -> sharedDeadline == null
+                            ? shared.delete(RequestDeadline.CONTEXT_KEY)
+                            : shared.put(RequestDeadline.CONTEXT_KEY, sharedDeadline))
+                    .doOnEach(signal -> release.run())
+                    .doOnCancel(release)
+                    .publish()
+                    .refCount(1);
+
+            for (K key : keys) {
+                Mono<V> flight = batch.next().flatMap(values -> Mono.justOrEmpty(values.get(key)));
+                @SuppressWarnings("unchecked")
+                Mono<V> existing = (Mono<V>) inFlight.putIfAbsent(flightKey(downstream, key, sharedDeadline), flight);
+                if (existing != null) {
+                    joined.put(key, existing);
+                } else {
+                    ownedFlights.put(key, flight);
+                    owned.add(key);
+                }
+            }
+
+            if (!joined.isEmpty()) {
+                counter("webclient.requests.coalesced", downstream).increment(joined.size());
+            }
+
+            // Une seule souscription du demandeur à son propre appel, une par clé rejointe
+            Mono<Map<K, V>> own = Mono.empty();
+            if (!owned.isEmpty()) {
+                counter("webclient.requests.executed", downstream).increment(owned.size());
+                own = batch.next().map(values -> {
+                    Map<K, V> found = new LinkedHashMap<>();
+                    owned.forEach(key -> {
+                        V value = values.get(key);
+                        if (value != null) found.put(key, value);
+                    });
+                    return found;
+                });
+            }
+
+            Mono<Map<K, V>> values = Flux.fromIterable(joined.entrySet())
+                    .flatMap(entry -> entry.getValue().map(value -> Map.entry(entry.getKey(), value)))
+                    .mergeWith(own.flatMapIterable(Map::entrySet))
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+            if (deadline == null) return values;
+
+            // L'échéance propre au demandeur : à son expiration, seule sa souscription est annulée
+            return values.timeout(RequestDeadline.remaining(deadline), Mono.error(() -> new DeadlineExceededException(
+                    "L'échéance de la requête a expiré pendant l'appel au service " + downstream)));
+        });
+    }
+
+    private static Instant bucketEnd(Instant deadline) {
+        long width = DEADLINE_BUCKET.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(deadline.toEpochMilli(), width) * width + width);
+    }
+
+    private Counter counter(String name, String downstream) {
+        return Counter.builder(name)
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+    }
+
+    private static String flightKey(String downstream, Object key, Instant sharedDeadline) {
+        return sharedDeadline == null ? downstream + ":" + key : downstream + ":" + key + "@" + sharedDeadline.toEpochMilli();
+    }
+}
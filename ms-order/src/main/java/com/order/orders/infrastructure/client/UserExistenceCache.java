@@ -0,0 +1,95 @@
+package com.order.orders.infrastructure.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache borné des vérifications d'existence d'utilisateur auprès de ms-membership.
+ * - Les réponses positives et négatives (404) sont gardées avec des TTL distincts
+ * - Au-delà de {@code max-entries}, l'entrée la moins récemment utilisée est évincée
+ */
+@Component
+@RequiredArgsConstructor
+public class UserExistenceCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${service.user.cache.max-entries:10000}")
+    private int maxEntries = 10_000;
+
+    @Value("${service.user.cache.positive-ttl:PT10M}")
+    private Duration positiveTtl = Duration.ofMinutes(10);
+
+    @Value("${service.user.cache.negative-ttl:PT30S}")
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    private Clock clock = Clock.systemUTC();
+
+    private Map<Long, Entry> entries;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter sizeEvictions;
+    private Counter expiredEvictions;
+
+    private record Entry(boolean exists, Instant expiresAt) {
+    }
+
+    @PostConstruct
+    public void init() {
+        entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                boolean evict = size() > maxEntries;
+                if (evict) sizeEvictions.increment();
+                return evict;
+            }
+        });
+
+        hits = Counter.builder("users.existence.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("users.existence.cache.requests").tag("result", "miss").register(meterRegistry);
+        sizeEvictions = Counter.builder("users.existence.cache.evictions").tag("cause", "size").register(meterRegistry);
+        expiredEvictions = Counter.builder("users.existence.cache.evictions").tag("cause", "expired").register(meterRegistry);
+        meterRegistry.gaugeMapSize("users.existence.cache.size", List.of(), entries);
+    }
+
+    /**
+     * @return {@code true}/{@code false} si le résultat est en cache et encore valide, {@code null} sinon
+     */
+    public Boolean get(Long userId) {
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt().isBefore(clock.instant())) {
+            if (entries.remove(userId, entry)) expiredEvictions.increment();
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.exists();
+    }
+
+    public void put(Long userId, boolean exists) {
+        Duration ttl = exists ? positiveTtl : negativeTtl;
+        if (ttl.isZero() || ttl.isNegative()) return;
+        entries.put(userId, new Entry(exists, clock.instant().plus(ttl)));
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+}
@@ -0,0 +1,115 @@
+package com.order.orders.infrastructure.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Équivalent de {@link GlobalExceptionHandler} pour le profil "reactive" (WebFlux).
+ * Mêmes codes de statut et même format {@link ErrorResponse}.
+ */
+@Slf4j
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex, ServerHttpRequest request) {
+        log.error("Ressource non trouvée: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(ResourceAlreadyExistsException.class)
+    public ResponseEntity<ErrorResponse> handleResourceAlreadyExistsException(ResourceAlreadyExistsException ex, ServerHttpRequest request) {
+        log.error("Ressource déjà existante: {}", ex.getMessage());
+        return error(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
+    /**
+     * Erreurs de validation (400), déclenchées par @Valid dans les contrôleurs
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(WebExchangeBindException ex, ServerHttpRequest request) {
+        log.error("Erreur de validation: {}", ex.getMessage());
+
+        List<ErrorResponse.ValidationError> validationErrors = ex.getBindingResult().getFieldErrors().stream()
+                .map((FieldError error) -> ErrorResponse.ValidationError.builder()
+                        .field(error.getField())
+                        .message(error.getDefaultMessage())
+                        .rejectedValue(error.getRejectedValue())
+                        .build())
+                .toList();
+
+        ResponseEntity<ErrorResponse> response = error(HttpStatus.BAD_REQUEST, "Erreur de validation des données", request);
+        response.getBody().setValidationErrors(validationErrors);
+        return response;
+    }
+
+    /**
+     * Paramètre de chemin ou corps illisible (400)
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleInputException(ServerWebInputException ex, ServerHttpRequest request) {
+        log.error("Erreur de type de paramètre: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, ex.getReason(), request);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex, ServerHttpRequest request) {
+        log.error("Argument illégal: {}", ex.getMessage());
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientStockException(InsufficientStockException ex, ServerHttpRequest request) {
+        log.error("Quantité demandée supérieure au stock disponible: {}", ex.getMessage());
+        return error(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(FieldValueException.class)
+    public ResponseEntity<ErrorResponse> handleFieldValueException(FieldValueException ex, ServerHttpRequest request) {
+        log.error("Erreur lié au champ d'un objet: {}", ex.getMessage());
+        return error(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(ExternalServiceException.class)
+    public ResponseEntity<ErrorResponse> handleExternalServiceException(ExternalServiceException ex, ServerHttpRequest request) {
+        log.error("Un service externe est injoignable/a renvoyé une erreur: {}", ex.getMessage());
+        return error(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDeadlineExceededException(DeadlineExceededException ex, ServerHttpRequest request) {
+        log.warn("Échéance de la requête dépassée: {}", ex.getMessage());
+        return error(HttpStatus.GATEWAY_TIMEOUT, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, ServerHttpRequest request) {
+        log.error("Erreur interne du serveur: ", ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR,
+                "Une erreur interne s'est produite. Veuillez contacter l'administrateur.", request);
+    }
+
+    private ResponseEntity<ErrorResponse> error(HttpStatus status, String message, ServerHttpRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(request.getPath().value())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
@@ -0,0 +1,43 @@
+package com.order.orders.infrastructure.health;
+
+import com.order.orders.infrastructure.client.DownstreamResilienceFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Endpoint /actuator/circuitbreakers : état du disjoncteur et du bulkhead de chaque service appelé,
+ * avec ses dernières transitions.
+ */
+@Component
+@Endpoint(id = "circuitbreakers")
+@RequiredArgsConstructor
+public class CircuitBreakersEndpoint {
+
+    private final List<DownstreamResilienceFilter> resilienceFilters;
+
+    @ReadOperation
+    public Map<String, DownstreamResilienceFilter.Snapshot> circuitBreakers() {
+        Map<String, DownstreamResilienceFilter.Snapshot> snapshots = new TreeMap<>();
+        resilienceFilters.forEach(filter -> snapshots.put(filter.getDownstream(), filter.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * @return {@code null} (404) si le service n'existe pas
+     */
+    @ReadOperation
+    public DownstreamResilienceFilter.Snapshot circuitBreaker(@Selector String downstream) {
+        return resilienceFilters.stream()
+                .filter(filter -> filter.getDownstream().equals(downstream))
+                .findFirst()
+                .map(DownstreamResilienceFilter::snapshot)
+                .orElse(null);
+    }
+}
@@ -1,75 +1,74 @@
 package com.order.orders.infrastructure.health;
 
+import com.order.orders.infrastructure.health.ExternalServicesProber.ProbeResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Health Indicator personnalisé pour vérifier les services externes.
- * Best practice : Permet de monitorer la disponibilité des dépendances externes
+ * Lit le dernier résultat des sondes de {@link ExternalServicesProber} : aucun appel réseau pendant /actuator/health.
+ * - DOWN si un service a échoué à sa dernière sonde
+ * - UNKNOWN si un service n'a pas encore été sondé ou si son dernier résultat date de plus de {@code stale-after}
+ *   (statut STALE dans les détails : les sondes ne tournent plus)
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ExternalServicesHealthIndicator implements HealthIndicator {
 
-    private final WebClient productServiceWebClient;
-    private final WebClient userServiceWebClient;
+    private final ExternalServicesProber prober;
+
+    @Value("${service.health-probe.stale-after:PT30S}")
+    private Duration staleAfter = Duration.ofSeconds(30);
 
-    private final String healthEndpoint = "actuator/health";
+    private Clock clock = Clock.systemUTC();
 
     @Override
     public Health health() {
-        try {
-            // Simulation d'un check de service externe
-            // Dans un cas réel, vous feriez un appel HTTP, une connexion à un service, etc.
-            boolean isUserServiceUp = checkUserService();
-            boolean isProductServiceUp = checkProductService();
-            
-            if (isUserServiceUp && isProductServiceUp) {
-                return Health.up()
-                        .withDetail("userService", "UP")
-                        .withDetail("productService", "UP")
-                        .build();
-            } else {
-                return Health.down()
-                        .withDetail("userService", isUserServiceUp ? "UP" : "DOWN")
-                        .withDetail("productService", isProductServiceUp ? "UP" : "DOWN")
-                        .build();
+        Map<String, ProbeResult> results = prober.getResults();
+        Instant now = clock.instant();
+
+        boolean down = false;
+        boolean unknown = false;
+        Health.Builder builder = new Health.Builder();
+        for (String service : prober.getServices()) {
+            ProbeResult result = results.get(service);
+            if (result == null) {
+                unknown = true;
+                builder.withDetail(service, Map.of("status", "UNKNOWN"));
+                continue;
             }
-            
-        } catch (Exception e) {
-            log.error("Health check external services failed", e);
-            return Health.down()
-                    .withDetail("error", e.getMessage())
-                    .build();
+
+            Duration age = Duration.between(result.checkedAt(), now);
+            String status = age.compareTo(staleAfter) > 0 ? "STALE" : result.up() ? "UP" : "DOWN";
+            down |= status.equals("DOWN");
+            unknown |= status.equals("STALE");
+
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("status", status);
+            details.put("checkedAt", result.checkedAt().toString());
+            details.put("ageMs", age.toMillis());
+            details.put("latencyMs", result.latency().toMillis());
+            if (result.error() != null) details.put("error", result.error());
+            builder.withDetail(service, details);
         }
-    }
 
-    private boolean checkUserService() {
-        return Boolean.TRUE.equals(
-                userServiceWebClient.get()
-                        .uri(healthEndpoint)
-                        .retrieve()
-                        .toBodilessEntity()
-                        .map(response -> response.getStatusCode().is2xxSuccessful())
-                        .onErrorReturn(false)
-                        .block()
-        );
+        if (down) return builder.down().build();
+        if (unknown) return builder.unknown().build();
+        return builder.up().build();
     }
 
-    private boolean checkProductService() {
-        return Boolean.TRUE.equals(
-                productServiceWebClient.get()
-                        .uri(healthEndpoint)
-                        .retrieve()
-                        .toBodilessEntity()
-                        .map(response -> response.getStatusCode().is2xxSuccessful())
-                        .onErrorReturn(false)
-                        .block()
-        );
+    void setClock(Clock clock) {
+        this.clock = clock;
     }
 }
@@ -0,0 +1,190 @@
+package com.order.orders.infrastructure.health;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sondes de santé des services appelés, en arrière-plan, indépendantes des appels à /actuator/health.
+ * - Une tournée à intervalle fixe ({@code interval}), décalée d'un aléa d'au plus {@code jitter} pour que les
+ *   instances ne sondent pas toutes au même instant ; une tournée ne démarre qu'après la fin de la précédente
+ * - Chaque sonde est bornée par {@code timeout} et sans blocage de thread
+ * - Une tournée en échec est journalisée et n'arrête pas les suivantes
+ * - Un service est UP dès qu'une de ses instances ({@code service.<nom>.url}) répond
+ * - Client HTTP dédié, sans les filtres des clients métier : une sonde ne doit ni ouvrir le disjoncteur, ni prendre
+ *   une place du bulkhead, ni fausser les métriques des appels, ni passer par la répartition de charge
+ * - Le dernier résultat de chaque service est gardé avec sa date et sa latence, lu par
+ *   {@link ExternalServicesHealthIndicator}
+ * <p>
+ * Métrique, par service : {@code external.health.probe} (latence, result=up|down).
+ */
+@Slf4j
+@Component
+public class ExternalServicesProber implements DisposableBean {
+
+    private final WebClient healthClient;
+    private final Map<String, List<URI>> services = new LinkedHashMap<>();
+    private final Map<String, ProbeResult> results = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Groupe readiness plutôt que /actuator/health : sonder la santé complète d'un service déclencherait ses propres
+     * vérifications de dépendances à chaque tournée
+     */
+    @Value("${service.health-probe.path:actuator/health/readiness}")
+    private String path = "actuator/health/readiness";
+
+    @Value("${service.health-probe.interval:PT10S}")
+    private Duration interval = Duration.ofSeconds(10);
+
+    @Value("${service.health-probe.jitter:PT2S}")
+    private Duration jitter = Duration.ofSeconds(2);
+
+    @Value("${service.health-probe.timeout:PT2S}")
+    private Duration timeout = Duration.ofSeconds(2);
+
+    private Clock clock = Clock.systemUTC();
+
+    private Disposable probes;
+
+    /**
+     * Résultat d'une sonde
+     *
+     * @param error Cause de l'échec, null si le service a répondu
+     */
+    public record ProbeResult(boolean up, Instant checkedAt, Duration latency, String error) {
+    }
+
+    @Autowired
+    public ExternalServicesProber(@Value("${service.user.url}") List<String> userServiceUrls,
+                                  @Value("${service.product.url}") List<String> productServiceUrls,
+                                  MeterRegistry meterRegistry) {
+        this(WebClient.create(), userServiceUrls, productServiceUrls, meterRegistry);
+    }
+
+    ExternalServicesProber(WebClient healthClient, List<String> userServiceUrls, List<String> productServiceUrls,
+                           MeterRegistry meterRegistry) {
+        this.healthClient = healthClient;
+        this.meterRegistry = meterRegistry;
+        services.put("userService", instances(userServiceUrls));
+        services.put("productService", instances(productServiceUrls));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        probes = Mono.defer(() -> Flux.fromIterable(services.entrySet())
+                        .flatMap(service -> probe(service.getKey(), service.getValue()))
+                        .then()
+                        .onErrorResume(error -> {
+                            log.error("Échec d'une tournée des sondes de santé, reprise à la suivante", error);
+                            return Mono.empty();
+                        })
+                        .then(Mono.delay(nextDelay())))
+                .repeat()
+                .subscribe(null, error -> log.error("Sondes de santé des services arrêtées", error));
+        log.info("Sondes de santé des services {} démarrées (toutes les {} ± {})", services.keySet(), interval, jitter);
+    }
+
+    public Set<String> getServices() {
+        return services.keySet();
+    }
+
+    /**
+     * Dernier résultat de chaque service déjà sondé
+     */
+    public Map<String, ProbeResult> getResults() {
+        return Map.copyOf(results);
+    }
+
+    void record(String service, ProbeResult result) {
+        ProbeResult previous = results.put(service, result);
+        if (previous != null && previous.up() != result.up()) {
+            log.warn("Service {} désormais {}{}", service, result.up() ? "UP" : "DOWN",
+                    result.error() == null ? "" : ": " + result.error());
+        }
+    }
+
+    private Mono<Void> probe(String service, List<URI> instances) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            // Vide dès qu'une instance répond ; sinon l'erreur de la dernière instance sondée
+            return Flux.fromIterable(instances)
+                    .flatMap(instance -> healthClient.get()
+                            .uri(UriComponentsBuilder.fromUri(instance)
+                                    .pathSegment(path.split("/"))
+                                    .build()
+                                    .toUri())
+                            .retrieve()
+                            .toBodilessEntity()
+                            .timeout(timeout)
+                            .map(response -> Optional.<String>empty())
+                            .onErrorResume(error -> Mono.just(Optional.of(
+                                    instance + " " + error.getClass().getSimpleName() + ": " + error.getMessage()))))
+                    .takeUntil(Optional::isEmpty)
+                    .last()
+                    .doOnNext(error -> {
+                        long latency = System.nanoTime() - start;
+                        boolean up = error.isEmpty();
+                        Timer.builder("external.health.probe")
+                                .tag("service", service)
+                                .tag("result", up ? "up" : "down")
+                                .register(meterRegistry)
+                                .record(latency, TimeUnit.NANOSECONDS);
+                        record(service, new ProbeResult(up, clock.instant(), Duration.ofNanos(latency), error.orElse(null)));
+                    })
+                    .then();
+        });
+    }
+
+    private static List<URI> instances(List<String> urls) {
+        return urls.stream()
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .map(URI::create)
+                .toList();
+    }
+
+    private Duration nextDelay() {
+        long jitterMillis = jitter.toMillis();
+        long offset = jitterMillis <= 0 ? 0 : ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1);
+        return interval.plusMillis(offset);
+    }
+
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    void setInterval(Duration interval, Duration jitter) {
+        this.interval = interval;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public void destroy() {
+        if (probes != null) probes.dispose();
+    }
+}
@@ -0,0 +1,50 @@
+package com.order.orders.infrastructure.persistence;
+
+import com.order.orders.domain.entity.IdempotencyRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Écriture non bloquante de la table idempotency_keys pour le profil "reactive", dans la transaction R2DBC
+ * de la commande. Les lectures et la purge restent en JPA (IdempotencyRecordRepository).
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveIdempotencyRecordRepository {
+
+    private final DatabaseClient orderDatabaseClient;
+
+    /**
+     * Insère l'enregistrement ; une clé déjà présente et non expirée échoue en DataIntegrityViolationException.
+     * Une clé expirée mais pas encore purgée est d'abord supprimée.
+     * À exécuter dans la transaction de la commande (TransactionalOperator).
+     */
+    public Mono<IdempotencyRecord> insert(IdempotencyRecord record) {
+        record.setCreatedAt(LocalDateTime.now());
+
+        Mono<Long> deleteExpired = orderDatabaseClient.sql(
+                        "DELETE FROM idempotency_keys WHERE idempotency_key = :key AND expires_at < :now")
+                .bind("key", record.getKey())
+                .bind("now", record.getCreatedAt())
+                .fetch()
+                .rowsUpdated();
+
+        Mono<Long> insert = orderDatabaseClient.sql("INSERT INTO idempotency_keys (idempotency_key, request_hash, response_body, created_at, expires_at) "
+                        + "VALUES (:key, :requestHash, :responseBody, :createdAt, :expiresAt)")
+                .bind("key", record.getKey())
+                .bind("requestHash", record.getRequestHash())
+                .bind("responseBody", record.getResponseBody())
+                .bind("createdAt", record.getCreatedAt())
+                .bind("expiresAt", record.getExpiresAt())
+                .fetch()
+                .rowsUpdated();
+
+        return deleteExpired.then(insert).thenReturn(record);
+    }
+}
@@ -0,0 +1,280 @@
+package com.order.orders.infrastructure.persistence;
+
+import com.order.orders.domain.entity.Order;
+import com.order.orders.domain.entity.OrderItem;
+import com.order.orders.domain.entity.OrderStatus;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Accès non bloquant aux tables orders et order_items pour le profil "reactive".
+ * Mêmes entités et mêmes colonnes que les repositories JPA, requêtes SQL explicites via DatabaseClient.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOrderRepository {
+
+    private static final String ORDER_COLUMNS =
+            "id, user_id, order_date, status, total_amount, shipping_address, stock_hold_id, created_at, updated_at";
+
+    private static final String ITEM_COLUMNS =
+            "id, order_id, product_id, product_name, quantity, unit_price, subtotal";
+
+    // r2dbc-h2 lie les String en CLOB, que H2 ne sait pas convertir vers la colonne ENUM status
+    private static final String STATUS_PARAMETER = "CAST(:status AS VARCHAR(20))";
+
+    // Même taille de bloc que les @SequenceGenerator des entités
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final DatabaseClient orderDatabaseClient;
+
+    private final PooledIds orderIds = new PooledIds("orders_seq");
+    private final PooledIds itemIds = new PooledIds("order_items_seq");
+
+    /**
+     * Distribue les IDs d'une séquence comme l'optimiseur pooled-lo d'Hibernate : la valeur lue est le premier ID
+     * d'un bloc de {@link #ALLOCATION_SIZE}, les suivants sont servis sans accès à la base.
+     */
+    @RequiredArgsConstructor
+    private final class PooledIds {
+
+        private final String sequence;
+        private long next;
+        private long limit;
+
+        Mono<Long> next() {
+            return Mono.defer(() -> {
+                Long id = take();
+                if (id != null) return Mono.just(id);
+                return orderDatabaseClient.sql("SELECT NEXT VALUE FOR " + sequence)
+                        .map(row -> row.get(0, Long.class))
+                        .one()
+                        .map(this::refillAndTake);
+            });
+        }
+
+        private synchronized Long take() {
+            return next < limit ? next++ : null;
+        }
+
+        private synchronized long refillAndTake(long lo) {
+            // Une autre souscription a pu recharger entre-temps : le bloc le plus récent remplace l'ancien
+            next = lo + 1;
+            limit = lo + ALLOCATION_SIZE;
+            return lo;
+        }
+    }
+
+    public Flux<Order> findAll() {
+        return orderDatabaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders")
+                .map(this::toOrder)
+                .all();
+    }
+
+    public Mono<Order> findById(Long id) {
+        return orderDatabaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders WHERE id = :id")
+                .bind("id", id)
+                .map(this::toOrder)
+                .one();
+    }
+
+    public Flux<Order> findByUserId(Long userId) {
+        return orderDatabaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders WHERE user_id = :userId")
+                .bind("userId", userId)
+                .map(this::toOrder)
+                .all();
+    }
+
+    public Flux<Order> findByStatus(OrderStatus status) {
+        return orderDatabaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders WHERE status = " + STATUS_PARAMETER)
+                .bind("status", status.name())
+                .map(this::toOrder)
+                .all();
+    }
+
+    /**
+     * Pages par clé : commandes d'ID supérieur au curseur, par ID croissant (mêmes index que les repositories JPA)
+     */
+    public Flux<Order> findPage(long after, int limit) {
+        return orderDatabaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders WHERE id > :after ORDER BY id LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(this::toOrder)
+                .all();
+    }
+
+    public Flux<Order> findPageByUserId(Long userId, long after, int limit) {
+        return orderDatabaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders WHERE user_id = :userId AND id > :after ORDER BY id LIMIT :limit")
+                .bind("userId", userId)
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(this::toOrder)
+                .all();
+    }
+
+    public Flux<Order> findPageByStatus(OrderStatus status, long after, int limit) {
+        return orderDatabaseClient.sql("SELECT " + ORDER_COLUMNS + " FROM orders WHERE status = " + STATUS_PARAMETER
+                        + " AND id > :after ORDER BY id LIMIT :limit")
+                .bind("status", status.name())
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(this::toOrder)
+                .all();
+    }
+
+    /**
+     * Commandes à exporter, par ID croissant, émises au rythme de la demande de l'abonné.
+     * Filtres optionnels : statut et date de création dans [from, to[.
+     */
+    public Flux<Order> streamForExport(OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        StringBuilder sql = new StringBuilder("SELECT " + ORDER_COLUMNS + " FROM orders WHERE 1 = 1");
+        if (status != null) sql.append(" AND status = ").append(STATUS_PARAMETER);
+        if (from != null) sql.append(" AND created_at >= :from");
+        if (to != null) sql.append(" AND created_at < :to");
+
+        DatabaseClient.GenericExecuteSpec query = orderDatabaseClient.sql(sql.append(" ORDER BY id").toString());
+        if (status != null) query = query.bind("status", status.name());
+        if (from != null) query = query.bind("from", from);
+        if (to != null) query = query.bind("to", to);
+        return query.map(this::toOrder).all();
+    }
+
+    public Flux<OrderItem> findItemsByOrderId(Long orderId) {
+        return orderDatabaseClient.sql("SELECT " + ITEM_COLUMNS + " FROM order_items WHERE order_id = :orderId ORDER BY id")
+                .bind("orderId", orderId)
+                .map(this::toOrderItem)
+                .all();
+    }
+
+    /**
+     * Lignes de plusieurs commandes en une requête, pour les listes de commandes avec leurs lignes
+     */
+    public Flux<OrderItem> findItemsByOrderIds(Collection<Long> orderIds) {
+        return orderDatabaseClient.sql("SELECT " + ITEM_COLUMNS + " FROM order_items WHERE order_id IN (:orderIds) ORDER BY id")
+                .bind("orderIds", orderIds)
+                .map(this::toOrderItem)
+                .all();
+    }
+
+    public Mono<Boolean> existsItemByProductId(Long productId) {
+        return orderDatabaseClient.sql("SELECT 1 FROM order_items WHERE product_id = :productId LIMIT 1")
+                .bind("productId", productId)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * Insère la commande puis ses lignes, en renseignant les IDs (séquences orders_seq et order_items_seq)
+     * et les dates de création.
+     * À exécuter dans une transaction (TransactionalOperator).
+     */
+    public Mono<Order> insert(Order order) {
+        LocalDateTime now = LocalDateTime.now();
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+
+        return orderIds.next()
+                .flatMap(id -> {
+                    order.setId(id);
+                    DatabaseClient.GenericExecuteSpec insertOrder = orderDatabaseClient.sql(
+                                    "INSERT INTO orders (id, user_id, order_date, status, total_amount, shipping_address, stock_hold_id, created_at, updated_at) "
+                                            + "VALUES (:id, :userId, :orderDate, " + STATUS_PARAMETER + ", :totalAmount, :shippingAddress, :stockHoldId, :createdAt, :updatedAt)")
+                            .bind("id", id)
+                            .bind("userId", order.getUserId())
+                            .bind("status", order.getStatus().name())
+                            .bind("totalAmount", order.getTotalAmount())
+                            .bind("createdAt", now)
+                            .bind("updatedAt", now);
+                    insertOrder = bindNullable(insertOrder, "orderDate", order.getOrderDate(), LocalDateTime.class);
+                    insertOrder = bindNullable(insertOrder, "shippingAddress", order.getShippingAddress(), String.class);
+                    insertOrder = bindNullable(insertOrder, "stockHoldId", order.getStockHoldId(), Long.class);
+                    return insertOrder.fetch().rowsUpdated();
+                })
+                .thenMany(Flux.fromIterable(order.getItems()))
+                .concatMap(item -> insertItem(order.getId(), item))
+                .then(Mono.just(order));
+    }
+
+    private Mono<OrderItem> insertItem(Long orderId, OrderItem item) {
+        item.setOrderId(orderId);
+        return itemIds.next()
+                .flatMap(id -> {
+                    item.setId(id);
+                    return orderDatabaseClient.sql(
+                                    "INSERT INTO order_items (id, order_id, product_id, product_name, quantity, unit_price, subtotal) "
+                                            + "VALUES (:id, :orderId, :productId, :productName, :quantity, :unitPrice, :subtotal)")
+                            .bind("id", id)
+                            .bind("orderId", orderId)
+                            .bind("productId", item.getProductId())
+                            .bind("productName", item.getProductName())
+                            .bind("quantity", item.getQuantity())
+                            .bind("unitPrice", item.getUnitPrice())
+                            .bind("subtotal", item.getSubtotal())
+                            .fetch()
+                            .rowsUpdated();
+                })
+                .thenReturn(item);
+    }
+
+    /**
+     * Enregistre le statut et la date de commande, seuls champs modifiés après la création.
+     */
+    public Mono<Order> updateStatus(Order order) {
+        order.setUpdatedAt(LocalDateTime.now());
+
+        DatabaseClient.GenericExecuteSpec update = orderDatabaseClient.sql(
+                        "UPDATE orders SET status = " + STATUS_PARAMETER + ", order_date = :orderDate, updated_at = :updatedAt WHERE id = :id")
+                .bind("status", order.getStatus().name())
+                .bind("updatedAt", order.getUpdatedAt())
+                .bind("id", order.getId());
+
+        return bindNullable(update, "orderDate", order.getOrderDate(), LocalDateTime.class)
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(order);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String name, Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    private Order toOrder(Readable row) {
+        return Order.builder()
+                .id(row.get("id", Long.class))
+                .userId(row.get("user_id", Long.class))
+                .orderDate(row.get("order_date", LocalDateTime.class))
+                .status(OrderStatus.valueOf(row.get("status", String.class)))
+                .totalAmount(row.get("total_amount", BigDecimal.class))
+                .shippingAddress(row.get("shipping_address", String.class))
+                .stockHoldId(row.get("stock_hold_id", Long.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .items(new ArrayList<>())
+                .build();
+    }
+
+    private OrderItem toOrderItem(Readable row) {
+        return OrderItem.builder()
+                .id(row.get("id", Long.class))
+                .orderId(row.get("order_id", Long.class))
+                .productId(row.get("product_id", Long.class))
+                .productName(row.get("product_name", String.class))
+                .quantity(row.get("quantity", Integer.class))
+                .unitPrice(row.get("unit_price", BigDecimal.class))
+                .subtotal(row.get("subtotal", BigDecimal.class))
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.order.orders.infrastructure.web;
+
+import com.order.orders.application.dto.KeysetPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+
+/**
+ * Réponses des listes paginées par clé : le corps reste un tableau JSON, la page suivante est annoncée
+ * par les en-têtes {@value #NEXT_CURSOR_HEADER} et {@code Link} (rel="next"), absents sur la dernière page.
+ */
+public final class KeysetPagination {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Réponse 200 de la requête servlet en cours, à compléter avec {@code .body(page.items())}
+     */
+    public static ResponseEntity.BodyBuilder ok(KeysetPage<?> page) {
+        return ok(page, ServletUriComponentsBuilder.fromCurrentRequest().build().toUri());
+    }
+
+    public static ResponseEntity.BodyBuilder ok(KeysetPage<?> page, URI requestUri) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() == null) {
+            return response;
+        }
+
+        URI next = UriComponentsBuilder.fromUri(requestUri)
+                .replaceQueryParam("after", page.nextCursor())
+                .build(true)
+                .toUri();
+        return response
+                .header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()))
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+    }
+}
@@ -0,0 +1,55 @@
+package com.order.orders.infrastructure.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Équivalent de {@link RequestDeadlineFilter} pour le profil "reactive" : l'échéance est placée dans
+ * le contexte Reactor de la requête.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class ReactiveRequestDeadlineFilter implements WebFilter {
+
+    private final Counter expiredOnArrival;
+
+    public ReactiveRequestDeadlineFilter(MeterRegistry meterRegistry) {
+        this.expiredOnArrival = Counter.builder("http.server.requests.deadline.exceeded").register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(RequestDeadline.HEADER);
+        if (header == null) {
+            return chain.filter(exchange);
+        }
+
+        Optional<Instant> deadline = RequestDeadline.parse(header);
+        if (deadline.isEmpty()) {
+            log.warn("En-tête {} invalide ignoré: {}", RequestDeadline.HEADER, header);
+            return chain.filter(exchange);
+        }
+
+        if (!RequestDeadline.remaining(deadline.get()).isPositive()) {
+            expiredOnArrival.increment();
+            return Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "L'échéance de la requête était dépassée à sa réception"));
+        }
+
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(RequestDeadline.CONTEXT_KEY, deadline.get()));
+    }
+}
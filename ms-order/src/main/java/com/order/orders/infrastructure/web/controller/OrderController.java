@@ -11,14 +11,25 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.order.orders.application.service.IdempotencyService;
+import com.order.orders.application.service.OrderExportService;
 import com.order.orders.application.service.OrderService;
+import com.order.orders.application.service.OrderStatsService;
+import com.order.orders.application.service.RevenueRollupService;
+import com.order.orders.domain.entity.OrderStatus;
+import com.order.orders.infrastructure.web.KeysetPagination;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 
@@ -38,21 +49,26 @@ import java.util.List;
  */
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/orders")
 @RequiredArgsConstructor
 @Tag(name = "Orders", description = "API de gestion des commandes")
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderStatsService orderStatsService;
+    private final RevenueRollupService revenueRollupService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * GET /api/v1/orders
-     * Récupère la liste de tous les commandes
+     * Récupère une page de commandes, par ID croissant ; la page suivante est indiquée par l'en-tête X-Next-Cursor
      * 
      * @return Liste des commandes avec code 200 OK
      */
     @Operation(summary = "Récupérer tous les commandes", 
-               description = "Retourne la liste complète de tous les commandes enregistrés")
+               description = "Retourne une page de commandes par ID croissant ; l'en-tête X-Next-Cursor donne le paramètre after de la page suivante")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200",
                     description = "Liste récupérée avec succès",
@@ -60,12 +76,102 @@ public class OrderController {
                     schema = @Schema(implementation = OrderResponseDTO.class)))
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<OrderResponseDTO>> getAllOrders() {
+    public ResponseEntity<List<?>> getAllOrders(
+            @Parameter(description = "Inclure les lignes de chaque commande (format OrderDetailsResponseDTO)")
+            @RequestParam(defaultValue = "false") boolean includeItems,
+            @Parameter(description = "Curseur : ID de la dernière commande de la page précédente (en-tête X-Next-Cursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Nombre maximal de commandes (pagination.default-limit si absent)")
+            @RequestParam(required = false) Integer limit) {
         log.info("GET /api/v1/orders - Récupération de tous les commandes");
         
-        List<OrderResponseDTO> orders = orderService.getAllOrders();
+        KeysetPage<?> orders = includeItems ? orderService.getOrderDetails(after, limit) : orderService.getOrders(after, limit);
         
-        return ResponseEntity.ok(orders);
+        return KeysetPagination.ok(orders).body(orders.items());
+    }
+
+    /**
+     * GET /api/v1/orders/export
+     * Exporte les commandes au format NDJSON (une commande par ligne), écrites au fil de la lecture
+     *
+     * @return Flux NDJSON des commandes avec code 200 OK
+     */
+    @Operation(summary = "Exporter les commandes",
+               description = "Retourne toutes les commandes, éventuellement filtrées par statut et date de création, "
+                       + "en JSON délimité par des retours à la ligne ; la réponse est écrite au fil de la lecture")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Export en cours d'écriture",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = OrderResponseDTO.class))),
+        @ApiResponse(responseCode = "400",
+                    description = "Statut ou date invalide",
+                    content = @Content)
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "Statut des commandes (toutes si absent)")
+            @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Premier jour de création inclus (AAAA-MM-JJ)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Dernier jour de création inclus (AAAA-MM-JJ)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /api/v1/orders/export - Export des commandes");
+
+        StreamingResponseBody body = output -> orderExportService.exportOrders(status, from, to, output);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * GET /api/v1/orders/stats
+     * Récupère le nombre de commandes par statut, tenu en mémoire
+     *
+     * @return Nombre de commandes par statut avec code 200 OK
+     */
+    @Operation(summary = "Statistiques des commandes",
+               description = "Retourne le nombre de commandes par statut et le total, sans requête en base")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Statistiques récupérées avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = OrderStatsResponseDTO.class)))
+    })
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<OrderStatsResponseDTO> getOrderStats() {
+        log.info("GET /api/v1/orders/stats - Statistiques des commandes");
+
+        return ResponseEntity.ok(orderStatsService.getStats());
+    }
+
+    /**
+     * GET /api/v1/orders/revenue
+     * Récupère le chiffre d'affaires d'une fenêtre glissante, depuis les agrégats par minute, heure ou jour
+     *
+     * @param window Durée de la fenêtre se terminant maintenant (ISO-8601 ou 1h, 24h, 7d...)
+     * @return Chiffre d'affaires total et par agrégat avec code 200 OK
+     */
+    @Operation(summary = "Chiffre d'affaires glissant",
+               description = "Retourne le chiffre d'affaires des commandes confirmées sur la fenêtre demandée, total et par agrégat, "
+                       + "sans lire la table des commandes")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Chiffre d'affaires récupéré avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = RevenueResponseDTO.class))),
+        @ApiResponse(responseCode = "400",
+                    description = "Fenêtre invalide",
+                    content = @Content)
+    })
+    @GetMapping(value = "/revenue", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RevenueResponseDTO> getRevenue(
+            @Parameter(description = "Durée de la fenêtre, par exemple 1h ou 24h")
+            @RequestParam(defaultValue = "24h") String window) {
+        log.info("GET /api/v1/orders/revenue - Chiffre d'affaires sur {}", window);
+
+        return ResponseEntity.ok(revenueRollupService.getRevenue(DurationStyle.detectAndParse(window)));
     }
 
     /**
@@ -116,7 +222,7 @@ public class OrderController {
                     description = "Données invalides",
                     content = @Content),
         @ApiResponse(responseCode = "409", 
-                    description = "Le commande existe déjà",
+                    description = "Idempotency-Key déjà utilisée pour une autre requête ou toujours en cours",
                     content = @Content),
         @ApiResponse(responseCode = "412",
                     description = "Stock insuffisant",
@@ -125,14 +231,23 @@ public class OrderController {
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, 
                  produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> createOrder(
+            @Parameter(description = "Clé rendant la création rejouable sans doublon (optionnelle)")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Parameter(description = "Données du commande à créer", required = true)
             @Valid @RequestBody OrderRequestDTO orderRequestDTO) {
         
         log.info("POST /api/v1/orders - Création d'une commande: {}", orderRequestDTO.getUserId());
         log.info("Reçu : {}", orderRequestDTO);
 
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 255)) {
+            throw new IllegalArgumentException("L'en-tête Idempotency-Key doit contenir entre 1 et 255 caractères");
+        }
 
-        OrderResponseDTO createdOrder = orderService.createOrder(orderRequestDTO);
+        // Best practice : une même Idempotency-Key renvoie la commande déjà créée au lieu d'en créer une seconde
+        OrderResponseDTO createdOrder = idempotencyKey == null
+                ? orderService.createOrder(orderRequestDTO)
+                : idempotencyService.execute(idempotencyKey, orderRequestDTO,
+                        () -> orderService.createOrder(orderRequestDTO));
         
         // Best practice REST : retourner l'URI de la ressource créée dans le header Location
         URI location = ServletUriComponentsBuilder
@@ -236,15 +351,23 @@ public class OrderController {
                     schema = @Schema(implementation = OrderResponseDTO.class)))
     })
     @GetMapping(value = "/user/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<OrderResponseDTO>> searchUserOrders(
+    public ResponseEntity<List<?>> searchUserOrders(
             @Parameter(description = "ID de l'utilisateur", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "Inclure les lignes de chaque commande (format OrderDetailsResponseDTO)")
+            @RequestParam(defaultValue = "false") boolean includeItems,
+            @Parameter(description = "Curseur : ID de la dernière commande de la page précédente (en-tête X-Next-Cursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Nombre maximal de commandes (pagination.default-limit si absent)")
+            @RequestParam(required = false) Integer limit) {
         
         log.info("GET /api/v1/orders/user/{} - Recherche de commandes", id);
         
-        List<OrderResponseDTO> orders = orderService.searchOrdersByUserId(id);
+        KeysetPage<?> orders = includeItems
+                ? orderService.searchOrderDetailsByUserId(id, after, limit)
+                : orderService.searchOrdersByUserId(id, after, limit);
         
-        return ResponseEntity.ok(orders);
+        return KeysetPagination.ok(orders).body(orders.items());
     }
 
     /**
@@ -265,15 +388,23 @@ public class OrderController {
                     content = @Content)
     })
     @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<OrderResponseDTO>> filterOrderByStatus(
+    public ResponseEntity<List<?>> filterOrderByStatus(
             @Parameter(description = "statut des commandes", required = true)
-            @PathVariable @Valid String status) {
+            @PathVariable @Valid String status,
+            @Parameter(description = "Inclure les lignes de chaque commande (format OrderDetailsResponseDTO)")
+            @RequestParam(defaultValue = "false") boolean includeItems,
+            @Parameter(description = "Curseur : ID de la dernière commande de la page précédente (en-tête X-Next-Cursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Nombre maximal de commandes (pagination.default-limit si absent)")
+            @RequestParam(required = false) Integer limit) {
 
         log.info("PATCH /api/v1/orders/status/{} - Recherche de commande", status);
 
-        List<OrderResponseDTO> orders = orderService.searchOrdersByStatus(status);
+        KeysetPage<?> orders = includeItems
+                ? orderService.searchOrderDetailsByStatus(status, after, limit)
+                : orderService.searchOrdersByStatus(status, after, limit);
         
-        return ResponseEntity.ok(orders);
+        return KeysetPagination.ok(orders).body(orders.items());
     }
 
     /**
@@ -0,0 +1,186 @@
+package com.order.orders.infrastructure.web.controller;
+
+import com.order.orders.application.dto.KeysetPage;
+import com.order.orders.application.dto.OrderDetailsResponseDTO;
+import com.order.orders.application.dto.OrderRequestDTO;
+import com.order.orders.application.dto.OrderResponseDTO;
+import com.order.orders.application.dto.OrderStatsResponseDTO;
+import com.order.orders.application.dto.OrderStatusRequestDTO;
+import com.order.orders.application.dto.RevenueResponseDTO;
+import com.order.orders.application.service.IdempotencyService;
+import com.order.orders.application.service.OrderStatsService;
+import com.order.orders.application.service.RevenueRollupService;
+import com.order.orders.application.service.ReactiveOrderService;
+import com.order.orders.domain.entity.OrderStatus;
+import com.order.orders.infrastructure.web.KeysetPagination;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Contrôleur REST des commandes pour le profil "reactive" (WebFlux).
+ * Même contrat que {@link OrderController} : chemins, codes de statut et corps de réponse identiques.
+ */
+@Slf4j
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/orders")
+@RequiredArgsConstructor
+@Tag(name = "Orders", description = "API de gestion des commandes")
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService reactiveOrderService;
+    private final IdempotencyService idempotencyService;
+    private final OrderStatsService orderStatsService;
+    private final RevenueRollupService revenueRollupService;
+
+    @Operation(summary = "Récupérer tous les commandes")
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<?>>> getAllOrders(@RequestParam(defaultValue = "false") boolean includeItems,
+                                                      @RequestParam(required = false) Long after,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      ServerHttpRequest request) {
+        log.info("GET /api/v1/orders - Récupération de tous les commandes");
+        return toResponse(includeItems
+                ? reactiveOrderService.getOrderDetails(after, limit)
+                : reactiveOrderService.getOrders(after, limit), request);
+    }
+
+    @Operation(summary = "Exporter les commandes")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderResponseDTO> exportOrders(@RequestParam(required = false) OrderStatus status,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("GET /api/v1/orders/export - Export des commandes");
+        return reactiveOrderService.exportOrders(status, from, to);
+    }
+
+    @Operation(summary = "Statistiques des commandes")
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<OrderStatsResponseDTO> getOrderStats() {
+        log.info("GET /api/v1/orders/stats - Statistiques des commandes");
+        return Mono.fromSupplier(orderStatsService::getStats);
+    }
+
+    @Operation(summary = "Chiffre d'affaires glissant")
+    @GetMapping(value = "/revenue", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<RevenueResponseDTO> getRevenue(@RequestParam(defaultValue = "24h") String window) {
+        log.info("GET /api/v1/orders/revenue - Chiffre d'affaires sur {}", window);
+        // Agrégats lus en JPA, hors de la boucle d'événements
+        return Mono.fromCallable(() -> revenueRollupService.getRevenue(DurationStyle.detectAndParse(window)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Operation(summary = "Récupérer une commande par ID")
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<OrderDetailsResponseDTO> getOrderById(@PathVariable Long id) {
+        log.info("GET /api/v1/orders/{} - Récupération de la commande", id);
+        return reactiveOrderService.getOrderById(id);
+    }
+
+    @Operation(summary = "Créer une nouvelle commande")
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<OrderResponseDTO>> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody OrderRequestDTO orderRequestDTO,
+            ServerHttpRequest request) {
+
+        log.info("POST /api/v1/orders - Création d'une commande: {}", orderRequestDTO.getUserId());
+
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 255)) {
+            return Mono.error(new IllegalArgumentException("L'en-tête Idempotency-Key doit contenir entre 1 et 255 caractères"));
+        }
+
+        // La clé est insérée dans la transaction R2DBC de la commande ; l'attente des requêtes concurrentes sur la même
+        // clé bloque, ces requêtes sont donc traitées hors de la boucle d'événements, avec le contexte Reactor de la
+        // requête (échéance)
+        Mono<OrderResponseDTO> createdOrder = idempotencyKey == null
+                ? reactiveOrderService.createOrder(orderRequestDTO)
+                : Mono.deferContextual(context -> Mono.fromCallable(() -> idempotencyService.executeReactive(idempotencyKey, orderRequestDTO,
+                                recordFor -> reactiveOrderService.createOrder(orderRequestDTO, recordFor).contextWrite(context))))
+                        .subscribeOn(Schedulers.boundedElastic());
+
+        return createdOrder.map(order -> ResponseEntity
+                .created(UriComponentsBuilder.fromUri(request.getURI())
+                        .path("/{id}")
+                        .buildAndExpand(order.getId())
+                        .toUri())
+                .body(order));
+    }
+
+    @Operation(summary = "Mettre à jour un commande")
+    @PutMapping(value = "/{id}/status",
+                consumes = MediaType.APPLICATION_JSON_VALUE,
+                produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<OrderResponseDTO> updateOrderStatus(
+            @PathVariable Long id,
+            @Valid @RequestBody OrderStatusRequestDTO orderStatusDTO) {
+        log.info("PUT /api/v1/orders/{} - Mise à jour de la commande", id);
+        return reactiveOrderService.updateOrderStatus(id, orderStatusDTO);
+    }
+
+    @Operation(summary = "Supprimer un commande")
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> cancelOrder(@PathVariable Long id) {
+        log.info("DELETE /api/v1/orders/{} - Suppression du commande", id);
+        return reactiveOrderService.cancelOrder(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @Operation(summary = "Rechercher des commandes par utilisateur")
+    @GetMapping(value = "/user/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<?>>> searchUserOrders(@PathVariable Long id,
+                                                          @RequestParam(defaultValue = "false") boolean includeItems,
+                                                          @RequestParam(required = false) Long after,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          ServerHttpRequest request) {
+        log.info("GET /api/v1/orders/user/{} - Recherche de commandes", id);
+        return toResponse(includeItems
+                ? reactiveOrderService.searchOrderDetailsByUserId(id, after, limit)
+                : reactiveOrderService.searchOrdersByUserId(id, after, limit), request);
+    }
+
+    @Operation(summary = "Rechercher des commandes par statut")
+    @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<?>>> filterOrderByStatus(@PathVariable String status,
+                                                             @RequestParam(defaultValue = "false") boolean includeItems,
+                                                             @RequestParam(required = false) Long after,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             ServerHttpRequest request) {
+        log.info("GET /api/v1/orders/status/{} - Recherche de commande", status);
+        return toResponse(includeItems
+                ? reactiveOrderService.searchOrderDetailsByStatus(status, after, limit)
+                : reactiveOrderService.searchOrdersByStatus(status, after, limit), request);
+    }
+
+    @Operation(summary = "Recherche la présence d'un produit")
+    @GetMapping(value = "/product/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Void>> searchProductPresence(@PathVariable Long id) {
+        log.info("GET /api/v1/orders/product/{} - Recherche de produit", id);
+        return reactiveOrderService.searchProductPresence(id)
+                .map(present -> present
+                        ? ResponseEntity.ok().<Void>build()
+                        : ResponseEntity.status(404).<Void>build());
+    }
+
+    private static Mono<ResponseEntity<List<?>>> toResponse(Mono<? extends KeysetPage<?>> page, ServerHttpRequest request) {
+        return page.<ResponseEntity<List<?>>>map(orders -> KeysetPagination.ok(orders, request.getURI()).body(orders.items()));
+    }
+}
@@ -1,19 +1,27 @@
 -- Données initiales pour la base de données H2
 -- Ce script est exécuté automatiquement au démarrage de l'application
 -- Création de la table products
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS orders (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     user_id BIGINT NOT NULL,
     order_date TIMESTAMP,
     status ENUM('PENDING', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED') NOT NULL,
     total_amount DECIMAL(10,2),
     shipping_address VARCHAR(500) NOT NULL,
+    stock_hold_id BIGINT,
     created_at TIMESTAMP NOT NULL,
     updated_at TIMESTAMP
 );
 
+CREATE INDEX IF NOT EXISTS idx_orders_status_id ON orders (status, id);
+CREATE INDEX IF NOT EXISTS idx_orders_user_id_id ON orders (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders (created_at);
+
 CREATE TABLE IF NOT EXISTS order_items (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     order_id BIGINT NOT NULL,
     product_id BIGINT NOT NULL,
     product_name VARCHAR(100) NOT NULL,
@@ -22,6 +30,23 @@ CREATE TABLE IF NOT EXISTS order_items (
     subtotal DECIMAL(10,2)
 );
 
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    response_body CLOB NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
+
+CREATE TABLE IF NOT EXISTS revenue_buckets (
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    amount_cents BIGINT NOT NULL,
+    order_count BIGINT NOT NULL,
+    PRIMARY KEY (granularity, bucket_start)
+);
+
 -- Insert 10 orders (each linked to a user id 1..10)
 INSERT INTO orders (id, user_id, order_date, status, total_amount, shipping_address, created_at, updated_at) VALUES (1, 1, NULL, 'PENDING', 59.47, '10 Rue de Paris, 75001 Paris, FR', '2025-06-01 10:00:00', NULL);
 INSERT INTO orders (id, user_id, order_date, status, total_amount, shipping_address, created_at, updated_at) VALUES (2, 2, '2025-06-02 11:15:00', 'CONFIRMED', 29.50, '22 Avenue Victor Hugo, 75016 Paris, FR', '2025-06-02 11:15:00', NULL);
@@ -52,3 +77,7 @@ INSERT INTO order_items (id, order_id, product_id, product_name, quantity, unit_
 INSERT INTO order_items (id, order_id, product_id, product_name, quantity, unit_price, subtotal) VALUES (15, 10, 5, 'Notebook A5', 4, 3.50, 14.00);
 INSERT INTO order_items (id, order_id, product_id, product_name, quantity, unit_price, subtotal) VALUES (16, 10, 7, 'Cooking Oil 1L', 2, 5.20, 10.40);
 
+-- Les lignes ci-dessus ont des IDs explicites : les séquences repartent après le plus grand ID inséré
+-- (optimiseur pooled-lo : la valeur lue est le premier ID du prochain bloc)
+ALTER SEQUENCE orders_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM orders);
+ALTER SEQUENCE order_items_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM order_items);
@@ -0,0 +1,118 @@
+package com.order.orders.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.orders.application.dto.OrderItemRequestDTO;
+import com.order.orders.application.dto.OrderRequestDTO;
+import com.order.orders.application.dto.OrderResponseDTO;
+import com.order.orders.domain.entity.IdempotencyRecord;
+import com.order.orders.domain.entity.Order;
+import com.order.orders.domain.entity.OrderStatus;
+import com.order.orders.domain.repository.IdempotencyRecordRepository;
+import com.order.orders.domain.repository.OrderRepository;
+import com.order.orders.infrastructure.exception.ResourceAlreadyExistsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Écriture de la clé Idempotency-Key sur la vraie table : une clé déjà présente en base doit faire échouer
+ * l'insertion et annuler la commande écrite dans la même transaction.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceDatabaseTest {
+
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private IdempotencyService idempotencyService;
+
+	@BeforeEach
+	void setUp() {
+		idempotencyService = new IdempotencyService(idempotencyRecordRepository,
+				new ObjectMapper().findAndRegisterModules(), transactionManager, new SimpleMeterRegistry());
+		idempotencyService.init();
+	}
+
+	@Test
+	@DisplayName("a key committed by another instance during the creation rolls the order back with a 409")
+	void execute_keyInsertedConcurrently_rollsBackOrder() {
+		long ordersBefore = orderRepository.count();
+		TransactionTemplate otherInstance = new TransactionTemplate(transactionManager);
+		otherInstance.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		assertThatThrownBy(() -> idempotencyService.execute("key-race", request(), () -> {
+			Order order = orderRepository.save(order());
+			// Clé validée par une autre instance entre la lecture de la clé et son écriture par cette requête
+			otherInstance.executeWithoutResult(status -> idempotencyRecordRepository.save(record("key-race",
+					"{\"id\":99}", LocalDateTime.now().plusHours(1))));
+			return OrderResponseDTO.builder().id(order.getId()).build();
+		})).isInstanceOf(ResourceAlreadyExistsException.class);
+
+		assertThat(orderRepository.count()).isEqualTo(ordersBefore);
+		assertThat(idempotencyRecordRepository.findById("key-race"))
+				.get().extracting(IdempotencyRecord::getResponseBody).isEqualTo("{\"id\":99}");
+	}
+
+	@Test
+	@DisplayName("an expired key not purged yet is replaced by the new request")
+	void execute_expiredKeyInTable_replaced() {
+		idempotencyRecordRepository.save(record("key-expired", "{\"id\":98}", LocalDateTime.now().minusMinutes(1)));
+
+		OrderResponseDTO response = idempotencyService.execute("key-expired", request(),
+				() -> OrderResponseDTO.builder().id(7L).build());
+
+		assertThat(response.getId()).isEqualTo(7L);
+		assertThat(idempotencyRecordRepository.findById("key-expired"))
+				.get().extracting(IdempotencyRecord::getResponseBody).asString().contains("\"id\":7");
+	}
+
+	private static OrderRequestDTO request() {
+		return OrderRequestDTO.builder()
+				.userId(1L)
+				.shippingAddress("10 Rue de Paris, 75001 Paris")
+				.items(List.of(new OrderItemRequestDTO(1L, 1)))
+				.build();
+	}
+
+	private static Order order() {
+		return Order.builder()
+				.userId(1L)
+				.status(OrderStatus.PENDING)
+				.totalAmount(new BigDecimal("19.99"))
+				.shippingAddress("10 Rue de Paris, 75001 Paris")
+				.build();
+	}
+
+	private static IdempotencyRecord record(String key, String responseBody, LocalDateTime expiresAt) {
+		return IdempotencyRecord.builder()
+				.key(key)
+				.requestHash("0".repeat(64))
+				.responseBody(responseBody)
+				.expiresAt(expiresAt)
+				.build();
+	}
+}
@@ -0,0 +1,115 @@
+package com.order.orders.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.orders.application.dto.OrderItemRequestDTO;
+import com.order.orders.application.dto.OrderRequestDTO;
+import com.order.orders.application.dto.OrderResponseDTO;
+import com.order.orders.domain.entity.IdempotencyRecord;
+import com.order.orders.domain.repository.IdempotencyRecordRepository;
+import com.order.orders.infrastructure.exception.ResourceAlreadyExistsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+	@Mock
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private IdempotencyService idempotencyService;
+
+	@BeforeEach
+	void setUp() {
+		idempotencyService = new IdempotencyService(idempotencyRecordRepository,
+				new ObjectMapper().findAndRegisterModules(), transactionManager, new SimpleMeterRegistry());
+		idempotencyService.init();
+		lenient().when(idempotencyRecordRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	@DisplayName("execute replays the stored response without running the action again")
+	void execute_sameKey_replaysResponse() {
+		AtomicInteger calls = new AtomicInteger();
+		OrderRequestDTO request = request("123 Main Street, City");
+
+		OrderResponseDTO first = idempotencyService.execute("key-1", request, () -> {
+			calls.incrementAndGet();
+			return OrderResponseDTO.builder().id(7L).userId(42L).orderStatus("PENDING").build();
+		});
+		OrderResponseDTO replayed = idempotencyService.execute("key-1", request, () -> {
+			calls.incrementAndGet();
+			return OrderResponseDTO.builder().id(8L).build();
+		});
+
+		assertThat(calls).hasValue(1);
+		assertThat(replayed).isEqualTo(first);
+	}
+
+	@Test
+	@DisplayName("execute rejects a key reused with a different request")
+	void execute_sameKeyDifferentRequest_conflict() {
+		idempotencyService.execute("key-2", request("123 Main Street, City"),
+				() -> OrderResponseDTO.builder().id(7L).build());
+
+		assertThatThrownBy(() -> idempotencyService.execute("key-2", request("456 Other Street, City"),
+				() -> OrderResponseDTO.builder().id(8L).build()))
+				.isInstanceOf(ResourceAlreadyExistsException.class);
+	}
+
+	@Test
+	@DisplayName("executeReactive hands the key record to the creation and replays it afterwards")
+	void executeReactive_recordWrittenByCreation_replayed() {
+		OrderRequestDTO request = request("123 Main Street, City");
+		List<IdempotencyRecord> inserted = new ArrayList<>();
+
+		OrderResponseDTO first = idempotencyService.executeReactive("key-3", request, recordFor -> {
+			OrderResponseDTO response = OrderResponseDTO.builder().id(7L).userId(42L).build();
+			inserted.add(recordFor.apply(response));
+			return Mono.just(response);
+		});
+		OrderResponseDTO replayed = idempotencyService.executeReactive("key-3", request,
+				recordFor -> Mono.error(new IllegalStateException("not replayed")));
+
+		assertThat(inserted).singleElement().extracting(IdempotencyRecord::getKey).isEqualTo("key-3");
+		assertThat(replayed).isEqualTo(first);
+		verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	@DisplayName("executeReactive answers 409 when the key insert of the order transaction hits a duplicate")
+	void executeReactive_duplicateKey_conflict() {
+		assertThatThrownBy(() -> idempotencyService.executeReactive("key-4", request("123 Main Street, City"),
+				recordFor -> Mono.error(new DuplicateKeyException("idempotency_keys"))))
+				.isInstanceOf(ResourceAlreadyExistsException.class);
+	}
+
+	private OrderRequestDTO request(String shippingAddress) {
+		return OrderRequestDTO.builder()
+				.userId(42L)
+				.shippingAddress(shippingAddress)
+				.items(List.of(new OrderItemRequestDTO(5L, 1)))
+				.build();
+	}
+}
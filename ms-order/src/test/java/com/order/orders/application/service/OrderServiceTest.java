@@ -3,21 +3,36 @@ package com.order.orders.application.service;
 import com.order.orders.application.dto.*;
 import com.order.orders.application.mapper.OrderItemMapper;
 import com.order.orders.application.mapper.OrderMapper;
+import com.order.orders.configuration.HedgingProperties;
 import com.order.orders.domain.entity.Order;
 import com.order.orders.domain.entity.OrderItem;
 import com.order.orders.domain.entity.OrderStatus;
 import com.order.orders.domain.repository.OrderItemRepository;
 import com.order.orders.domain.repository.OrderRepository;
+import com.order.orders.infrastructure.client.ExternalServicesClient;
+import com.order.orders.infrastructure.client.HedgingPolicy;
+import com.order.orders.infrastructure.client.RequestCoalescer;
+import com.order.orders.infrastructure.client.UserExistenceCache;
+import com.order.orders.infrastructure.exception.InsufficientStockException;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,17 +57,21 @@ class OrderServiceTest {
 	@org.mockito.Mock
 	private WebClient userServiceWebClient;
 
+	@org.mockito.Mock
+	private RevenueRollupService revenueRollupService;
+
 	private OrderService orderService;
 
 	@org.junit.jupiter.api.BeforeEach
 	void setUp() {
 		orderService = new OrderService(orderItemRepository, orderRepository, orderMapper,
-				orderItemMapper, meterRegistry, productServiceWebClient, userServiceWebClient);
+				orderItemMapper, new OrderLifecycle(new OrderStatsService(meterRegistry)),
+				externalServicesClient(productServiceWebClient, userServiceWebClient), revenueRollupService);
 	}
 
 	@Test
-	@DisplayName("getAllOrders returns mapped DTOs")
-	void getAllOrders_returnsMappedDtos() {
+	@DisplayName("getOrders returns mapped DTOs of the requested page")
+	void getOrders_returnsMappedDtos() {
 		var item = OrderItem.builder()
 				.id(10L)
 				.orderId(1L)
@@ -74,14 +93,75 @@ class OrderServiceTest {
 		order.setItems(new java.util.ArrayList<>());
 		order.getItems().add(item);
 
-		when(orderRepository.findAll()).thenReturn(java.util.List.of(order));
+		when(orderRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(java.util.List.of(order));
 
-		List<OrderResponseDTO> results = orderService.getAllOrders();
+		KeysetPage<OrderResponseDTO> page = orderService.getOrders(null, 2);
 
-		assertThat(results).hasSize(1);
-		OrderResponseDTO dto = results.get(0);
+		assertThat(page.nextCursor()).isNull();
+		assertThat(page.items()).hasSize(1);
+		OrderResponseDTO dto = page.items().get(0);
 		assertThat(dto.getId()).isEqualTo(1L);
 		assertThat(dto.getUserId()).isEqualTo(42L);
 		assertThat(dto.getShippingAddress()).isEqualTo("123 Main Street, City");
 	}
-}
\ No newline at end of file
+
+	@Test
+	@DisplayName("createOrder fails fast on insufficient stock without touching the DB")
+	void createOrder_insufficientStock_throws() {
+		ExchangeFunction exchange = request -> {
+			String body = request.url().getPath().endsWith("/batch")
+					? "[{\"id\":5,\"name\":\"Prod\",\"price\":5.00,\"stock\":1}]"
+					: "";
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+					.body(body)
+					.build());
+		};
+		WebClient client = WebClient.builder().exchangeFunction(exchange).build();
+		orderService = new OrderService(orderItemRepository, orderRepository, orderMapper,
+				orderItemMapper, new OrderLifecycle(new OrderStatsService(meterRegistry)), externalServicesClient(client, client), revenueRollupService);
+
+		var request = OrderRequestDTO.builder()
+				.userId(42L)
+				.shippingAddress("123 Main Street, City")
+				.items(List.of(new OrderItemRequestDTO(5L, 1), new OrderItemRequestDTO(5L, 2)))
+				.build();
+
+		assertThatThrownBy(() -> orderService.createOrder(request))
+				.isInstanceOf(InsufficientStockException.class)
+				.hasMessageContaining("Demandé: 3, Dispo: 1");
+		verifyNoInteractions(orderRepository, orderItemRepository);
+	}
+
+	@Test
+	@DisplayName("cancelOrder goes on when the stock hold was already committed by an earlier confirmation")
+	void cancelOrder_holdAlreadyCommitted_cancels() {
+		// ms-product refuse de libérer une réservation confirmée (412)
+		ExchangeFunction exchange = request -> Mono.just(ClientResponse.create(HttpStatus.PRECONDITION_FAILED).build());
+		WebClient client = WebClient.builder().exchangeFunction(exchange).build();
+		orderService = new OrderService(orderItemRepository, orderRepository, orderMapper,
+				orderItemMapper, new OrderLifecycle(new OrderStatsService(meterRegistry)), externalServicesClient(client, client), revenueRollupService);
+
+		var order = Order.builder()
+				.id(1L)
+				.userId(42L)
+				.status(OrderStatus.PENDING)
+				.stockHoldId(9L)
+				.totalAmount(new java.math.BigDecimal("10.00"))
+				.shippingAddress("123 Main Street, City")
+				.build();
+		when(orderRepository.findById(1L)).thenReturn(java.util.Optional.of(order));
+
+		orderService.cancelOrder(1L);
+
+		assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+		verify(orderRepository).saveAndFlush(order);
+	}
+
+	private static ExternalServicesClient externalServicesClient(WebClient productClient, WebClient userClient) {
+		UserExistenceCache cache = new UserExistenceCache(new SimpleMeterRegistry());
+		cache.init();
+		return new ExternalServicesClient(productClient, userClient, new RequestCoalescer(new SimpleMeterRegistry()), cache,
+				new HedgingPolicy("product", new HedgingProperties(), new SimpleMeterRegistry()));
+	}
+}
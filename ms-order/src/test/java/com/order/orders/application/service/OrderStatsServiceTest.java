@@ -0,0 +1,47 @@
+package com.order.orders.application.service;
+
+import com.order.orders.domain.entity.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatsServiceTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final OrderStatsService orderStatsService = new OrderStatsService(meterRegistry);
+
+	@Test
+	@DisplayName("status changes move one order between gauges and keep the total")
+	void statusChange_updatesGauges() {
+		orderStatsService.seed(Map.of(OrderStatus.PENDING, 2L, OrderStatus.CONFIRMED, 3L));
+
+		orderStatsService.recordStatusChange(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+		orderStatsService.recordCreated(OrderStatus.PENDING);
+
+		assertThat(meterRegistry.get("orders.pending").gauge().value()).isEqualTo(2.0);
+		assertThat(meterRegistry.get("orders.confirmed").gauge().value()).isEqualTo(4.0);
+		assertThat(meterRegistry.get("orders.cancelled").gauge().value()).isZero();
+		assertThat(orderStatsService.getStats().getTotal()).isEqualTo(6L);
+	}
+
+	@Test
+	@DisplayName("inside a transaction the counts change only on commit")
+	void transaction_appliesOnCommitOnly() {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			orderStatsService.recordCreated(OrderStatus.PENDING);
+			assertThat(orderStatsService.getStats().getCountsByStatus()).containsEntry(OrderStatus.PENDING, 0L);
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+			assertThat(orderStatsService.getStats().getCountsByStatus()).containsEntry(OrderStatus.PENDING, 1L);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.order.orders.application.service;
+
+import com.order.orders.application.dto.OrderResponseDTO;
+import com.order.orders.application.dto.OrderStatusRequestDTO;
+import com.order.orders.application.mapper.OrderItemMapper;
+import com.order.orders.application.mapper.OrderMapper;
+import com.order.orders.domain.entity.Order;
+import com.order.orders.domain.entity.OrderStatus;
+import com.order.orders.infrastructure.client.ExternalServicesClient;
+import com.order.orders.infrastructure.persistence.ReactiveIdempotencyRecordRepository;
+import com.order.orders.infrastructure.persistence.ReactiveOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.reactive.TransactionCallback;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveOrderServiceTest {
+
+	@Mock
+	private ReactiveOrderRepository reactiveOrderRepository;
+
+	@Mock
+	private ReactiveIdempotencyRecordRepository reactiveIdempotencyRecordRepository;
+
+	@Mock
+	private OrderItemMapper orderItemMapper;
+
+	@Mock
+	private ExternalServicesClient externalServicesClient;
+
+	@Mock
+	private RevenueRollupService revenueRollupService;
+
+	private final OrderStatsService orderStatsService = new OrderStatsService(new SimpleMeterRegistry());
+
+	private ReactiveOrderService reactiveOrderService;
+
+	@BeforeEach
+	void setUp() {
+		// Transaction simulée : le résultat n'est émis qu'à la fin de l'opération, comme après le commit
+		TransactionalOperator transactionalOperator = new TransactionalOperator() {
+			@Override
+			public <T> Flux<T> execute(TransactionCallback<T> action) {
+				return Flux.from(action.doInTransaction(null));
+			}
+		};
+		reactiveOrderService = new ReactiveOrderService(reactiveOrderRepository, reactiveIdempotencyRecordRepository,
+				new OrderMapper(), orderItemMapper, new OrderLifecycle(orderStatsService), externalServicesClient,
+				transactionalOperator, revenueRollupService);
+		orderStatsService.seed(Map.of(OrderStatus.CONFIRMED, 1L));
+	}
+
+	@Test
+	@DisplayName("a status change is counted once the update is committed")
+	void updateOrderStatus_countsAfterSave() {
+		when(reactiveOrderRepository.findById(1L)).thenReturn(Mono.just(confirmedOrder()));
+		when(reactiveOrderRepository.updateStatus(any(Order.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		reactiveOrderService.updateOrderStatus(1L, new OrderStatusRequestDTO("SHIPPED")).block();
+
+		assertThat(orderStatsService.getStats().getCountsByStatus())
+				.containsEntry(OrderStatus.CONFIRMED, 0L)
+				.containsEntry(OrderStatus.SHIPPED, 1L);
+	}
+
+	@Test
+	@DisplayName("a failed status update leaves the counts unchanged")
+	void updateOrderStatus_failedSave_keepsCounts() {
+		when(reactiveOrderRepository.findById(1L)).thenReturn(Mono.just(confirmedOrder()));
+		when(reactiveOrderRepository.updateStatus(any(Order.class)))
+				.thenReturn(Mono.error(new DataAccessResourceFailureException("base indisponible")));
+
+		assertThatThrownBy(() -> reactiveOrderService.updateOrderStatus(1L, new OrderStatusRequestDTO("SHIPPED")).block())
+				.isInstanceOf(DataAccessResourceFailureException.class);
+
+		assertThat(orderStatsService.getStats().getCountsByStatus())
+				.containsEntry(OrderStatus.CONFIRMED, 1L)
+				.containsEntry(OrderStatus.SHIPPED, 0L);
+	}
+
+	@Test
+	@DisplayName("a failed revenue rollup keeps the committed status change and is left to the reconciliation")
+	void updateOrderStatus_failedRollup_reconciledLater() {
+		Order order = confirmedOrder();
+		order.setOrderDate(LocalDateTime.of(2025, 6, 2, 11, 15));
+		when(reactiveOrderRepository.findById(1L)).thenReturn(Mono.just(order));
+		when(reactiveOrderRepository.updateStatus(any(Order.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+		doThrow(new DataAccessResourceFailureException("base indisponible"))
+				.when(revenueRollupService).record(order.getOrderDate(), -1000L);
+
+		OrderResponseDTO response = reactiveOrderService.updateOrderStatus(1L, new OrderStatusRequestDTO("CANCELLED")).block();
+
+		assertThat(response.getOrderStatus()).isEqualTo(OrderStatus.CANCELLED.name());
+		verify(revenueRollupService).recordLater(order.getOrderDate(), -1000L);
+	}
+
+	private static Order confirmedOrder() {
+		return Order.builder()
+				.id(1L)
+				.userId(42L)
+				.status(OrderStatus.CONFIRMED)
+				.totalAmount(new BigDecimal("10.00"))
+				.shippingAddress("10 Rue de Paris, 75001 Paris")
+				.build();
+	}
+}
@@ -0,0 +1,219 @@
+package com.order.orders.configuration;
+
+import com.order.orders.ProductApplication;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark du mode threads virtuels sur le vrai endpoint POST /api/v1/orders de ms-order (mode servlet) :
+ * l'application est démarrée avec {@code spring.threads.virtual.enabled} à false (pool Tomcat de 200 threads)
+ * puis à true, et reçoit les mêmes créations de commande concurrentes.
+ * ms-product et ms-membership sont simulés avec une latence fixe ; la base H2 et toute la chaîne WebClient
+ * (échéance, disjoncteur, métriques, répartition) sont les vraies.
+ * Deux réglages sont mesurés :
+ * - application.yml, avec 100 clients : au-delà, le bulkhead de ms-product (100 appels simultanés) refuse des appels
+ *   et le disjoncteur s'ouvre, quel que soit le mode de threads
+ * - pool de connexions JDBC, pool et bulkhead de ms-product élargis à 1000, avec 1000 clients : seul le nombre de
+ *   threads de requête limite encore le débit
+ * Les épinglages de threads porteurs sont relevés par JFR (événement jdk.VirtualThreadPinned) en mode virtuel.
+ * Lancement : {@code mvn test -Dtest=VirtualThreadsBenchmarkTest -Dbenchmark=true}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadsBenchmarkTest {
+
+	private static final int ORDERS_PER_CLIENT = 5;
+	private static final Duration DOWNSTREAM_LATENCY = Duration.ofMillis(50);
+
+	private static final String[] WIDE_LIMITS = {
+			"spring.datasource.hikari.maximum-pool-size=1000",
+			"service.product.http.max-connections=1000",
+			"service.product.http.pending-acquire-max-count=2000",
+			"service.product.resilience.max-concurrent-calls=1000"
+	};
+
+	private LoopResources downstreamLoops;
+	private DisposableServer downstream;
+	private final AtomicLong holdIds = new AtomicLong();
+	private final HttpClient client = HttpClient.newBuilder()
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.build();
+
+	@BeforeEach
+	void setUp() {
+		// ms-membership et ms-product simulés : latence fixe, non bloquants pour ne pas limiter eux-mêmes la concurrence ;
+		// boucles d'événements dédiées : les boucles globales de reactor-netty sont libérées à chaque arrêt de ms-order
+		downstreamLoops = LoopResources.create("benchmark-downstream");
+		downstream = HttpServer.create()
+				.runOn(downstreamLoops)
+				.host("127.0.0.1")
+				.port(0)
+				.route(routes -> routes
+						.get("/api/v1/users/{id}", (request, response) -> respond(response, ""))
+						.get("/api/v1/products/batch", (request, response) -> {
+							String ids = new QueryStringDecoder(request.uri()).parameters().get("ids").get(0);
+							return respond(response, Arrays.stream(ids.split(","))
+									.map(id -> "{\"id\":" + id + ",\"name\":\"Produit " + id + "\",\"price\":10.00,\"stock\":1000000,\"active\":true}")
+									.collect(Collectors.joining(",", "[", "]")));
+						})
+						.post("/api/v1/products/stock/holds", (request, response) -> request.receive().then(
+								respond(response, "{\"id\":" + holdIds.incrementAndGet() + ",\"status\":\"ACTIVE\"}")))
+						.get("/actuator/health/readiness", (request, response) -> respond(response, "{\"status\":\"UP\"}")))
+				.bindNow();
+	}
+
+	@AfterEach
+	void tearDown() {
+		downstream.disposeNow();
+		downstreamLoops.disposeLater().block();
+	}
+
+	@Test
+	@DisplayName("measures POST /api/v1/orders throughput with virtual threads off and on")
+	void compareOrderCreationThroughput() throws Exception {
+		Map<String, Integer> pinned = new ConcurrentHashMap<>();
+
+		double platform = benchmark(false, 100, null);
+		double virtual = benchmark(true, 100, pinned);
+		double platformWide = benchmark(false, 1_000, null, WIDE_LIMITS);
+		double virtualWide = benchmark(true, 1_000, pinned, WIDE_LIMITS);
+
+		log.info("{} commandes par client, latence simulée de ms-product et ms-membership : {} ms",
+				ORDERS_PER_CLIENT, DOWNSTREAM_LATENCY.toMillis());
+		log.info("application.yml, 100 clients : threads plateforme {} commandes/s, threads virtuels {} commandes/s",
+				Math.round(platform), Math.round(virtual));
+		log.info("Limites élargies à 1000, 1000 clients : threads plateforme {} commandes/s, threads virtuels {} commandes/s",
+				Math.round(platformWide), Math.round(virtualWide));
+		log.info("Épinglages de threads porteurs relevés : {}", pinned.isEmpty() ? "aucun" : pinned);
+		assertThat(pinned).isEmpty();
+	}
+
+	/**
+	 * Démarre ms-order, le préchauffe puis mesure le débit de création de commandes.
+	 *
+	 * @param pinned Reçoit les épinglages observés (pile d'appel → nombre), null pour ne pas les relever
+	 * @return Le débit observé, en commandes créées par seconde
+	 */
+	private double benchmark(boolean virtualThreads, int clients, Map<String, Integer> pinned, String... properties) throws Exception {
+		String downstreamUrl = "http://127.0.0.1:" + downstream.port() + "/";
+		List<String> settings = new ArrayList<>(List.of(
+				"server.port=0",
+				"spring.threads.virtual.enabled=" + virtualThreads,
+				"service.user.url=" + downstreamUrl,
+				"service.product.url=" + downstreamUrl,
+				// Journaux de chaque commande et des paramètres SQL coupés : ils mesureraient la console
+				"logging.level.root=WARN",
+				"logging.level.org.springframework.web=WARN",
+				"logging.level.org.hibernate.SQL=WARN",
+				"logging.level.org.hibernate.orm.jdbc.bind=WARN",
+				"logging.level.com.order.orders.configuration.VirtualThreadsBenchmarkTest=INFO"));
+		settings.addAll(List.of(properties));
+
+		// Passés comme arguments de ligne de commande : ils priment sur application.yml
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductApplication.class)
+				.run(settings.stream().map(setting -> "--" + setting).toArray(String[]::new))) {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+			// Préchauffage (JIT, connexions, cache des utilisateurs) ; les premières vérifications d'utilisateur
+			// dépassent le bulkhead de ms-membership (50 appels simultanés), ses refus ne sont pas comptés
+			run(port, clients, 1, new ConcurrentHashMap<>());
+
+			RecordingStream recording = null;
+			if (pinned != null) {
+				recording = new RecordingStream();
+				recording.enable("jdk.VirtualThreadPinned").withoutThreshold().withStackTrace();
+				recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.merge(event.getStackTrace().getFrames().stream()
+						.limit(8)
+						.map(RecordedFrame::getMethod)
+						.map(method -> method.getType().getName() + "." + method.getName())
+						.collect(Collectors.joining(" < ")), 1, Integer::sum));
+				recording.startAsync();
+			}
+
+			try {
+				Map<Integer, Integer> statuses = new ConcurrentHashMap<>();
+				long start = System.nanoTime();
+				run(port, clients, ORDERS_PER_CLIENT, statuses);
+				double seconds = (System.nanoTime() - start) / 1e9;
+
+				assertThat(statuses).containsExactly(Map.entry(201, clients * ORDERS_PER_CLIENT));
+				return clients * ORDERS_PER_CLIENT / seconds;
+			} finally {
+				if (recording != null) {
+					recording.stop();
+					recording.close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Chaque client enchaîne {@code ordersPerClient} créations de commande, chacune sur un produit différent pour que
+	 * les appels à ms-product ne soient pas regroupés (RequestCoalescer).
+	 *
+	 * @param statuses Reçoit le nombre de réponses par code HTTP
+	 */
+	private void run(int port, int clients, int ordersPerClient, Map<Integer, Integer> statuses) throws Exception {
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> pending = new ArrayList<>(clients);
+			for (int i = 0; i < clients; i++) {
+				int clientId = i;
+				pending.add(executor.submit(() -> {
+					for (int order = 0; order < ordersPerClient; order++) {
+						String body = "{\"userId\":" + (clientId % 100 + 1) + ",\"shippingAddress\":\"10 Rue de Paris, 75001 Paris\","
+								+ "\"items\":[{\"productId\":" + (clientId * ordersPerClient + order + 1) + ",\"quantity\":1}]}";
+						HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/orders"))
+										.header("Content-Type", "application/json")
+										.POST(HttpRequest.BodyPublishers.ofString(body))
+										.build(),
+								HttpResponse.BodyHandlers.discarding());
+						statuses.merge(response.statusCode(), 1, Integer::sum);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> client : pending) {
+				client.get();
+			}
+		}
+	}
+
+	private Mono<Void> respond(HttpServerResponse response, String body) {
+		return response.header("Content-Type", "application/json")
+				.sendString(Mono.just(body).delayElement(DOWNSTREAM_LATENCY))
+				.then();
+	}
+}
@@ -0,0 +1,98 @@
+package com.order.orders.domain.repository;
+
+import com.order.orders.domain.entity.Order;
+import com.order.orders.domain.entity.OrderItem;
+import com.order.orders.domain.entity.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de l'écriture d'une commande, avec les mêmes appels aux repositories que {@code OrderService.createOrder} :
+ * une transaction par commande, la commande puis toutes ses lignes.
+ * Affiche le débit et le nombre de requêtes SQL par commande (un batch JDBC compte pour une requête).
+ * Lancement : {@code mvn test -Dtest=OrderInsertBenchmarkTest -Dbenchmark=true}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		// Sans quoi chaque transaction journalise ses statistiques
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderInsertBenchmarkTest {
+
+	private static final int ORDERS = 5_000;
+	private static final int ITEMS_PER_ORDER = 5;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	@DisplayName("measures order writes per second and SQL statements per order")
+	void measureOrderInserts() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// Préchauffage (JIT, premiers blocs d'IDs)
+		for (int i = 0; i < 500; i++) transaction.executeWithoutResult(status -> createOrder());
+
+		statistics.clear();
+		long start = System.nanoTime();
+		for (int i = 0; i < ORDERS; i++) transaction.executeWithoutResult(status -> createOrder());
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		double statementsPerOrder = (double) statistics.getPrepareStatementCount() / ORDERS;
+		log.info("{} commandes de {} lignes : {} commandes/s, {} requêtes SQL par commande",
+				ORDERS, ITEMS_PER_ORDER, Math.round(ORDERS / seconds), String.format("%.1f", statementsPerOrder));
+		assertThat(orderItemRepository.count()).isGreaterThanOrEqualTo((long) ORDERS * ITEMS_PER_ORDER);
+	}
+
+	private void createOrder() {
+		// Même construction que OrderMapper.toEntity : total et lignes renseignés par addItem avant la première insertion
+		Order order = Order.builder()
+				.userId(1L)
+				.status(OrderStatus.PENDING)
+				.shippingAddress("10 Rue de Paris, 75001 Paris, FR")
+				.build();
+		for (long productId = 1; productId <= ITEMS_PER_ORDER; productId++) {
+			order.addItem(OrderItem.builder()
+					.productId(productId)
+					.productName("Wireless Mouse")
+					.quantity(2)
+					.unitPrice(new BigDecimal("19.99"))
+					.subtotal(new BigDecimal("39.98"))
+					.build());
+		}
+
+		orderRepository.save(order);
+		order.getItems().forEach(item -> item.setOrderId(order.getId()));
+		orderItemRepository.saveAllAndFlush(order.getItems());
+	}
+}
@@ -0,0 +1,119 @@
+package com.order.orders.domain.repository;
+
+import com.order.orders.application.dto.KeysetPage;
+import com.order.orders.domain.entity.Order;
+import com.order.orders.domain.entity.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Requêtes de lecture des commandes sur les données de data.sql : nombre de requêtes SQL pour charger les lignes,
+ * pages par clé, flux d'export.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderRepositoryTest {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		entityManager.clear();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	@DisplayName("the fetch-join and entity-graph queries load an order and its items in one statement")
+	void findWithItems_singleStatement() {
+		Order joined = orderRepository.findByIdFetchingItems(1L).orElseThrow();
+		assertThat(joined.getItems()).extracting("productId").containsExactly(1L, 5L, 9L);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		entityManager.clear();
+		statistics.clear();
+		Order graph = orderRepository.findWithItemsById(1L).orElseThrow();
+		assertThat(graph.getItems()).hasSize(3);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("items of a list of orders are batch-fetched instead of one query per order")
+	void findAll_batchFetchesItems() {
+		List<Order> orders = orderRepository.findAll();
+		int items = orders.stream().mapToInt(order -> order.getItems().size()).sum();
+
+		assertThat(orders).hasSize(10);
+		assertThat(items).isEqualTo(16);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("keyset pages follow the id order and the last page has no next cursor")
+	void keysetPages_walkAllOrders() {
+		int size = 4;
+		List<Long> ids = new ArrayList<>();
+		Long cursor = null;
+		int pages = 0;
+		do {
+			KeysetPage<Long> page = KeysetPage.of(
+					orderRepository.findByIdGreaterThanOrderByIdAsc(KeysetPage.after(cursor), Limit.of(size + 1)),
+					size, Order::getId, Order::getId);
+			ids.addAll(page.items());
+			cursor = page.nextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(ids).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+		assertThat(orderRepository.findByStatusAndIdGreaterThanOrderByIdAsc(OrderStatus.CONFIRMED, 2L, Limit.of(10)))
+				.extracting(Order::getId).containsExactly(6L, 10L);
+	}
+
+	@Test
+	@DisplayName("the export stream applies the optional status and creation date filters in id order")
+	void streamForExport_filters() {
+		try (Stream<Order> all = orderRepository.streamForExport(null, null, null)) {
+			assertThat(all.map(Order::getId)).hasSize(10).isSorted();
+		}
+		try (Stream<Order> confirmed = orderRepository.streamForExport(OrderStatus.CONFIRMED, null, null)) {
+			assertThat(confirmed.map(Order::getId)).containsExactly(2L, 6L, 10L);
+		}
+		try (Stream<Order> june = orderRepository.streamForExport(null,
+				LocalDateTime.of(2025, 6, 2, 0, 0), LocalDateTime.of(2025, 6, 4, 0, 0))) {
+			assertThat(june.map(Order::getId)).containsExactly(2L, 3L);
+		}
+		try (Stream<Order> confirmedInJune = orderRepository.streamForExport(OrderStatus.CONFIRMED,
+				LocalDateTime.of(2025, 6, 3, 0, 0), null)) {
+			assertThat(confirmedInJune.map(Order::getId)).containsExactly(6L, 10L);
+		}
+	}
+}
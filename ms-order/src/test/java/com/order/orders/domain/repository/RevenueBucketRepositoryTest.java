@@ -0,0 +1,57 @@
+package com.order.orders.domain.repository;
+
+import com.order.orders.domain.entity.RevenueBucket;
+import com.order.orders.domain.entity.RevenueGranularity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Agrégats de chiffre d'affaires sur les commandes de data.sql
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RevenueBucketRepositoryTest {
+
+	private static final LocalDateTime JUNE_1 = LocalDateTime.of(2025, 6, 1, 0, 0);
+
+	@Autowired
+	private RevenueBucketRepository revenueBucketRepository;
+
+	@Test
+	@DisplayName("rebuilding from orders counts confirmed orders only, in exact cents per bucket")
+	void rebuildFromOrders_skipsPendingAndCancelled() {
+		revenueBucketRepository.rebuildFromOrders();
+
+		List<RevenueBucket> days = revenueBucketRepository
+				.findByGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(RevenueGranularity.DAY, JUNE_1);
+		assertThat(days).hasSize(7);
+		assertThat(days.stream().mapToLong(RevenueBucket::getAmountCents).sum()).isEqualTo(30177L);
+		assertThat(days.stream().mapToLong(RevenueBucket::getOrderCount).sum()).isEqualTo(7L);
+		assertThat(revenueBucketRepository
+				.findByGranularityAndBucketStartGreaterThanEqualOrderByBucketStartAsc(RevenueGranularity.MINUTE, JUNE_1))
+				.extracting(RevenueBucket::getBucketStart)
+				.contains(LocalDateTime.of(2025, 6, 2, 11, 15));
+	}
+
+	@Test
+	@DisplayName("adding to a bucket creates it, then accumulates signed amounts")
+	void add_upsertsBucket() {
+		LocalDateTime hour = LocalDateTime.of(2025, 7, 1, 10, 0);
+
+		revenueBucketRepository.add(RevenueGranularity.HOUR.name(), hour, 1999L, 1L);
+		revenueBucketRepository.add(RevenueGranularity.HOUR.name(), hour, 4550L, 1L);
+		revenueBucketRepository.add(RevenueGranularity.HOUR.name(), hour, -1999L, -1L);
+
+		RevenueBucket bucket = revenueBucketRepository.findById(new RevenueBucket.Key(RevenueGranularity.HOUR, hour)).orElseThrow();
+		assertThat(bucket.getAmountCents()).isEqualTo(4550L);
+		assertThat(bucket.getOrderCount()).isEqualTo(1L);
+	}
+}
@@ -0,0 +1,100 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.configuration.HedgingProperties;
+import com.order.orders.infrastructure.exception.DeadlineExceededException;
+import com.order.orders.infrastructure.web.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadlineExchangeFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicReference<ClientRequest> sent = new AtomicReference<>();
+
+	private WebClient client(Duration responseDelay) {
+		return WebClient.builder()
+				.exchangeFunction(request -> {
+					sent.set(request);
+					return Mono.just(ClientResponse.create(HttpStatus.OK).build()).delayElement(responseDelay);
+				})
+				.filter(new DeadlineExchangeFilter("product", meterRegistry))
+				.build();
+	}
+
+	private Mono<Void> call(WebClient client, Instant deadline) {
+		return client.get().uri("/api/v1/products/1")
+				.exchangeToMono(ClientResponse::releaseBody)
+				.contextWrite(context -> context.put(RequestDeadline.CONTEXT_KEY, deadline));
+	}
+
+	@Test
+	@DisplayName("the remaining time budget is forwarded in the X-Request-Deadline header")
+	void filter_forwardsRemainingBudget() {
+		call(client(Duration.ZERO), Instant.now().plusSeconds(2)).block();
+
+		long forwarded = Long.parseLong(sent.get().headers().getFirst(RequestDeadline.HEADER));
+		assertThat(forwarded).isPositive().isLessThanOrEqualTo(2000);
+	}
+
+	@Test
+	@DisplayName("an expired deadline abandons the call before it is sent")
+	void filter_rejectsExpiredDeadline() {
+		assertThatThrownBy(() -> call(client(Duration.ZERO), Instant.now().minusMillis(1)).block())
+				.isInstanceOf(DeadlineExceededException.class);
+
+		assertThat(sent.get()).isNull();
+		assertThat(meterRegistry.get("webclient.deadline.exceeded").tag("phase", "before_call").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("a call still running when the deadline passes is cancelled")
+	void filter_timesOutAtDeadline() {
+		assertThatThrownBy(() -> call(client(Duration.ofSeconds(5)), Instant.now().plusMillis(50)).block(Duration.ofSeconds(1)))
+				.isInstanceOf(DeadlineExceededException.class);
+
+		assertThat(meterRegistry.get("webclient.deadline.exceeded").tag("phase", "during_call").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("coalesced and hedged calls, sent from other threads, still carry the deadline header")
+	void filter_forwardsDeadlineFromHedgedCoalescedCall() {
+		List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+		WebClient client = WebClient.builder()
+				.exchangeFunction(request -> {
+					requests.add(request);
+					Duration delay = requests.size() == 1 ? Duration.ofSeconds(5) : Duration.ZERO;
+					return Mono.just(ClientResponse.create(HttpStatus.OK).build()).delayElement(delay);
+				})
+				.filter(new DeadlineExchangeFilter("product", meterRegistry))
+				.build();
+		HedgingProperties hedging = new HedgingProperties();
+		hedging.setEnabled(true);
+		hedging.setInitialDelay(Duration.ofMillis(20));
+		hedging.setBudgetRatio(1);
+		HedgingPolicy policy = new HedgingPolicy("product", hedging, meterRegistry);
+		RequestCoalescer coalescer = new RequestCoalescer(meterRegistry);
+
+		coalescer.coalesce("product", 1L, () -> policy.hedge(() -> client.get().uri("/api/v1/products/1")
+						.exchangeToMono(response -> response.releaseBody().thenReturn(1L))))
+				.contextWrite(context -> context.put(RequestDeadline.CONTEXT_KEY, Instant.now().plusSeconds(2)))
+				.block(Duration.ofSeconds(1));
+
+		assertThat(requests).hasSize(2)
+				.allSatisfy(request -> assertThat(request.headers().getFirst(RequestDeadline.HEADER)).isNotNull());
+	}
+}
@@ -0,0 +1,75 @@
+package com.order.orders.infrastructure.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownstreamMetricsFilterTest {
+
+	@Test
+	@DisplayName("latency is recorded per downstream and route, without IDs in the route")
+	void filter_recordsLatencyByRoute() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		WebClient client = WebClient.builder()
+				.exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build()))
+				.filter(new DownstreamMetricsFilter("user", meterRegistry, 10))
+				.build();
+
+		client.get().uri("/api/v1/users/42").exchangeToMono(ClientResponse::releaseBody).block();
+		client.get().uri("/api/v1/users/43").exchangeToMono(ClientResponse::releaseBody).block();
+
+		assertThat(meterRegistry.get("webclient.downstream.requests")
+				.tag("downstream", "user")
+				.tag("route", "/api/v1/users/{id}")
+				.tag("status", "404")
+				.timer().count()).isEqualTo(2);
+		assertThat(meterRegistry.get("webclient.downstream.inflight").gauge().value()).isZero();
+	}
+
+	@Test
+	@DisplayName("calls refused by a saturated connection pool are counted, whether queued too long or never queued")
+	void filter_countsPoolRejections() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		DisposableServer server = HttpServer.create()
+				.port(0)
+				.route(routes -> routes.get("/slow", (request, response) ->
+						response.sendString(Mono.just("ok").delayElement(Duration.ofMillis(500)))))
+				.bindNow();
+		ConnectionProvider pool = ConnectionProvider.builder("test")
+				.maxConnections(1)
+				.pendingAcquireMaxCount(1)
+				.pendingAcquireTimeout(Duration.ofMillis(100))
+				.build();
+		try {
+			WebClient client = WebClient.builder()
+					.baseUrl("http://localhost:" + server.port())
+					.clientConnector(new ReactorClientHttpConnector(HttpClient.create(pool)))
+					.filter(new DownstreamMetricsFilter("product", meterRegistry, 1))
+					.build();
+
+			// Une requête occupe la connexion, une attend puis expire, la dernière trouve la file d'attente pleine
+			Flux.range(0, 3)
+					.flatMap(i -> client.get().uri("/slow").retrieve().toBodilessEntity().onErrorResume(error -> Mono.empty()))
+					.blockLast(Duration.ofSeconds(5));
+
+			assertThat(meterRegistry.get("webclient.downstream.pool.rejected").counter().count()).isEqualTo(2);
+		} finally {
+			pool.dispose();
+			server.disposeNow();
+		}
+	}
+}
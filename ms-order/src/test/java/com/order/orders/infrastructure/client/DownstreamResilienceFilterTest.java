@@ -0,0 +1,126 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.configuration.DownstreamResilienceProperties;
+import com.order.orders.infrastructure.exception.ExternalServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DownstreamResilienceFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger exchanges = new AtomicInteger();
+	private final AtomicReference<HttpStatus> responseStatus = new AtomicReference<>(HttpStatus.INTERNAL_SERVER_ERROR);
+	private DownstreamResilienceProperties properties;
+
+	@BeforeEach
+	void setUp() {
+		properties = new DownstreamResilienceProperties();
+		properties.setSlidingWindowSize(4);
+		properties.setMinimumNumberOfCalls(4);
+		properties.setPermittedCallsInHalfOpenState(2);
+	}
+
+	private WebClient client(DownstreamResilienceFilter filter) {
+		return WebClient.builder()
+				.exchangeFunction(request -> {
+					exchanges.incrementAndGet();
+					return Mono.just(ClientResponse.create(responseStatus.get()).build());
+				})
+				.filter(filter)
+				.build();
+	}
+
+	private void call(WebClient client) {
+		client.get().uri("/api/v1/products/1").exchangeToMono(ClientResponse::releaseBody).block();
+	}
+
+	@Test
+	@DisplayName("the breaker opens once the failure rate reaches the threshold and then rejects without calling the service")
+	void filter_opensOnFailureRate() {
+		DownstreamResilienceFilter filter = new DownstreamResilienceFilter("product", properties, meterRegistry);
+		WebClient client = client(filter);
+
+		for (int i = 0; i < 4; i++) call(client);
+
+		assertThat(filter.getState()).isEqualTo(DownstreamResilienceFilter.State.OPEN);
+		assertThatThrownBy(() -> call(client)).isInstanceOf(ExternalServiceException.class);
+		assertThat(exchanges).hasValue(4);
+		assertThat(meterRegistry.get("circuitbreaker.calls").tag("outcome", "not_permitted").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("circuitbreaker.transitions").tag("from", "closed").tag("to", "open").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("circuitbreaker.state").tag("state", "open").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("after the open wait, successful trial calls close the breaker again")
+	void filter_closesAfterSuccessfulTrialCalls() {
+		DownstreamResilienceFilter filter = new DownstreamResilienceFilter("product", properties, meterRegistry);
+		Instant now = Instant.parse("2025-01-01T00:00:00Z");
+		filter.setClock(Clock.fixed(now, ZoneOffset.UTC));
+		WebClient client = client(filter);
+		for (int i = 0; i < 4; i++) call(client);
+
+		filter.setClock(Clock.fixed(now.plus(properties.getWaitDurationInOpenState()), ZoneOffset.UTC));
+		responseStatus.set(HttpStatus.OK);
+		assertThat(filter.getState()).isEqualTo(DownstreamResilienceFilter.State.HALF_OPEN);
+		call(client);
+		call(client);
+
+		assertThat(filter.getState()).isEqualTo(DownstreamResilienceFilter.State.CLOSED);
+		assertThat(filter.snapshot().transitions()).extracting(DownstreamResilienceFilter.Transition::to)
+				.containsExactly(DownstreamResilienceFilter.State.OPEN, DownstreamResilienceFilter.State.HALF_OPEN,
+						DownstreamResilienceFilter.State.CLOSED);
+	}
+
+	@Test
+	@DisplayName("4xx responses are not failures, calls over the slow threshold are")
+	void filter_countsSlowCallsButNotClientErrors() {
+		responseStatus.set(HttpStatus.NOT_FOUND);
+		DownstreamResilienceFilter filter = new DownstreamResilienceFilter("product", properties, meterRegistry);
+		for (int i = 0; i < 4; i++) call(client(filter));
+		assertThat(filter.getState()).isEqualTo(DownstreamResilienceFilter.State.CLOSED);
+
+		properties.setSlowCallDurationThreshold(Duration.ZERO);
+		DownstreamResilienceFilter slowFilter = new DownstreamResilienceFilter("user", properties, meterRegistry);
+		for (int i = 0; i < 4; i++) call(client(slowFilter));
+		assertThat(slowFilter.getState()).isEqualTo(DownstreamResilienceFilter.State.OPEN);
+	}
+
+	@Test
+	@DisplayName("calls beyond max-concurrent-calls are rejected immediately")
+	void filter_bulkheadRejectsExtraCalls() {
+		properties.setMaxConcurrentCalls(1);
+		DownstreamResilienceFilter filter = new DownstreamResilienceFilter("product", properties, meterRegistry);
+		Sinks.One<ClientResponse> pending = Sinks.one();
+		WebClient client = WebClient.builder()
+				.exchangeFunction(request -> pending.asMono())
+				.filter(filter)
+				.build();
+
+		Mono<Void> first = client.get().uri("/").exchangeToMono(ClientResponse::releaseBody).cache();
+		first.subscribe();
+
+		assertThatThrownBy(() -> call(client)).isInstanceOf(ExternalServiceException.class);
+		assertThat(meterRegistry.get("bulkhead.rejected").counter().count()).isEqualTo(1);
+
+		pending.tryEmitValue(ClientResponse.create(HttpStatus.OK).build());
+		first.block();
+		assertThat(filter.snapshot().availableConcurrentCalls()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,105 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.configuration.HedgingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingPolicyTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger calls = new AtomicInteger();
+	private HedgingProperties properties;
+
+	@BeforeEach
+	void setUp() {
+		properties = new HedgingProperties();
+		properties.setEnabled(true);
+		properties.setInitialDelay(Duration.ofMillis(20));
+		properties.setBudgetRatio(1);
+	}
+
+	/**
+	 * Le premier appel (requête principale) est lent, les suivants répondent tout de suite
+	 */
+	private Mono<String> slowThenFast() {
+		return Mono.defer(() -> calls.incrementAndGet() == 1
+				? Mono.just("primary").delayElement(Duration.ofSeconds(5))
+				: Mono.just("hedge"));
+	}
+
+	@Test
+	@DisplayName("a slow primary is overtaken by the hedge request, which is counted as a hedge win")
+	void hedge_returnsFirstAnswer() {
+		HedgingPolicy policy = new HedgingPolicy("product", properties, meterRegistry);
+
+		assertThat(policy.hedge(this::slowThenFast).block(Duration.ofSeconds(1))).isEqualTo("hedge");
+		assertThat(calls).hasValue(2);
+		assertThat(meterRegistry.get("webclient.hedge.wins").tag("winner", "hedge").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("no hedge request is sent once the budget is spent")
+	void hedge_respectsBudget() {
+		properties.setBudgetRatio(0.05);
+		HedgingPolicy policy = new HedgingPolicy("product", properties, meterRegistry);
+
+		assertThat(policy.hedge(() -> Mono.just("primary").delayElement(Duration.ofMillis(100))).block()).isEqualTo("primary");
+		assertThat(meterRegistry.get("webclient.hedge.requests").tag("result", "budget_exhausted").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("webclient.hedge.requests").tag("result", "sent").counter().count()).isZero();
+	}
+
+	@Test
+	@DisplayName("an error from the primary request is returned without waiting for a hedge")
+	void hedge_propagatesPrimaryError() {
+		HedgingPolicy policy = new HedgingPolicy("product", properties, meterRegistry);
+
+		assertThatThrownBy(() -> policy.hedge(() -> Mono.<String>error(new IllegalStateException("down"))).block())
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(meterRegistry.get("webclient.hedge.requests").tag("result", "sent").counter().count()).isZero();
+	}
+
+	@Test
+	@DisplayName("the hedge delay follows the configured percentile of recent latencies")
+	void hedge_delayFollowsPercentile() {
+		properties.setMinSamples(20);
+		properties.setMinDelay(Duration.ZERO);
+		HedgingPolicy policy = new HedgingPolicy("product", properties, meterRegistry);
+
+		for (int i = 0; i < 20; i++) {
+			policy.hedge(() -> Mono.just("ok")).block();
+		}
+
+		assertThat(policy.currentDelay()).isLessThan(Duration.ofMillis(20));
+	}
+
+	@Test
+	@DisplayName("the hedge request keeps the caller's Reactor context and is counted once as a primary win when it loses")
+	void hedge_keepsCallerContext() {
+		HedgingPolicy policy = new HedgingPolicy("product", properties, meterRegistry);
+		List<String> seen = new CopyOnWriteArrayList<>();
+
+		String result = policy.hedge(() -> Mono.deferContextual(context -> {
+					seen.add(context.get("deadline"));
+					// La requête principale répond après le départ de la requête de secours, qui ne répond jamais
+					return calls.incrementAndGet() == 1 ? Mono.just("primary").delayElement(Duration.ofMillis(100)) : Mono.never();
+				}))
+				.contextWrite(Context.of("deadline", "caller"))
+				.block(Duration.ofSeconds(1));
+
+		assertThat(result).isEqualTo("primary");
+		assertThat(seen).containsExactly("caller", "caller");
+		assertThat(meterRegistry.get("webclient.hedge.wins").tag("winner", "primary").counter().count()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,93 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.configuration.LoadBalancerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadBalancingFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final Map<String, Integer> callsByInstance = new ConcurrentHashMap<>();
+	private LoadBalancingFilter loadBalancer;
+
+	@AfterEach
+	void tearDown() {
+		loadBalancer.destroy();
+	}
+
+	private WebClient client(HttpStatus statusOf8092) {
+		loadBalancer = new LoadBalancingFilter("product",
+				List.of("http://localhost:8082/", "http://localhost:8092/"), new LoadBalancerProperties(), meterRegistry);
+
+		return WebClient.builder()
+				.baseUrl(loadBalancer.getDefaultBaseUrl().toString())
+				.exchangeFunction(request -> {
+					String instance = request.url().getAuthority();
+					callsByInstance.merge(instance, 1, Integer::sum);
+					HttpStatus status = instance.endsWith(":8092") ? statusOf8092 : HttpStatus.OK;
+					return Mono.just(ClientResponse.create(status).build());
+				})
+				.filter(loadBalancer)
+				.build();
+	}
+
+	private void call(WebClient client) {
+		client.get().uri("/api/v1/products/1").exchangeToMono(ClientResponse::releaseBody).block();
+	}
+
+	@Test
+	@DisplayName("requests are spread over every configured instance, keeping the path")
+	void filter_spreadsLoad() {
+		WebClient client = client(HttpStatus.OK);
+
+		for (int i = 0; i < 50; i++) call(client);
+
+		assertThat(callsByInstance).containsOnlyKeys("localhost:8082", "localhost:8092");
+		assertThat(meterRegistry.get("webclient.instance.requests").tag("instance", "localhost:8092")
+				.tag("outcome", "success").timer().count()).isEqualTo((long) callsByInstance.get("localhost:8092"));
+	}
+
+	@Test
+	@DisplayName("an instance failing repeatedly is ejected and stops receiving requests")
+	void filter_ejectsFailingInstance() {
+		WebClient client = client(HttpStatus.SERVICE_UNAVAILABLE);
+
+		for (int i = 0; i < 50; i++) call(client);
+		int failedCalls = callsByInstance.get("localhost:8092");
+		for (int i = 0; i < 50; i++) call(client);
+
+		assertThat(failedCalls).isEqualTo(3);
+		assertThat(callsByInstance.get("localhost:8092")).isEqualTo(3);
+		assertThat(meterRegistry.get("webclient.instance.healthy").tag("instance", "localhost:8092").gauge().value()).isZero();
+		assertThat(meterRegistry.get("webclient.instance.ejections").tag("instance", "localhost:8092").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("instances already used by the same call are avoided")
+	void filter_avoidsExcludedInstances() {
+		WebClient client = client(HttpStatus.OK);
+
+		for (int i = 0; i < 10; i++) {
+			Set<String> used = ConcurrentHashMap.newKeySet();
+			used.add("localhost:8082");
+			client.get().uri("/api/v1/products/1").exchangeToMono(ClientResponse::releaseBody)
+					.contextWrite(context -> context.put(LoadBalancingFilter.EXCLUDED_INSTANCES_KEY, used))
+					.block();
+		}
+
+		assertThat(callsByInstance).containsOnlyKeys("localhost:8092");
+	}
+}
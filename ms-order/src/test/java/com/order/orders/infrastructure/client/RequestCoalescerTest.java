@@ -0,0 +1,139 @@
+package com.order.orders.infrastructure.client;
+
+import com.order.orders.infrastructure.exception.DeadlineExceededException;
+import com.order.orders.infrastructure.web.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RequestCoalescer requestCoalescer = new RequestCoalescer(meterRegistry);
+
+	@Test
+	@DisplayName("coalesceAll shares in-flight keys and only loads the missing ones")
+	void coalesceAll_sharesInFlightKeys() {
+		List<List<Long>> loads = new ArrayList<>();
+		Sinks.One<Map<Long, String>> firstResponse = Sinks.one();
+
+		Mono<Map<Long, String>> first = requestCoalescer.coalesceAll("product", List.of(1L, 2L), ids -> {
+			loads.add(ids);
+			return firstResponse.asMono();
+		});
+		Mono<Map<Long, String>> second = requestCoalescer.coalesceAll("product", List.of(2L, 3L), ids -> {
+			loads.add(ids);
+			return Mono.just(Map.of(3L, "c"));
+		});
+
+		List<Map<Long, String>> results = new ArrayList<>();
+		first.subscribe(results::add);
+		second.subscribe(results::add);
+		firstResponse.tryEmitValue(Map.of(1L, "a", 2L, "b"));
+
+		assertThat(loads).containsExactly(List.of(1L, 2L), List.of(3L));
+		assertThat(results).containsExactlyInAnyOrder(Map.of(1L, "a", 2L, "b"), Map.of(2L, "b", 3L, "c"));
+		assertThat(meterRegistry.get("webclient.requests.coalesced").tag("downstream", "product").counter().count())
+				.isEqualTo(1.0);
+	}
+
+	@Test
+	@DisplayName("cancelling every waiter cancels the shared call and frees its keys")
+	void coalesceAll_cancelsUpstreamWhenAllWaitersCancel() {
+		AtomicInteger cancelled = new AtomicInteger();
+		List<List<Long>> loads = new ArrayList<>();
+		Function<List<Long>, Mono<Map<Long, String>>> loader = ids -> {
+			loads.add(ids);
+			return Mono.<Map<Long, String>>never().doOnCancel(cancelled::incrementAndGet);
+		};
+
+		Disposable first = requestCoalescer.coalesceAll("product", List.of(1L), loader).subscribe();
+		Disposable second = requestCoalescer.coalesceAll("product", List.of(1L), loader).subscribe();
+
+		first.dispose();
+		assertThat(cancelled).hasValue(0);
+		second.dispose();
+		assertThat(cancelled).hasValue(1);
+
+		requestCoalescer.coalesceAll("product", List.of(1L), loader).subscribe().dispose();
+		assertThat(loads).containsExactly(List.of(1L), List.of(1L));
+	}
+
+	@Test
+	@DisplayName("the shared call sees the Reactor context of the caller that started it")
+	void coalesce_propagatesCallerContext() {
+		String value = requestCoalescer.coalesce("user", 1L,
+						() -> Mono.deferContextual(context -> Mono.just(context.<String>get("deadline"))))
+				.contextWrite(Context.of("deadline", "2025-01-01T00:00:00Z"))
+				.block();
+
+		assertThat(value).isEqualTo("2025-01-01T00:00:00Z");
+	}
+
+	@Test
+	@DisplayName("a caller with a short deadline neither shares nor shortens the call of a caller with a longer one")
+	void coalesce_appliesEachCallersOwnDeadline() {
+		List<Instant> sharedDeadlines = new CopyOnWriteArrayList<>();
+		Function<List<Long>, Mono<Map<Long, String>>> loader = ids -> Mono.deferContextual(context -> {
+			sharedDeadlines.add(context.get(RequestDeadline.CONTEXT_KEY));
+			return Mono.just(Map.of(1L, "a")).delayElement(Duration.ofMillis(500));
+		});
+		Instant shortDeadline = Instant.now().plusMillis(150);
+		Instant longDeadline = Instant.now().plusSeconds(2);
+
+		Mono<Map<Long, String>> hurried = requestCoalescer.coalesceAll("product", List.of(1L), loader)
+				.contextWrite(Context.of(RequestDeadline.CONTEXT_KEY, shortDeadline));
+		Mono<Map<Long, String>> patient = requestCoalescer.coalesceAll("product", List.of(1L), loader)
+				.contextWrite(Context.of(RequestDeadline.CONTEXT_KEY, longDeadline));
+
+		Mono<Map<Long, String>> patientResult = patient.cache();
+		patientResult.subscribe();
+		assertThatThrownBy(hurried::block).isInstanceOf(DeadlineExceededException.class);
+		assertThat(patientResult.block()).isEqualTo(Map.of(1L, "a"));
+
+		// L'appel du demandeur patient porte sa propre échéance, arrondie à la fin de sa tranche
+		assertThat(sharedDeadlines).anySatisfy(shared -> assertThat(shared).isAfterOrEqualTo(longDeadline)
+				.isBefore(longDeadline.plus(RequestCoalescer.DEADLINE_BUCKET).plusMillis(1)));
+	}
+
+	@Test
+	@DisplayName("callers whose deadlines fall in the same bucket share a call carrying the end of the bucket")
+	void coalesce_sharesCallWithinDeadlineBucket() {
+		List<Instant> sharedDeadlines = new CopyOnWriteArrayList<>();
+		Sinks.One<Map<Long, String>> response = Sinks.one();
+		Function<List<Long>, Mono<Map<Long, String>>> loader = ids -> Mono.deferContextual(context -> {
+			sharedDeadlines.add(context.get(RequestDeadline.CONTEXT_KEY));
+			return response.asMono();
+		});
+		long bucket = RequestCoalescer.DEADLINE_BUCKET.toMillis();
+		long start = (Instant.now().plusSeconds(2).toEpochMilli() / bucket) * bucket;
+		Instant first = Instant.ofEpochMilli(start + 1);
+		Instant second = Instant.ofEpochMilli(start + bucket - 1);
+
+		List<Map<Long, String>> results = new ArrayList<>();
+		requestCoalescer.coalesceAll("product", List.of(1L), loader)
+				.contextWrite(Context.of(RequestDeadline.CONTEXT_KEY, first)).subscribe(results::add);
+		requestCoalescer.coalesceAll("product", List.of(1L), loader)
+				.contextWrite(Context.of(RequestDeadline.CONTEXT_KEY, second)).subscribe(results::add);
+		response.tryEmitValue(Map.of(1L, "a"));
+
+		assertThat(results).containsExactly(Map.of(1L, "a"), Map.of(1L, "a"));
+		assertThat(sharedDeadlines).containsExactly(Instant.ofEpochMilli(start + bucket));
+	}
+}
@@ -0,0 +1,44 @@
+package com.order.orders.infrastructure.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserExistenceCacheTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final UserExistenceCache cache = new UserExistenceCache(meterRegistry);
+	private final Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+	@BeforeEach
+	void setUp() {
+		cache.init();
+		cache.setClock(Clock.fixed(now, ZoneOffset.UTC));
+	}
+
+	@Test
+	@DisplayName("negative results expire before positive ones")
+	void get_appliesSeparateTtls() {
+		cache.put(1L, true);
+		cache.put(2L, false);
+		assertThat(cache.get(1L)).isTrue();
+		assertThat(cache.get(2L)).isFalse();
+
+		cache.setClock(Clock.fixed(now.plus(Duration.ofMinutes(1)), ZoneOffset.UTC));
+
+		assertThat(cache.get(1L)).isTrue();
+		assertThat(cache.get(2L)).isNull();
+		assertThat(meterRegistry.get("users.existence.cache.requests").tag("result", "hit").counter().count())
+				.isEqualTo(3.0);
+		assertThat(meterRegistry.get("users.existence.cache.evictions").tag("cause", "expired").counter().count())
+				.isEqualTo(1.0);
+	}
+}
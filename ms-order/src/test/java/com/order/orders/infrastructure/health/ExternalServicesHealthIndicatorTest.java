@@ -0,0 +1,118 @@
+package com.order.orders.infrastructure.health;
+
+import com.order.orders.infrastructure.health.ExternalServicesProber.ProbeResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExternalServicesHealthIndicatorTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicInteger calls = new AtomicInteger();
+	private final ExternalServicesProber prober = new ExternalServicesProber(healthClient(),
+			List.of("http://membership:8081/"), List.of("http://product-a:8082/", "http://product-b:8082/"), meterRegistry);
+	private final ExternalServicesHealthIndicator indicator = new ExternalServicesHealthIndicator(prober);
+
+	@AfterEach
+	void tearDown() {
+		prober.destroy();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	@DisplayName("health reads the background probe results without calling the services")
+	void health_readsCachedProbeResults() throws InterruptedException {
+		assertThat(indicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+
+		prober.start();
+		for (int i = 0; i < 100 && prober.getResults().size() < 2; i++) Thread.sleep(10);
+		int probed = calls.get();
+
+		Health health = indicator.health();
+		indicator.health();
+
+		assertThat(calls.get()).isEqualTo(probed);
+		assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+		assertThat((Map<String, Object>) health.getDetails().get("userService")).containsEntry("status", "UP");
+		assertThat((Map<String, Object>) health.getDetails().get("productService"))
+				.containsEntry("status", "DOWN")
+				.containsKeys("latencyMs", "ageMs", "error");
+		assertThat(meterRegistry.get("external.health.probe").tag("result", "down").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("a failed probe round is logged and the next rounds still run")
+	void start_keepsProbingAfterFailedRound() throws InterruptedException {
+		AtomicInteger readings = new AtomicInteger();
+		prober.setClock(new Clock() {
+			@Override
+			public Instant instant() {
+				if (readings.incrementAndGet() == 1) throw new IllegalStateException("horloge indisponible");
+				return Instant.now();
+			}
+
+			@Override
+			public ZoneOffset getZone() {
+				return ZoneOffset.UTC;
+			}
+
+			@Override
+			public Clock withZone(ZoneId zone) {
+				return this;
+			}
+		});
+		prober.setInterval(Duration.ofMillis(10), Duration.ZERO);
+
+		prober.start();
+		for (int i = 0; i < 100 && prober.getResults().size() < 2; i++) Thread.sleep(10);
+
+		assertThat(prober.getResults()).containsOnlyKeys("userService", "productService");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	@DisplayName("services whose last probe is too old are reported as stale")
+	void health_reportsStaleResults() {
+		Instant now = Instant.parse("2025-01-01T00:00:00Z");
+		prober.record("userService", new ProbeResult(true, now, Duration.ofMillis(5), null));
+		prober.record("productService", new ProbeResult(true, now.minusSeconds(60), Duration.ofMillis(5), null));
+		indicator.setClock(Clock.fixed(now, ZoneOffset.UTC));
+
+		Health health = indicator.health();
+
+		assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+		assertThat((Map<String, Object>) health.getDetails().get("userService")).containsEntry("status", "UP");
+		assertThat((Map<String, Object>) health.getDetails().get("productService")).containsEntry("status", "STALE");
+	}
+
+	/**
+	 * ms-membership répond, aucune instance de ms-product ne répond
+	 */
+	private WebClient healthClient() {
+		return WebClient.builder()
+				.exchangeFunction(request -> {
+					calls.incrementAndGet();
+					HttpStatus status = request.url().getHost().equals("membership") ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+					return Mono.just(ClientResponse.create(status).build());
+				})
+				.build();
+	}
+}
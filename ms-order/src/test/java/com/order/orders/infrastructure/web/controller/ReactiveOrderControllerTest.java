@@ -0,0 +1,192 @@
+package com.order.orders.infrastructure.web.controller;
+
+import com.order.orders.application.dto.OrderDetailsResponseDTO;
+import com.order.orders.application.dto.OrderResponseDTO;
+import com.order.orders.domain.entity.OrderStatus;
+import com.order.orders.infrastructure.web.KeysetPagination;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Endpoints du profil "reactive" de bout en bout : serveur Netty, WebFlux, R2DBC sur la base H2 et chaîne WebClient
+ * réelle ; ms-product et ms-membership sont simulés.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+@DirtiesContext
+class ReactiveOrderControllerTest {
+
+	private static final String ORDER = "{\"userId\":1,\"shippingAddress\":\"10 Rue de Paris, 75001 Paris\","
+			+ "\"items\":[{\"productId\":1,\"quantity\":2}]}";
+
+	// Boucles d'événements dédiées : les boucles globales de reactor-netty sont libérées à l'arrêt de ms-order
+	private static final LoopResources downstreamLoops = LoopResources.create("reactive-test-downstream");
+	private static final AtomicLong stockHolds = new AtomicLong();
+	private static final DisposableServer downstream = HttpServer.create()
+			.runOn(downstreamLoops)
+			.host("127.0.0.1")
+			.port(0)
+			.route(routes -> routes
+					.get("/api/v1/users/{id}", (request, response) -> respond(response, ""))
+					.get("/api/v1/products/batch", (request, response) -> {
+						String ids = new QueryStringDecoder(request.uri()).parameters().get("ids").get(0);
+						return respond(response, Arrays.stream(ids.split(","))
+								.map(id -> "{\"id\":" + id + ",\"name\":\"Produit " + id + "\",\"price\":10.00,\"stock\":100,\"active\":true}")
+								.collect(Collectors.joining(",", "[", "]")));
+					})
+					.post("/api/v1/products/stock/holds", (request, response) -> request.receive().then(
+							respond(response, "{\"id\":" + stockHolds.incrementAndGet() + ",\"status\":\"ACTIVE\"}")))
+					.get("/actuator/health/readiness", (request, response) -> respond(response, "{\"status\":\"UP\"}")))
+			.bindNow();
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@DynamicPropertySource
+	static void downstreamServices(DynamicPropertyRegistry registry) {
+		String url = "http://127.0.0.1:" + downstream.port() + "/";
+		registry.add("service.user.url", () -> url);
+		registry.add("service.product.url", () -> url);
+	}
+
+	@AfterAll
+	static void stopDownstream() {
+		downstream.disposeNow();
+		downstreamLoops.disposeLater().block();
+	}
+
+	@Test
+	@DisplayName("a created order is returned with its location and read back with its items")
+	void createOrder_thenGetById() {
+		OrderResponseDTO created = webTestClient.post().uri("/api/v1/orders")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(ORDER)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectHeader().value("Location", location -> assertThat(location).contains("/api/v1/orders/"))
+				.expectBody(OrderResponseDTO.class)
+				.returnResult().getResponseBody();
+
+		assertThat(created).isNotNull();
+		assertThat(created.getOrderStatus()).isEqualTo(OrderStatus.PENDING.name());
+
+		OrderDetailsResponseDTO details = webTestClient.get().uri("/api/v1/orders/{id}", created.getId())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(OrderDetailsResponseDTO.class)
+				.returnResult().getResponseBody();
+
+		assertThat(details).isNotNull();
+		assertThat(details.getOrderItems()).singleElement().satisfies(item -> {
+			assertThat(item.getProductName()).isEqualTo("Produit 1");
+			assertThat(item.getQuantity()).isEqualTo(2);
+		});
+	}
+
+	@Test
+	@DisplayName("an unknown order answers 404")
+	void getOrderById_unknown_notFound() {
+		webTestClient.get().uri("/api/v1/orders/{id}", 999_999)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	@DisplayName("pages follow the cursor given by the previous page")
+	void getAllOrders_pagesByCursor() {
+		List<OrderResponseDTO> first = webTestClient.get().uri("/api/v1/orders?limit=3")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(KeysetPagination.NEXT_CURSOR_HEADER, "3")
+				.expectBodyList(OrderResponseDTO.class)
+				.returnResult().getResponseBody();
+
+		assertThat(first).extracting(OrderResponseDTO::getId).containsExactly(1L, 2L, 3L);
+
+		List<OrderDetailsResponseDTO> second = webTestClient.get().uri("/api/v1/orders?after=3&limit=3&includeItems=true")
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(KeysetPagination.NEXT_CURSOR_HEADER, "6")
+				.expectBodyList(OrderDetailsResponseDTO.class)
+				.returnResult().getResponseBody();
+
+		assertThat(second).extracting(OrderDetailsResponseDTO::getId).containsExactly(4L, 5L, 6L);
+		assertThat(second.get(0).getOrderItems()).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("the export streams the filtered orders as NDJSON in id order")
+	void exportOrders_streamsNdjson() {
+		List<OrderResponseDTO> exported = webTestClient.get().uri("/api/v1/orders/export?status=CONFIRMED&to=2025-06-30")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.returnResult(new ParameterizedTypeReference<OrderResponseDTO>() {})
+				.getResponseBody()
+				.collectList()
+				.block();
+
+		assertThat(exported).extracting(OrderResponseDTO::getId).containsExactly(2L, 6L, 10L);
+		assertThat(exported).extracting(OrderResponseDTO::getOrderStatus).containsOnly(OrderStatus.CONFIRMED.name());
+	}
+
+	@Test
+	@DisplayName("a request replayed with the same Idempotency-Key returns the first order without creating another")
+	void createOrder_idempotencyKeyReplay_returnsFirstOrder() {
+		OrderResponseDTO first = createWithKey("reactive-replay");
+		long stockHoldsAfterFirst = stockHolds.get();
+
+		OrderResponseDTO replayed = createWithKey("reactive-replay");
+
+		assertThat(replayed.getId()).isEqualTo(first.getId());
+		assertThat(stockHolds.get()).isEqualTo(stockHoldsAfterFirst);
+
+		webTestClient.post().uri("/api/v1/orders")
+				.header("Idempotency-Key", "reactive-replay")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(ORDER.replace("\"quantity\":2", "\"quantity\":3"))
+				.exchange()
+				.expectStatus().isEqualTo(409);
+	}
+
+	private OrderResponseDTO createWithKey(String idempotencyKey) {
+		OrderResponseDTO order = webTestClient.post().uri("/api/v1/orders")
+				.header("Idempotency-Key", idempotencyKey)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(ORDER)
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(OrderResponseDTO.class)
+				.returnResult().getResponseBody();
+		assertThat(order).isNotNull();
+		return order;
+	}
+
+	private static Mono<Void> respond(HttpServerResponse response, String body) {
+		return response.header("Content-Type", "application/json").sendString(Mono.just(body)).then();
+	}
+}
@@ -0,0 +1,22 @@
+package com.product.products.application.dto;
+
+import com.product.products.domain.entity.Category;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockResponseDTO {
+
+    private int threshold;
+    private Map<Category, Integer> categoryThresholds;
+    private int count;
+    private List<Long> productIds;
+}
@@ -0,0 +1,22 @@
+package com.product.products.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldItemDTO {
+
+    @NotNull(message = "L'identifiant du produit ne peut pas être null")
+    private Long productId;
+
+    @NotNull(message = "La quantité ne peut pas être nulle")
+    @Positive(message = "La quantité doit être positive")
+    private Integer quantity;
+}
@@ -0,0 +1,29 @@
+package com.product.products.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Demande de réservation temporaire de stock.
+ * Sans durée explicite, la durée par défaut (stock.hold.ttl) s'applique.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldRequestDTO {
+
+    @NotEmpty(message = "La réservation doit contenir au moins un produit")
+    @Valid
+    private List<StockHoldItemDTO> items;
+
+    @Positive(message = "La durée de la réservation doit être positive")
+    private Integer ttlSeconds;
+}
@@ -0,0 +1,23 @@
+package com.product.products.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne d'une réservation de stock : variation à appliquer au stock d'un produit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationItemDTO {
+
+    @NotNull(message = "L'identifiant du produit ne peut pas être null")
+    private Long productId;
+
+    @NotNull(message = "La variation de stock ne peut pas être nulle")
+    private Integer delta;
+}
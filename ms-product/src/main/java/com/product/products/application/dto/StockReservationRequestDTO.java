@@ -0,0 +1,24 @@
+package com.product.products.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Réservation de stock multi-produits, appliquée en tout ou rien.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationRequestDTO {
+
+    @NotEmpty(message = "La réservation doit contenir au moins un produit")
+    @Valid
+    private List<StockReservationItemDTO> items;
+}
@@ -0,0 +1,171 @@
+package com.product.products.application.service;
+
+import com.product.products.application.dto.LowStockResponseDTO;
+import com.product.products.configuration.LowStockProperties;
+import com.product.products.domain.entity.Category;
+import com.product.products.domain.entity.Product;
+import com.product.products.domain.repository.ProductRepository;
+import com.product.products.domain.repository.ProductRepository.StockLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Index en mémoire des produits en stock bas (stock inférieur au seuil de leur catégorie, voir {@link LowStockProperties}).
+ * - Tenu à jour par chaque création, modification, suppression et variation de stock, après le commit de la
+ *   transaction : une variation annulée ne modifie pas l'index
+ * - Nombre et IDs des produits lus sans requête SQL
+ * - Reconstruit au démarrage puis périodiquement par une seule requête sur l'index idx_products_stock, ce qui
+ *   corrige aussi les écarts dus à des mises à jour concurrentes appliquées dans le désordre. Un produit modifié
+ *   pendant la reconstruction n'est pas repris de cette lecture, déjà périmée pour lui : son stock est relu
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LowStockIndex {
+
+    private final ProductRepository productRepository;
+    private final LowStockProperties properties;
+
+    // ID du produit -> catégorie, uniquement les produits en stock bas
+    private final Map<Long, Category> lowStock = new ConcurrentHashMap<>();
+    private final Set<Long> lowStockIds = Collections.unmodifiableSet(lowStock.keySet());
+
+    // Protège les écritures dans l'index et le suivi ci-dessous ; les lectures restent sans verrou
+    private final Object lock = new Object();
+    // Produits mis à jour ou supprimés depuis le début de la lecture en cours, null hors reconstruction
+    private Set<Long> changedDuringRebuild;
+
+    public int count() {
+        return lowStock.size();
+    }
+
+    /**
+     * IDs des produits en stock bas : vue en lecture seule de l'index, sans copie
+     */
+    public Set<Long> productIds() {
+        return lowStockIds;
+    }
+
+    public LowStockResponseDTO getLowStock() {
+        return LowStockResponseDTO.builder()
+                .threshold(properties.getThreshold())
+                .categoryThresholds(properties.getCategories())
+                .count(count())
+                .productIds(List.copyOf(lowStockIds))
+                .build();
+    }
+
+    /**
+     * Reporte le stock d'un produit créé, modifié ou dont le stock a varié
+     */
+    public void update(Product product) {
+        Long id = product.getId();
+        Category category = product.getCategory();
+        int stock = product.getStock();
+        AfterCommit.run(() -> apply(id, category, stock));
+    }
+
+    /**
+     * Relit le stock de produits modifiés par un UPDATE direct et le reporte
+     */
+    public void refresh(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+
+        List<StockLevel> levels = productRepository.findStockLevelsByIdIn(ids);
+        AfterCommit.run(() -> levels.forEach(level -> apply(level.getId(), level.getCategory(), level.getStock())));
+    }
+
+    public void remove(Long id) {
+        AfterCommit.run(() -> {
+            synchronized (lock) {
+                if (changedDuringRebuild != null) changedDuringRebuild.add(id);
+                lowStock.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Recharge l'index depuis la base : produits sous le plus grand seuil, filtrés ensuite par catégorie.
+     * Les produits mis à jour après le commit pendant cette lecture sont ensuite relus par ID ; ceux modifiés encore
+     * pendant cette relecture gardent la valeur de leur dernière mise à jour, corrigée au prochain passage au besoin.
+     */
+    @Scheduled(fixedDelayString = "${stock.low.reconcile-interval:PT5M}",
+            initialDelayString = "${stock.low.reconcile-interval:PT5M}")
+    public void rebuild() {
+        synchronized (lock) {
+            changedDuringRebuild = new HashSet<>();
+        }
+
+        int before = lowStock.size();
+        try {
+            Map<Long, Category> current = productRepository.findStockLevelsBelow(properties.maxThreshold()).stream()
+                    .filter(level -> isLow(level.getCategory(), level.getStock()))
+                    .collect(Collectors.toMap(StockLevel::getId, StockLevel::getCategory));
+
+            Set<Long> changed;
+            synchronized (lock) {
+                changed = changedDuringRebuild;
+                changedDuringRebuild = new HashSet<>();
+                lowStock.keySet().removeIf(id -> !current.containsKey(id) && !changed.contains(id));
+                current.forEach((id, category) -> {
+                    if (!changed.contains(id)) lowStock.put(id, category);
+                });
+            }
+
+            if (!changed.isEmpty()) {
+                Map<Long, StockLevel> levels = productRepository.findStockLevelsByIdIn(changed).stream()
+                        .collect(Collectors.toMap(StockLevel::getId, Function.identity()));
+                synchronized (lock) {
+                    for (Long id : changed) {
+                        if (changedDuringRebuild.contains(id)) continue;
+                        StockLevel level = levels.get(id);
+                        if (level == null) {
+                            lowStock.remove(id);
+                        } else {
+                            applyLocked(id, level.getCategory(), level.getStock());
+                        }
+                    }
+                }
+            }
+        } finally {
+            synchronized (lock) {
+                changedDuringRebuild = null;
+            }
+        }
+
+        log.debug("Index des stocks bas reconstruit: {} produits (avant: {})", lowStock.size(), before);
+    }
+
+    private void apply(Long id, Category category, int stock) {
+        synchronized (lock) {
+            if (changedDuringRebuild != null) changedDuringRebuild.add(id);
+            applyLocked(id, category, stock);
+        }
+    }
+
+    private void applyLocked(Long id, Category category, int stock) {
+        if (isLow(category, stock)) {
+            lowStock.put(id, category);
+        } else {
+            lowStock.remove(id);
+        }
+    }
+
+    private boolean isLow(Category category, int stock) {
+        return stock < properties.thresholdFor(category);
+    }
+}
@@ -0,0 +1,533 @@
+package com.product.products.application.service;
+
+import com.product.products.domain.entity.Product;
+import com.product.products.domain.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé en mémoire des trigrammes des noms et descriptions de produits, pour la recherche textuelle.
+ * - Texte normalisé : minuscules, sans accents, ponctuation remplacée par des espaces
+ * - Chaque produit reçoit un numéro interne croissant ; les listes de trigrammes restent triées par simple ajout.
+ *   Une modification ou une suppression marque l'ancien numéro comme supprimé, les listes sont compactées
+ *   lorsque les numéros supprimés deviennent majoritaires
+ * - Une recherche intersecte les listes des trigrammes de la requête en partant de la plus courte, vérifie
+ *   la correspondance sur le texte puis garde les {@code limit} meilleurs résultats : nom identique, nom commençant
+ *   par la requête, mot du nom, nom contenant la requête, puis mêmes critères sur la description
+ * - Requête de deux caractères : début de mot uniquement ; en dessous, aucun résultat
+ * - Deux passes : les noms d'abord, sur des listes de trigrammes propres aux noms, puis noms et descriptions.
+ *   Au plus {@code search.max-candidates} correspondances examinées par passe : des correspondances sur la seule
+ *   description, même nombreuses, n'écartent pas un nom correspondant
+ * - Construit au démarrage par pages d'IDs, avant le démarrage du serveur HTTP : le service n'est pas déclaré prêt
+ *   avec un index vide. Tenu à jour après le commit des créations, modifications et suppressions
+ * <p>
+ * Métriques : {@code products.search.index.latency} et {@code products.search.index.size}.
+ */
+@Slf4j
+@Service
+public class ProductSearchIndex implements SmartInitializingSingleton {
+
+    public static final int MIN_QUERY_LENGTH = 2;
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int COMPACTION_MIN_REMOVED = 1024;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Score minimal d'une correspondance sur le nom (voir score)
+    private static final int NAME_SCORE = 40;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparingInt(Hit::nameLength)
+            .thenComparingLong(Hit::id);
+
+    private final ProductRepository productRepository;
+    private final Timer searchLatency;
+
+    // Par passe ; au-delà, le classement porte sur les premières correspondances trouvées (par ID) : borne la durée
+    // des requêtes peu sélectives (un ou deux mots très fréquents)
+    @Value("${search.max-candidates:1000}")
+    private int maxCandidates = 1000;
+
+    // Protège tout l'état ci-dessous : lectures concurrentes, écritures exclusives
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    // Trigrammes des noms et des descriptions, et ceux des noms seuls pour la première passe
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Postings> namePostings = new HashMap<>();
+    private long[] ids = new long[1024];
+    // Textes normalisés précédés d'un espace (début de mot) ; null pour un numéro supprimé
+    private String[] names = new String[1024];
+    private String[] descriptions = new String[1024];
+    private int nextOrdinal;
+    private int removed;
+    // Produits indexés ou supprimés depuis le début de la reconstruction, null hors reconstruction : leur version
+    // dans une page lue plus tôt est périmée
+    private Set<Long> changedDuringRebuild;
+
+    private record Hit(int score, int nameLength, long id) {
+    }
+
+    /**
+     * Numéros internes d'un trigramme : tableau trié tant que la liste est rare, bitmap dès qu'elle contient plus
+     * d'un numéro sur 32 (le bitmap prend alors moins de place et s'intersecte 64 numéros à la fois)
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private long[] bits;
+        private int size;
+
+        /**
+         * @param universe Nombre de numéros attribués, pour choisir entre tableau et bitmap
+         */
+        private void add(int ordinal, int universe) {
+            if (bits == null) {
+                if (size > 0 && ordinals[size - 1] == ordinal) return;
+                if (size < ordinals.length) {
+                    ordinals[size++] = ordinal;
+                    return;
+                }
+                if ((long) size * 32 < universe) {
+                    ordinals = Arrays.copyOf(ordinals, size * 2);
+                    ordinals[size++] = ordinal;
+                    return;
+                }
+                toBitmap();
+            }
+
+            int word = ordinal >>> 6;
+            if (word >= bits.length) bits = Arrays.copyOf(bits, Math.max(word + 1, bits.length * 2));
+            if ((bits[word] & (1L << ordinal)) == 0) {
+                bits[word] |= 1L << ordinal;
+                size++;
+            }
+        }
+
+        private void toBitmap() {
+            bits = new long[(ordinals[size - 1] >>> 6) + 1];
+            for (int i = 0; i < size; i++) {
+                bits[ordinals[i] >>> 6] |= 1L << ordinals[i];
+            }
+            ordinals = null;
+        }
+
+        private boolean containsBit(int ordinal) {
+            int word = ordinal >>> 6;
+            return word < bits.length && (bits[word] & (1L << ordinal)) != 0;
+        }
+
+        /**
+         * Première position à partir de {@code from} dont le numéro est supérieur ou égal à {@code ordinal}
+         * ({@code size} s'il n'y en a pas) : recherche exponentielle puis dichotomique, proportionnelle à l'écart
+         */
+        private int advance(int from, int ordinal) {
+            if (from >= size || ordinals[from] >= ordinal) return from;
+            int low = from;
+            int high = from + 1;
+            for (int step = 1; high < size && ordinals[high] < ordinal; high = from + step) {
+                low = high;
+                step <<= 1;
+            }
+            int position = Arrays.binarySearch(ordinals, low + 1, Math.min(high, size), ordinal);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+
+    /**
+     * Meilleurs résultats d'une recherche, mis à jour pour chaque numéro présent dans toutes les listes.
+     * Passe des noms : seules les correspondances sur le nom sont retenues ; passe suivante : seules celles sur la
+     * description, les autres ayant déjà été examinées.
+     */
+    private final class Matches {
+
+        private final String query;
+        private final String wordPrefix;
+        private final int limit;
+        private final PriorityQueue<Hit> best;
+        private boolean descriptionPass;
+        private int count;
+
+        private Matches(String query, String wordPrefix, int limit) {
+            this.query = query;
+            this.wordPrefix = wordPrefix;
+            this.limit = limit;
+            this.best = new PriorityQueue<>(limit, RANKING.reversed());
+        }
+
+        /**
+         * @return false quand {@code max-candidates} correspondances ont été examinées
+         */
+        private boolean accept(int ordinal) {
+            String name = names[ordinal];
+            if (name == null) return true;
+            int score = score(name, descriptions[ordinal], query, wordPrefix);
+            if (score == 0 || (score >= NAME_SCORE) == descriptionPass) return true;
+
+            Hit hit = new Hit(score, name.length(), ids[ordinal]);
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (RANKING.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+            return ++count < maxCandidates;
+        }
+
+        /**
+         * @return false si la passe des descriptions est inutile : les résultats sont déjà tous des noms
+         */
+        private boolean startDescriptionPass() {
+            descriptionPass = true;
+            count = 0;
+            return best.size() < limit;
+        }
+
+        private List<Long> ids() {
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(RANKING);
+            return hits.stream().map(Hit::id).toList();
+        }
+    }
+
+    public ProductSearchIndex(ProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.searchLatency = Timer.builder("products.search.index.latency")
+                .description("Durée d'une recherche dans l'index des trigrammes, hors lecture des produits")
+                .register(meterRegistry);
+        Gauge.builder("products.search.index.size", this, ProductSearchIndex::size)
+                .description("Nombre de produits indexés pour la recherche")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Appelé une fois tous les beans créés, avant le démarrage du serveur HTTP et le passage à l'état prêt
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Indexe tous les produits, par pages d'IDs pour ne pas charger toute la table en une fois.
+     * Un produit modifié ou supprimé pendant la reconstruction garde la version indexée après son commit.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long after = 0;
+            List<Product> page;
+            do {
+                page = productRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(REBUILD_BATCH_SIZE));
+                if (page.isEmpty()) break;
+
+                lock.writeLock().lock();
+                try {
+                    for (Product product : page) {
+                        if (changedDuringRebuild.contains(product.getId())) continue;
+                        put(product.getId(), product.getName(), product.getDescription());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                after = page.get(page.size() - 1).getId();
+            } while (page.size() == REBUILD_BATCH_SIZE);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        log.info("Index de recherche construit: {} produits en {} ms",
+                size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Indexe un produit créé ou modifié, après le commit de la transaction
+     */
+    public void index(Product product) {
+        Long id = product.getId();
+        String name = product.getName();
+        String description = product.getDescription();
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (changedDuringRebuild != null) changedDuringRebuild.add(id);
+                put(id, name, description);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long id) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                if (changedDuringRebuild != null) changedDuringRebuild.add(id);
+                Integer ordinal = ordinalsById.remove(id);
+                if (ordinal != null) markRemoved(ordinal);
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * IDs des produits correspondant à la requête, du plus pertinent au moins pertinent
+     */
+    public List<Long> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.length() < MIN_QUERY_LENGTH) return List.of();
+
+        long start = System.nanoTime();
+        // Deux caractères : seul le trigramme « espace + requête » existe, donc début de mot uniquement
+        String wordPrefix = " " + normalized;
+        long[] keys = trigrams(normalized.length() < 3 ? wordPrefix : normalized);
+        Matches matches = new Matches(normalized, wordPrefix, limit);
+
+        lock.readLock().lock();
+        try {
+            intersect(namePostings, keys, matches);
+            if (matches.startDescriptionPass()) {
+                intersect(postings, keys, matches);
+            }
+        } finally {
+            lock.readLock().unlock();
+            searchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return matches.ids();
+    }
+
+    /**
+     * Vrai si le nom d'un produit indexé contient {@code name} : nom identique, début de mot ou sous-chaîne
+     */
+    public boolean containsName(String name) {
+        String normalized = normalize(name);
+        if (normalized.length() < MIN_QUERY_LENGTH) return false;
+
+        String wordPrefix = " " + normalized;
+        Matches matches = new Matches(normalized, wordPrefix, 1);
+        lock.readLock().lock();
+        try {
+            intersect(namePostings, trigrams(normalized.length() < 3 ? wordPrefix : normalized), matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return !matches.best.isEmpty();
+    }
+
+    /**
+     * Soumet à {@code matches} les numéros présents dans les listes de tous les trigrammes, par numéro croissant
+     */
+    private static void intersect(Map<Long, Postings> index, long[] keys, Matches matches) {
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = index.get(keys[i]);
+            if (lists[i] == null) return;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+        if (Arrays.stream(lists).allMatch(list -> list.bits != null)) {
+            intersectBitmaps(lists, matches);
+        } else {
+            intersectFromArray(lists, matches);
+        }
+    }
+
+    /**
+     * Parcours de la plus courte liste sous forme de tableau ; les positions dans les autres tableaux ne font qu'avancer
+     */
+    private static void intersectFromArray(Postings[] lists, Matches matches) {
+        for (int i = 0; i < lists.length; i++) {
+            if (lists[i].bits == null) {
+                Postings shortest = lists[i];
+                lists[i] = lists[0];
+                lists[0] = shortest;
+                break;
+            }
+        }
+
+        Postings driver = lists[0];
+        int[] cursors = new int[lists.length];
+        candidates:
+        for (int c = 0; c < driver.size; c++) {
+            int ordinal = driver.ordinals[c];
+            for (int l = 1; l < lists.length; l++) {
+                Postings list = lists[l];
+                if (list.bits != null) {
+                    if (!list.containsBit(ordinal)) continue candidates;
+                    continue;
+                }
+                cursors[l] = list.advance(cursors[l], ordinal);
+                if (cursors[l] == list.size) return;
+                if (list.ordinals[cursors[l]] != ordinal) continue candidates;
+            }
+            if (!matches.accept(ordinal)) return;
+        }
+    }
+
+    /**
+     * ET des bitmaps, 64 numéros à la fois
+     */
+    private static void intersectBitmaps(Postings[] lists, Matches matches) {
+        int words = Arrays.stream(lists).mapToInt(list -> list.bits.length).min().orElse(0);
+        for (int w = 0; w < words; w++) {
+            long word = lists[0].bits[w];
+            for (int l = 1; l < lists.length && word != 0; l++) {
+                word &= lists[l].bits[w];
+            }
+            while (word != 0) {
+                int ordinal = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (!matches.accept(ordinal)) return;
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Minuscules, sans accents, suites de caractères autres que lettres et chiffres réduites à un espace
+     */
+    static String normalize(String text) {
+        if (text == null) return "";
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutAccents.toLowerCase()).replaceAll(" ").strip();
+    }
+
+    /**
+     * Pertinence d'un produit pour la requête, 0 si le texte ne la contient pas (trigrammes communs par hasard)
+     */
+    private static int score(String name, String description, String query, String wordPrefix) {
+        // Les textes indexés commencent par un espace : le début du texte est un début de mot
+        boolean substring = query.length() >= 3;
+        if (name.equals(wordPrefix)) return 100;
+        if (name.startsWith(wordPrefix)) return 80;
+        if (name.contains(wordPrefix)) return 60;
+        if (substring && name.contains(query)) return 40;
+        if (description.contains(wordPrefix)) return 20;
+        if (substring && description.contains(query)) return 10;
+        return 0;
+    }
+
+    private void put(Long id, String name, String description) {
+        Integer previous = ordinalsById.get(id);
+        if (previous != null) markRemoved(previous);
+
+        int ordinal = nextOrdinal++;
+        if (ordinal == ids.length) {
+            ids = Arrays.copyOf(ids, ordinal * 2);
+            names = Arrays.copyOf(names, ordinal * 2);
+            descriptions = Arrays.copyOf(descriptions, ordinal * 2);
+        }
+        ids[ordinal] = id;
+        names[ordinal] = " " + normalize(name);
+        descriptions[ordinal] = " " + normalize(description);
+        ordinalsById.put(id, ordinal);
+        addPostings(ordinal);
+
+        compactIfNeeded();
+    }
+
+    private void addPostings(int ordinal) {
+        for (long key : trigrams(names[ordinal])) {
+            namePostings.computeIfAbsent(key, k -> new Postings()).add(ordinal, nextOrdinal);
+        }
+        for (String text : new String[]{names[ordinal], descriptions[ordinal]}) {
+            for (long key : trigrams(text)) {
+                postings.computeIfAbsent(key, k -> new Postings()).add(ordinal, nextOrdinal);
+            }
+        }
+    }
+
+    private void markRemoved(int ordinal) {
+        names[ordinal] = null;
+        descriptions[ordinal] = null;
+        removed++;
+    }
+
+    /**
+     * Renumérote les produits restants et reconstruit les listes, quand les numéros supprimés dominent
+     */
+    private void compactIfNeeded() {
+        if (removed < COMPACTION_MIN_REMOVED || removed < ordinalsById.size()) return;
+
+        int live = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (names[ordinal] == null) continue;
+            ids[live] = ids[ordinal];
+            names[live] = names[ordinal];
+            descriptions[live] = descriptions[ordinal];
+            ordinalsById.put(ids[live], live);
+            live++;
+        }
+        Arrays.fill(names, live, nextOrdinal, null);
+        Arrays.fill(descriptions, live, nextOrdinal, null);
+        nextOrdinal = live;
+        removed = 0;
+
+        postings.clear();
+        namePostings.clear();
+        for (int ordinal = 0; ordinal < live; ordinal++) {
+            addPostings(ordinal);
+        }
+        log.debug("Index de recherche compacté: {} produits", live);
+    }
+
+    /**
+     * Trigrammes distincts du texte, chacun codé sur un long (trois caractères de 16 bits)
+     */
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) return new long[0];
+
+        long[] keys = new long[text.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) keys[distinct++] = keys[i];
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+}
@@ -6,11 +6,15 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.product.products.application.dto.KeysetPage;
 import com.product.products.application.dto.ProductRequestDTO;
 import com.product.products.application.dto.ProductResponseDTO;
+import com.product.products.application.dto.StockReservationItemDTO;
 import com.product.products.application.mapper.ProductMapper;
 import com.product.products.domain.entity.Product;
 import com.product.products.domain.repository.ProductRepository;
@@ -18,7 +22,14 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.product.products.configuration.WebClientConfig.MS_ORDER_BASE_URL;
@@ -41,22 +52,34 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final MeterRegistry meterRegistry;
+    private final LowStockIndex lowStockIndex;
+    private final ProductSearchIndex productSearchIndex;
 
     private final WebClient orderServiceWebClient;
 
+    @Value("${pagination.default-limit:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxPageSize = 500;
+
+    @Value("${search.default-limit:20}")
+    private int defaultSearchLimit = 20;
+
+    @Value("${search.max-limit:100}")
+    private int maxSearchLimit = 100;
+
+    // Liste complète quand le client ne précise ni limit ni after (ancien comportement), désactivée par défaut
+    @Value("${pagination.unpaginated:false}")
+    private boolean unpaginated = false;
+
     /**
-     * Récupère tous les produits
+     * Récupère une page de produits, par ID croissant
      */
-    public List<ProductResponseDTO> getAllProducts() {
-        log.debug("Récupération de tous les produits");
-        
-        List<Product> products = productRepository.findAll();
-        
-        log.info("Nombre de produits récupérés: {}", products.size());
-        
-        return products.stream()
-                .map(productMapper::toDto)
-                .collect(Collectors.toList());
+    public KeysetPage<ProductResponseDTO> getProducts(Long after, Integer limit) {
+        log.debug("Récupération des produits après l'ID {}", after);
+
+        return page(after, limit, productRepository::findAll, productRepository::findByIdGreaterThanOrderByIdAsc);
     }
 
     /**
@@ -73,6 +96,21 @@ public class ProductService {
         return productMapper.toDto(product);
     }
 
+    /**
+     * Récupère plusieurs produits en une seule requête
+     */
+    public List<ProductResponseDTO> getProductsByIds(List<Long> ids) {
+        log.debug("Récupération des produits avec les IDs: {}", ids);
+
+        List<Product> products = productRepository.findAllById(ids);
+
+        log.info("Nombre de produits trouvés: {}/{}", products.size(), ids.size());
+
+        return products.stream()
+                .map(productMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Crée un nouveau produit
      */
@@ -81,13 +119,15 @@ public class ProductService {
         log.debug("Création d'un nouveau produit: {}", productRequestDTO.getName());
         
         // Vérifier si produit existe déjà
-        if (!productRepository.searchByName(productRequestDTO.getName()).isEmpty()) {
+        if (productSearchIndex.containsName(productRequestDTO.getName())) {
             log.warn("Tentative de création d'un produit avec un nom similaire existant: {}",
                     productRequestDTO.getName());
         }
 
         Product product = productMapper.toEntity(productRequestDTO);
         Product savedProduct = productRepository.save(product);
+        lowStockIndex.update(savedProduct);
+        productSearchIndex.index(savedProduct);
         
         // Métrique personnalisée
         String counterName = "products.created."+product.getCategory().toString().toLowerCase();
@@ -119,6 +159,8 @@ public class ProductService {
 
         productMapper.updateEntityFromDto(productRequestDTO, product);
         Product updatedProduct = productRepository.save(product);
+        lowStockIndex.update(updatedProduct);
+        productSearchIndex.index(updatedProduct);
         
         // Métrique personnalisée
         String counterUpdateName = "products.created."+updatedProduct.getCategory().toString().toLowerCase();
@@ -152,6 +194,8 @@ public class ProductService {
                 } catch (WebClientResponseException.NotFound e) {
                         // Produit non trouvé dans les commandes => suppression autorisée
                         productRepository.delete(product);
+                        lowStockIndex.remove(id);
+                        productSearchIndex.remove(id);
 
                         // Métrique personnalisée
                         String counterName = "products.created."+product.getCategory().toString().toLowerCase();
@@ -171,16 +215,22 @@ public class ProductService {
     }
 
     /**
-     * Recherche des produits par nom
+     * Recherche des produits par nom et description dans l'index des trigrammes, du plus pertinent au moins pertinent.
+     * Seuls les produits retenus sont lus en base, par clé primaire.
      */
-    public List<ProductResponseDTO> searchProductsByName(String name) {
+    public List<ProductResponseDTO> searchProductsByName(String name, Integer limit) {
         log.debug("Recherche de produits avec le nom: {}", name);
-        
-        List<Product> products = productRepository.searchByName(name);
-        
+
+        List<Long> ids = productSearchIndex.search(name, KeysetPage.limit(limit, defaultSearchLimit, maxSearchLimit));
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
         log.info("Nombre de produits trouvés: {}", products.size());
-        
-        return products.stream()
+
+        // Ordre de pertinence de l'index ; un produit supprimé entre-temps est ignoré
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
                 .map(productMapper::toDto)
                 .collect(Collectors.toList());
     }
@@ -201,18 +251,32 @@ public class ProductService {
     }
 
     /**
-     * Recherche des produits par catégorie
+     * Récupère une page de produits en stock, par ID croissant
      */
-    public List<ProductResponseDTO> getAvailableProducts() {
-        log.debug("Recherche de produits en stock");
+    public KeysetPage<ProductResponseDTO> getAvailableProducts(Long after, Integer limit) {
+        log.debug("Recherche de produits en stock après l'ID {}", after);
 
-        List<Product> products = productRepository.findAvailableProduct();
+        return page(after, limit, productRepository::findAvailableProduct, productRepository::findAvailableProductPage);
+    }
 
-        log.info("Nombre de produits trouvés: {}", products.size());
+    /**
+     * Page par clé : {@code limit + 1} produits d'ID supérieur au curseur, le dernier signalant une page suivante.
+     * Si la pagination est désactivée et que le client n'en demande pas, renvoie la liste complète.
+     */
+    private KeysetPage<ProductResponseDTO> page(Long after, Integer limit, Supplier<List<Product>> all,
+                                                BiFunction<Long, Limit, List<Product>> query) {
+        if (unpaginated && after == null && limit == null) {
+            List<Product> products = all.get();
+            log.info("Nombre de produits trouvés: {}", products.size());
+            return KeysetPage.last(products.stream().map(productMapper::toDto).collect(Collectors.toList()));
+        }
 
-        return products.stream()
-                .map(productMapper::toDto)
-                .collect(Collectors.toList());
+        int size = KeysetPage.limit(limit, defaultPageSize, maxPageSize);
+        KeysetPage<ProductResponseDTO> page = KeysetPage.of(query.apply(KeysetPage.after(after), Limit.of(size + 1)),
+                size, Product::getId, productMapper::toDto);
+
+        log.info("Nombre de produits trouvés: {} (page suivante après: {})", page.items().size(), page.nextCursor());
+        return page;
     }
 
     /**
@@ -222,17 +286,12 @@ public class ProductService {
     public ProductResponseDTO updateStock(Long id, int stock) {
         log.debug("Mise à jour du produit avec l'ID: {}", id);
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
-
-        // Vérification des règles métiers
-        if (product.getStock()+stock < 0) {
-            throw new InsufficientStockException(String.format("Le nouveau stock inféré doit être positif ou nul (%s)", product.getStock()+stock));
-        }
+        // UPDATE conditionnel atomique : pas de lecture-modification-écriture en Java
+        applyStockDelta(id, stock);
 
-        int oldStock = product.getStock();
-        product.setStock(product.getStock()+stock);
-        Product updatedProduct = productRepository.save(product);
+        Product updatedProduct = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        lowStockIndex.update(updatedProduct);
 
         // Métrique personnalisée
         Counter.builder("products.updated")
@@ -242,10 +301,55 @@ public class ProductService {
                 .increment();
 
         log.info("Stock produit mis à jour avec succès: ID={}, Name={}, Ancien stock={}, Nouveau stock={}",
-                updatedProduct.getId(), updatedProduct.getName(), oldStock, product.getStock());
+                updatedProduct.getId(), updatedProduct.getName(), updatedProduct.getStock() - stock, updatedProduct.getStock());
 
         return productMapper.toDto(updatedProduct);
     }
 
-    
+    /**
+     * Applique plusieurs variations de stock dans une seule transaction.
+     * Si un produit est introuvable ou que son stock deviendrait négatif, aucune variation n'est appliquée.
+     */
+    @Transactional
+    public List<ProductResponseDTO> reserveStock(List<StockReservationItemDTO> items) {
+        log.debug("Réservation de stock pour {} lignes", items.size());
+
+        // Regroupement par produit, trié par ID pour verrouiller les lignes toujours dans le même ordre
+        Map<Long, Integer> deltas = items.stream()
+                .collect(Collectors.toMap(StockReservationItemDTO::getProductId, StockReservationItemDTO::getDelta,
+                        Integer::sum, TreeMap::new));
+
+        // Un échec lève une exception qui annule les UPDATE déjà passés dans la transaction
+        deltas.forEach(this::applyStockDelta);
+
+        List<Product> updatedProducts = productRepository.findAllById(deltas.keySet());
+        updatedProducts.forEach(lowStockIndex::update);
+
+        // Métrique personnalisée
+        Counter.builder("products.updated")
+                .description("Nombre de produits mis à jour")
+                .tag("type", "product")
+                .register(meterRegistry)
+                .increment(updatedProducts.size());
+
+        log.info("Stock réservé avec succès pour {} produits", updatedProducts.size());
+
+        return updatedProducts.stream()
+                .map(productMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Applique une variation de stock via un UPDATE conditionnel.
+     * Si aucune ligne n'est modifiée, relit le produit pour distinguer produit inconnu et stock insuffisant.
+     */
+    private void applyStockDelta(Long id, int delta) {
+        if (productRepository.incrementStock(id, delta, LocalDateTime.now()) == 0) {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+
+            throw new InsufficientStockException(String.format("Le nouveau stock inféré doit être positif ou nul pour '%s' (%s)",
+                    product.getName(), product.getStock() + delta));
+        }
+    }
 }
@@ -0,0 +1,197 @@
+package com.product.products.application.service;
+
+import com.product.products.application.dto.StockHoldItemDTO;
+import com.product.products.application.dto.StockHoldRequestDTO;
+import com.product.products.application.dto.StockHoldResponseDTO;
+import com.product.products.application.dto.StockReservationItemDTO;
+import com.product.products.domain.entity.StockHold;
+import com.product.products.domain.entity.StockHoldItem;
+import com.product.products.domain.entity.StockHoldStatus;
+import com.product.products.domain.repository.ProductRepository;
+import com.product.products.domain.repository.StockHoldItemRepository;
+import com.product.products.domain.repository.StockHoldRepository;
+import com.product.products.infrastructure.exception.FieldValueException;
+import com.product.products.infrastructure.exception.ResourceNotFoundException;
+import com.product.products.infrastructure.web.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service pour les réservations temporaires de stock.
+ * - La création décrémente le stock en tout ou rien (même chemin que les réservations définitives)
+ * - La confirmation rend la décrémentation définitive ; confirmer une réservation déjà confirmée est sans effet,
+ *   pour que ms-order puisse rejouer une confirmation dont il n'a pas reçu ou enregistré la réponse
+ * - La libération ou l'expiration rend le stock
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class StockHoldService {
+
+    private final StockHoldRepository stockHoldRepository;
+    private final StockHoldItemRepository stockHoldItemRepository;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final MeterRegistry meterRegistry;
+    private final LowStockIndex lowStockIndex;
+
+    @Value("${stock.hold.ttl:PT10M}")
+    private Duration defaultTtl = Duration.ofMinutes(10);
+
+    /**
+     * Crée une réservation temporaire et décrémente le stock de chaque produit
+     */
+    @Transactional
+    public StockHoldResponseDTO placeHold(StockHoldRequestDTO holdRequestDTO) {
+        log.debug("Création d'une réservation temporaire pour {} lignes", holdRequestDTO.getItems().size());
+
+        productService.reserveStock(holdRequestDTO.getItems().stream()
+                .map(item -> new StockReservationItemDTO(item.getProductId(), -item.getQuantity()))
+                .collect(Collectors.toList()));
+
+        Duration ttl = holdRequestDTO.getTtlSeconds() != null
+                ? Duration.ofSeconds(holdRequestDTO.getTtlSeconds())
+                : defaultTtl;
+
+        StockHold hold = stockHoldRepository.save(StockHold.builder()
+                .status(StockHoldStatus.ACTIVE)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build());
+
+        List<StockHoldItem> items = stockHoldItemRepository.saveAll(holdRequestDTO.getItems().stream()
+                .map(item -> StockHoldItem.builder()
+                        .holdId(hold.getId())
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .build())
+                .collect(Collectors.toList()));
+
+        // ms-order a déjà abandonné l'appel : annuler la transaction plutôt que bloquer le stock jusqu'à l'expiration
+        RequestDeadline.checkNotExpired();
+
+        incrementCounter(StockHoldStatus.ACTIVE);
+
+        log.info("Réservation temporaire créée: ID={}, Expiration={}", hold.getId(), hold.getExpiresAt());
+
+        return toDto(hold, items);
+    }
+
+    /**
+     * Confirme une réservation active : le stock reste décrémenté.
+     * Une réservation déjà confirmée est renvoyée telle quelle.
+     */
+    @Transactional
+    public StockHoldResponseDTO commitHold(Long id) {
+        log.debug("Confirmation de la réservation temporaire: {}", id);
+
+        if (stockHoldRepository.commitIfActive(id, LocalDateTime.now()) == 0) {
+            StockHold hold = findHold(id);
+            if (hold.getStatus() == StockHoldStatus.COMMITTED) {
+                log.info("Réservation temporaire déjà confirmée: ID={}", id);
+                return toDto(hold, stockHoldItemRepository.findByHoldId(id));
+            }
+            throw new FieldValueException("stockHold", "status", hold.getStatus(),
+                    "Seule une réservation active et non expirée peut être confirmée");
+        }
+
+        incrementCounter(StockHoldStatus.COMMITTED);
+
+        log.info("Réservation temporaire confirmée: ID={}", id);
+
+        return toDto(findHold(id), stockHoldItemRepository.findByHoldId(id));
+    }
+
+    /**
+     * Libère une réservation active et rend le stock.
+     * Libérer une réservation déjà libérée ou expirée est sans effet.
+     */
+    @Transactional
+    public void releaseHold(Long id) {
+        log.debug("Libération de la réservation temporaire: {}", id);
+
+        if (!close(id, StockHoldStatus.RELEASED)) {
+            StockHold hold = findHold(id);
+            if (hold.getStatus() == StockHoldStatus.COMMITTED) {
+                throw new FieldValueException("stockHold", "status", hold.getStatus(),
+                        "Une réservation confirmée ne peut pas être libérée");
+            }
+        }
+    }
+
+    /**
+     * Expire une réservation échue ; appelé par le balayage périodique, une transaction par réservation
+     *
+     * @return true si la réservation était encore active
+     */
+    @Transactional
+    public boolean expireHold(Long id) {
+        return close(id, StockHoldStatus.EXPIRED);
+    }
+
+    /**
+     * IDs des réservations actives échues, au plus {@code limit}
+     */
+    public List<Long> findExpiredHoldIds(int limit) {
+        return stockHoldRepository.findIdsByStatusAndExpiresAtBefore(
+                StockHoldStatus.ACTIVE, LocalDateTime.now(), PageRequest.ofSize(limit));
+    }
+
+    private boolean close(Long id, StockHoldStatus status) {
+        if (stockHoldRepository.closeIfActive(id, status, LocalDateTime.now()) == 0) {
+            return false;
+        }
+
+        // Rendre du stock ne peut pas échouer sur la condition de stock ; un produit supprimé entre-temps est ignoré
+        List<Long> restocked = new ArrayList<>();
+        for (StockHoldItem item : stockHoldItemRepository.findByHoldId(id)) {
+            if (productRepository.incrementStock(item.getProductId(), item.getQuantity(), LocalDateTime.now()) == 0) {
+                log.warn("Produit {} introuvable lors de la restitution du stock de la réservation {}", item.getProductId(), id);
+            } else {
+                restocked.add(item.getProductId());
+            }
+        }
+        lowStockIndex.refresh(restocked);
+
+        incrementCounter(status);
+
+        log.info("Réservation temporaire fermée: ID={}, Status={}", id, status);
+        return true;
+    }
+
+    private StockHold findHold(Long id) {
+        return stockHoldRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("StockHold", "id", id));
+    }
+
+    private void incrementCounter(StockHoldStatus status) {
+        Counter.builder("stock.holds." + status.toString().toLowerCase())
+                .description("Nombre de réservations temporaires passées au statut " + status.toString().toLowerCase())
+                .tag("type", "product")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private StockHoldResponseDTO toDto(StockHold hold, List<StockHoldItem> items) {
+        return StockHoldResponseDTO.builder()
+                .id(hold.getId())
+                .status(String.valueOf(hold.getStatus()))
+                .expiresAt(hold.getExpiresAt())
+                .items(items.stream()
+                        .map(item -> new StockHoldItemDTO(item.getProductId(), item.getQuantity()))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
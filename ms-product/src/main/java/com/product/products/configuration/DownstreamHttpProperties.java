@@ -0,0 +1,54 @@
+package com.product.products.configuration;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Réglages HTTP d'un service appelé (pool de connexions Reactor Netty et délais), liés à {@code service.<nom>.http}.
+ * Les valeurs par défaut bornent chaque appel : un service lent ne peut plus bloquer indéfiniment les threads appelants.
+ */
+@Data
+public class DownstreamHttpProperties {
+
+    /**
+     * Connexions ouvertes simultanément vers le service
+     */
+    private int maxConnections = 50;
+
+    /**
+     * Requêtes en attente d'une connexion libre ; au-delà, l'appel échoue immédiatement
+     */
+    private int pendingAcquireMaxCount = 100;
+
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Une connexion inactive depuis plus longtemps est fermée
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    /**
+     * Intervalle de nettoyage en arrière-plan des connexions inactives ou trop anciennes
+     */
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    private boolean keepAlive = true;
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Délais de lecture et d'écriture sur la connexion, appliqués de l'envoi de la requête jusqu'à la fin de la lecture
+     * de la réponse ; une connexion inactive dans le pool n'y est pas soumise
+     */
+    private Duration readTimeout = Duration.ofSeconds(3);
+
+    private Duration writeTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Délai maximal entre l'envoi de la requête et la réception des en-têtes de réponse
+     */
+    private Duration responseTimeout = Duration.ofSeconds(3);
+}
@@ -0,0 +1,40 @@
+package com.product.products.configuration;
+
+import com.product.products.domain.entity.Category;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Seuils de stock bas, liés à {@code stock.low}.
+ * Un produit est en stock bas quand son stock est strictement inférieur au seuil de sa catégorie.
+ */
+@Data
+@Component
+@ConfigurationProperties("stock.low")
+public class LowStockProperties {
+
+    /**
+     * Seuil des catégories absentes de {@code categories}
+     */
+    private int threshold = 5;
+
+    /**
+     * Seuil propre à une catégorie
+     */
+    private Map<Category, Integer> categories = new EnumMap<>(Category.class);
+
+    public int thresholdFor(Category category) {
+        return categories.getOrDefault(category, threshold);
+    }
+
+    /**
+     * Plus grand seuil toutes catégories confondues : borne de la requête de reconstruction
+     */
+    public int maxThreshold() {
+        return categories.values().stream().mapToInt(Integer::intValue).reduce(threshold, Math::max);
+    }
+}
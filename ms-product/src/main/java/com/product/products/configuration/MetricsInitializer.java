@@ -8,6 +8,7 @@ import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.product.products.application.service.LowStockIndex;
 import com.product.products.domain.entity.Category;
 import com.product.products.domain.entity.Product;
 import com.product.products.domain.repository.ProductRepository;
@@ -22,10 +23,13 @@ public class MetricsInitializer {
 
     private final ProductRepository productRepository;
     private final MeterRegistry meterRegistry;
+    private final LowStockIndex lowStockIndex;
 
     @EventListener(ApplicationReadyEvent.class)
     @Transactional(readOnly = true)
     public void initMetricsOnStartup() {
+        lowStockIndex.rebuild();
+
         List<Product> products = productRepository.findAll();
         if (products.isEmpty()) return;
 
@@ -1,23 +1,80 @@
 package com.product.products.configuration;
 
+import com.product.products.infrastructure.metrics.DownstreamMetricsFilter;
+import com.product.products.infrastructure.web.DeadlineExchangeFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
 
+    private static final String READ_TIMEOUT_HANDLER = "downstreamReadTimeout";
+    private static final String WRITE_TIMEOUT_HANDLER = "downstreamWriteTimeout";
+
     @Value("${service.order.url}")
     private String urlMsOrders;
     public static final String MS_ORDER_BASE_URL = "/api/v1/orders";
 
+    @Bean
+    @ConfigurationProperties("service.order.http")
+    public DownstreamHttpProperties orderHttpProperties() {
+        return new DownstreamHttpProperties();
+    }
 
+    /**
+     * Pool de connexions dédié à ms-order, avec délais bornés.
+     * Les appels transmettent l'échéance de la requête entrante (X-Request-Deadline) et sont bornés par elle.
+     * Les métriques du pool Reactor Netty (reactor.netty.connection.provider.*) sont publiées sous le nom "order".
+     */
     @Bean
-    public WebClient orderServiceWebClient(WebClient.Builder builder) {
+    public WebClient orderServiceWebClient(WebClient.Builder builder, MeterRegistry meterRegistry) {
+        DownstreamHttpProperties http = orderHttpProperties();
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("order")
+                .maxConnections(http.getMaxConnections())
+                .pendingAcquireMaxCount(http.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(http.getPendingAcquireTimeout())
+                .maxIdleTime(http.getMaxIdleTime())
+                .maxLifeTime(http.getMaxLifeTime())
+                .evictInBackground(http.getEvictionInterval())
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, http.isKeepAlive())
+                .keepAlive(http.isKeepAlive())
+                .responseTimeout(http.getResponseTimeout())
+                // Délais posés à chaque requête et retirés quand la connexion revient au pool : posés à la connexion,
+                // ils fermeraient les connexions restées inactives plus longtemps que le read-timeout
+                .doOnRequest((request, connection) -> connection
+                        .addHandlerLast(READ_TIMEOUT_HANDLER, new ReadTimeoutHandler(http.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                        .addHandlerLast(WRITE_TIMEOUT_HANDLER, new WriteTimeoutHandler(http.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)))
+                .observe((connection, state) -> {
+                    if (state == ConnectionObserver.State.RELEASED) {
+                        connection.removeHandler(READ_TIMEOUT_HANDLER).removeHandler(WRITE_TIMEOUT_HANDLER);
+                    }
+                });
+
         return builder
                 .baseUrl(urlMsOrders)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new DeadlineExchangeFilter("order", meterRegistry))
+                .filter(new DownstreamMetricsFilter("order", meterRegistry, http.getMaxConnections()))
                 .build();
     }
 
-}
\ No newline at end of file
+}
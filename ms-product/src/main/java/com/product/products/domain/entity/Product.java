@@ -22,7 +22,7 @@ import java.time.LocalDateTime;
  * - Builder pattern pour une construction flexible
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(name = "idx_products_stock", columnList = "stock"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -70,4 +70,11 @@ public class Product {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    /**
+     * Verrou optimiste pour les mises à jour complètes (PUT) ; le stock passe par un UPDATE conditionnel.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long version;
 }
@@ -0,0 +1,48 @@
+package com.product.products.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réservation temporaire de stock.
+ * Le stock est décrémenté à la création ; il est rendu si la réservation est libérée ou expire,
+ * et reste acquis si elle est confirmée.
+ * L'index (status, expires_at) permet au balayage d'expiration de ne lire que les réservations échues.
+ */
+@Entity
+@Table(name = "stock_holds",
+        indexes = @Index(name = "idx_stock_holds_status_expires_at", columnList = "status, expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(columnDefinition = "ENUM('ACTIVE', 'COMMITTED', 'RELEASED', 'EXPIRED')", name = "status", nullable = false)
+    private StockHoldStatus status;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,35 @@
+package com.product.products.domain.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "stock_hold_items",
+        indexes = @Index(name = "idx_stock_hold_items_hold_id", columnList = "hold_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHoldItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "hold_id", nullable = false)
+    private Long holdId;
+
+    @NotNull
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Positive(message = "La quantité doit être supérieure à 0")
+    @Column(name = "quantity", nullable = false)
+    private int quantity;
+}
@@ -0,0 +1,8 @@
+package com.product.products.domain.entity;
+
+public enum StockHoldStatus {
+    ACTIVE,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
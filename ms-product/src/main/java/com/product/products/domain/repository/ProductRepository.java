@@ -1,12 +1,16 @@
 package com.product.products.domain.repository;
 
 import com.product.products.domain.entity.Category;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.product.products.domain.entity.Product;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,13 +29,6 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     Optional<Product> findById(Long id);
 
-    /**
-     * Recherche des produits par nom (insensible à la casse)
-     */
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Product> searchByName(String name);
-
-
     /**
      * Recherche les produits par categorie
      */
@@ -44,9 +41,52 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.stock > 0")
     List<Product> findAvailableProduct();
 
+    /**
+     * Pages par clé : produits d'ID supérieur au curseur, par ID croissant (clé primaire)
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    /**
+     * Produits en stock par page. Parcours de la clé primaire dans l'ordre des IDs, arrêté dès la page remplie :
+     * un index sur stock (intervalle) ne fournirait pas cet ordre.
+     */
+    @Query("SELECT p FROM Product p WHERE p.stock > 0 AND p.id > :after ORDER BY p.id")
+    List<Product> findAvailableProductPage(Long after, Limit limit);
+
     /**
      * Compte le nombre d'utilisateurs actifs
      */
     @Query("SELECT COUNT(p) FROM Product p WHERE p.active = true")
     long countActiveProducts();
+
+    /**
+     * Ajoute delta au stock en une seule requête, uniquement si le stock résultant reste positif ou nul.
+     * Incrémente la version pour invalider les mises à jour concurrentes basées sur une lecture antérieure.
+     *
+     * @return Le nombre de lignes modifiées (0 si produit inconnu ou stock insuffisant)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :delta, p.version = p.version + 1, p.updatedAt = :updatedAt " +
+            "WHERE p.id = :id AND p.stock + :delta >= 0")
+    int incrementStock(Long id, int delta, LocalDateTime updatedAt);
+
+    /**
+     * Stock et catégorie d'un produit, sans charger l'entité
+     */
+    interface StockLevel {
+        Long getId();
+
+        Category getCategory();
+
+        int getStock();
+    }
+
+    /**
+     * Produits dont le stock est inférieur à {@code stock}, en une requête sur l'index idx_products_stock
+     */
+    @Query("SELECT p.id AS id, p.category AS category, p.stock AS stock FROM Product p WHERE p.stock < :stock")
+    List<StockLevel> findStockLevelsBelow(int stock);
+
+    @Query("SELECT p.id AS id, p.category AS category, p.stock AS stock FROM Product p WHERE p.id IN :ids")
+    List<StockLevel> findStockLevelsByIdIn(Collection<Long> ids);
 }
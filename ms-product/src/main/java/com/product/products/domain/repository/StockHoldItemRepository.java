@@ -0,0 +1,13 @@
+package com.product.products.domain.repository;
+
+import com.product.products.domain.entity.StockHoldItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockHoldItemRepository extends JpaRepository<StockHoldItem, Long> {
+
+    List<StockHoldItem> findByHoldId(Long holdId);
+}
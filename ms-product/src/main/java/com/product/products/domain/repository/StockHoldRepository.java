@@ -0,0 +1,46 @@
+package com.product.products.domain.repository;
+
+import com.product.products.domain.entity.StockHold;
+import com.product.products.domain.entity.StockHoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository pour l'entité StockHold.
+ * Les changements de statut passent par des UPDATE conditionnels sur le statut ACTIVE,
+ * ce qui départage une confirmation et une expiration concurrentes.
+ */
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    /**
+     * IDs des réservations actives échues, des plus anciennes aux plus récentes (servi par l'index status/expires_at)
+     */
+    @Query("SELECT h.id FROM StockHold h WHERE h.status = :status AND h.expiresAt <= :now ORDER BY h.expiresAt")
+    List<Long> findIdsByStatusAndExpiresAtBefore(StockHoldStatus status, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Confirme la réservation si elle est encore active et non échue
+     *
+     * @return 1 si la réservation a été confirmée, 0 sinon
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockHold h SET h.status = com.product.products.domain.entity.StockHoldStatus.COMMITTED, h.updatedAt = :now " +
+            "WHERE h.id = :id AND h.status = com.product.products.domain.entity.StockHoldStatus.ACTIVE AND h.expiresAt > :now")
+    int commitIfActive(Long id, LocalDateTime now);
+
+    /**
+     * Passe la réservation au statut donné si elle est encore active
+     *
+     * @return 1 si le statut a changé, 0 sinon
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockHold h SET h.status = :status, h.updatedAt = :now WHERE h.id = :id AND h.status = com.product.products.domain.entity.StockHoldStatus.ACTIVE")
+    int closeIfActive(Long id, StockHoldStatus status, LocalDateTime now);
+}
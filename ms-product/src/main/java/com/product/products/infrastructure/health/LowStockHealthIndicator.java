@@ -1,6 +1,7 @@
 package com.product.products.infrastructure.health;
 
-import com.product.products.domain.repository.ProductRepository;
+import com.product.products.application.service.LowStockIndex;
+import com.product.products.configuration.LowStockProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.actuate.health.Health;
@@ -8,34 +9,34 @@ import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 
 /**
- * Health Indicator personnalisé qui vérifie le nombre de produits dont le stock est bas (<5).
+ * Health Indicator personnalisé qui vérifie le nombre de produits dont le stock est bas (sous le seuil de leur catégorie).
+ * Le nombre est lu dans l'index en mémoire {@link LowStockIndex}, sans requête SQL.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class LowStockHealthIndicator implements HealthIndicator {
 
-    private final ProductRepository productRepository;
-    private static final int LOW_STOCK_THRESHOLD = 5;
+    private final LowStockIndex lowStockIndex;
+    private final LowStockProperties lowStockProperties;
 
     @Override
     public Health health() {
         try {
-            long lowStockCount = productRepository.findAll()
-                    .stream()
-                    .filter(p -> p.getStock() < LOW_STOCK_THRESHOLD)
-                    .count();
+            int lowStockCount = lowStockIndex.count();
 
-            log.debug("Health check low-stock - products below {}: {}", LOW_STOCK_THRESHOLD, lowStockCount);
+            log.debug("Health check low-stock - products below threshold: {}", lowStockCount);
 
             if (lowStockCount > 0) {
                 return Health.down()
-                        .withDetail("lowStockThreshold", LOW_STOCK_THRESHOLD)
+                        .withDetail("lowStockThreshold", lowStockProperties.getThreshold())
+                        .withDetail("lowStockCategoryThresholds", lowStockProperties.getCategories())
                         .withDetail("lowStockCount", lowStockCount)
                         .build();
             } else {
                 return Health.up()
-                        .withDetail("lowStockThreshold", LOW_STOCK_THRESHOLD)
+                        .withDetail("lowStockThreshold", lowStockProperties.getThreshold())
+                        .withDetail("lowStockCategoryThresholds", lowStockProperties.getCategories())
                         .withDetail("lowStockCount", lowStockCount)
                         .build();
             }
@@ -0,0 +1,113 @@
+package com.product.products.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Métriques des appels sortants vers un service :
+ * - {@code webclient.downstream.requests} : latence (histogramme) par service, route, méthode et statut
+ * - {@code webclient.downstream.inflight} et {@code webclient.downstream.saturation} : appels en cours, et leur part
+ *   des connexions du pool
+ * - {@code webclient.downstream.pool.rejected} : appels refusés faute de connexion libre
+ */
+public class DownstreamMetricsFilter implements ExchangeFilterFunction {
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    // Message de PoolAcquirePendingLimitException (pending-acquire-max-count atteint)
+    private static final String PENDING_LIMIT_MESSAGE = "Pending acquire queue has reached its maximum size";
+
+    private final String downstream;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter poolRejected;
+
+    public DownstreamMetricsFilter(String downstream, MeterRegistry meterRegistry, int maxConnections) {
+        this.downstream = downstream;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("webclient.downstream.inflight", inFlight, AtomicInteger::get)
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+        Gauge.builder("webclient.downstream.saturation", inFlight, count -> (double) count.get() / maxConnections)
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+        poolRejected = Counter.builder("webclient.downstream.pool.rejected")
+                .tag("downstream", downstream)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String route = route(request);
+        String method = request.method().name();
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            inFlight.incrementAndGet();
+
+            return next.exchange(request)
+                    .doOnSuccess(response -> record(route, method, String.valueOf(response.statusCode().value()), start))
+                    .doOnError(error -> {
+                        if (isPoolRejection(error)) poolRejected.increment();
+                        record(route, method, error.getClass().getSimpleName(), start);
+                    })
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private void record(String route, String method, String status, long start) {
+        Timer.builder("webclient.downstream.requests")
+                .tag("downstream", downstream)
+                .tag("route", route)
+                .tag("method", method)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Route sans identifiants ni paramètres, pour garder un nombre de séries borné.
+     * Les URI construites par concaténation sont aussi exposées comme « template » : seul un vrai template est repris.
+     */
+    private static String route(ClientRequest request) {
+        return request.attribute(URI_TEMPLATE_ATTRIBUTE)
+                .map(String::valueOf)
+                .filter(template -> template.contains("{"))
+                .map(template -> template.split("\\?", 2)[0])
+                .orElseGet(() -> NUMERIC_SEGMENT.matcher(request.url().getPath()).replaceAll("/{id}"));
+    }
+
+    /**
+     * Les exceptions du pool de Reactor Netty sont dans un package interne relocalisé : elles sont reconnues par leur
+     * type public ou leur message. Aucun autre délai n'est appliqué en aval de ce filtre : une TimeoutException ne peut
+     * venir que de l'attente d'une connexion ({@code pending-acquire-timeout})
+     */
+    private static boolean isPoolRejection(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+            String message = cause.getMessage();
+            if (message != null && message.startsWith(PENDING_LIMIT_MESSAGE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
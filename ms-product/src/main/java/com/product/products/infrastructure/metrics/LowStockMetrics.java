@@ -1,6 +1,6 @@
 package com.product.products.infrastructure.metrics;
 
-import com.product.products.domain.repository.ProductRepository;
+import com.product.products.application.service.LowStockIndex;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
@@ -11,27 +11,14 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class LowStockMetrics {
 
-    private final ProductRepository productRepository;
+    private final LowStockIndex lowStockIndex;
     private final MeterRegistry meterRegistry;
 
-    private static final int LOW_STOCK_THRESHOLD = 5;
-
     @PostConstruct
     public void init() {
-        Gauge.builder("products.low_stock.count", this, LowStockMetrics::getLowStockCount)
-                .description("Number of products with stock lower than " + LOW_STOCK_THRESHOLD)
+        // Lu dans l'index en mémoire : une lecture par scrape, sans requête SQL
+        Gauge.builder("products.low_stock.count", lowStockIndex, LowStockIndex::count)
+                .description("Number of products with stock lower than their category threshold")
                 .register(meterRegistry);
     }
-
-    public double getLowStockCount() {
-        try {
-            return productRepository.findAll()
-                    .stream()
-                    .filter(p -> p.getStock() < LOW_STOCK_THRESHOLD)
-                    .count();
-        } catch (Exception e) {
-            // In case of error, return 0 so metric remains available
-            return 0d;
-        }
-    }
 }
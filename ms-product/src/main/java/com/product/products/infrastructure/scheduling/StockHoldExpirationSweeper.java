@@ -0,0 +1,47 @@
+package com.product.products.infrastructure.scheduling;
+
+import com.product.products.application.service.StockHoldService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Balayage périodique des réservations temporaires échues.
+ * Une seule tâche planifiée pour toutes les réservations : chaque passage lit par lots les IDs échus
+ * via l'index (status, expires_at) puis expire chaque réservation dans sa propre transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockHoldExpirationSweeper {
+
+    private final StockHoldService stockHoldService;
+
+    @Value("${stock.hold.sweep-batch-size:500}")
+    private int batchSize = 500;
+
+    @Scheduled(fixedDelayString = "${stock.hold.sweep-interval:PT30S}")
+    public void releaseExpiredHolds() {
+        int expired = 0;
+        List<Long> ids;
+        do {
+            ids = stockHoldService.findExpiredHoldIds(batchSize);
+            for (Long id : ids) {
+                try {
+                    if (stockHoldService.expireHold(id)) expired++;
+                } catch (Exception e) {
+                    log.error("Échec de l'expiration de la réservation {}", id, e);
+                    return; // Réessayé au prochain passage
+                }
+            }
+        } while (ids.size() == batchSize);
+
+        if (expired > 0) {
+            log.info("{} réservations temporaires expirées, stock restitué", expired);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.product.products.infrastructure.web;
+
+import com.product.products.infrastructure.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Échéance de la requête en cours, transmise entre services par l'en-tête {@value #HEADER}.
+ * L'en-tête porte le temps restant en millisecondes plutôt qu'une date, pour ne pas dépendre de l'horloge
+ * de l'appelant. L'échéance est gardée par thread, le temps de la requête.
+ */
+public final class RequestDeadline {
+
+    public static final String HEADER = "X-Request-Deadline";
+
+    private static final ThreadLocal<Instant> CURRENT = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * @return L'échéance correspondant à l'en-tête, vide si sa valeur n'est pas un nombre de millisecondes
+     */
+    public static Optional<Instant> parse(String header) {
+        try {
+            return Optional.of(Instant.now().plusMillis(Long.parseLong(header.trim())));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static Optional<Instant> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    static void set(Instant deadline) {
+        CURRENT.set(deadline);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static Duration remaining(Instant deadline) {
+        return Duration.between(Instant.now(), deadline);
+    }
+
+    /**
+     * Abandonne le traitement si l'échéance de la requête en cours est dépassée
+     */
+    public static void checkNotExpired() {
+        if (current().filter(deadline -> !remaining(deadline).isPositive()).isPresent()) {
+            throw new DeadlineExceededException("L'échéance de la requête est dépassée, traitement abandonné");
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.product.products.infrastructure.web.controller;
 
+import com.product.products.application.dto.KeysetPage;
+import com.product.products.application.dto.LowStockResponseDTO;
+import com.product.products.application.dto.StockHoldRequestDTO;
+import com.product.products.application.dto.StockHoldResponseDTO;
+import com.product.products.application.dto.StockReservationRequestDTO;
 import com.product.products.application.dto.StockUpdateRequestDTO;
 import com.product.products.infrastructure.validation.ValidCategory;
+import com.product.products.infrastructure.web.KeysetPagination;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,7 +25,9 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import com.product.products.application.dto.ProductRequestDTO;
 import com.product.products.application.dto.ProductResponseDTO;
+import com.product.products.application.service.LowStockIndex;
 import com.product.products.application.service.ProductService;
+import com.product.products.application.service.StockHoldService;
 
 import java.net.URI;
 import java.util.List;
@@ -46,14 +54,17 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final StockHoldService stockHoldService;
+    private final LowStockIndex lowStockIndex;
+
     /**
      * GET /api/v1/products
-     * Récupère la liste de tous les produits
+     * Récupère une page de produits, par ID croissant ; la page suivante est indiquée par l'en-tête X-Next-Cursor
      * 
      * @return Liste des produits avec code 200 OK
      */
     @Operation(summary = "Récupérer tous les produits", 
-               description = "Retourne la liste complète de tous les produits enregistrés")
+               description = "Retourne une page de produits par ID croissant ; l'en-tête X-Next-Cursor donne le paramètre after de la page suivante")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200",
                     description = "Liste récupérée avec succès",
@@ -61,12 +72,16 @@ public class ProductController {
                     schema = @Schema(implementation = ProductResponseDTO.class)))
     })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<ProductResponseDTO>> getAllProducts() {
+    public ResponseEntity<List<ProductResponseDTO>> getAllProducts(
+            @Parameter(description = "Curseur : ID du dernier produit de la page précédente (en-tête X-Next-Cursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Nombre maximal de produits (pagination.default-limit si absent)")
+            @RequestParam(required = false) Integer limit) {
         log.info("GET /api/v1/products - Récupération de tous les produits");
         
-        List<ProductResponseDTO> products = productService.getAllProducts();
+        KeysetPage<ProductResponseDTO> products = productService.getProducts(after, limit);
         
-        return ResponseEntity.ok(products);
+        return KeysetPagination.ok(products).body(products.items());
     }
 
     /**
@@ -99,6 +114,33 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    /**
+     * GET /api/v1/products/batch?ids={ids}
+     * Récupère plusieurs produits en une seule requête
+     *
+     * @param ids Les identifiants des produits
+     * @return Les produits trouvés (les identifiants inconnus sont ignorés)
+     */
+    @Operation(summary = "Récupérer plusieurs produits par ID",
+               description = "Retourne les produits correspondant aux IDs fournis, les IDs inconnus sont ignorés")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+                    description = "Liste récupérée avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ProductResponseDTO.class)))
+    })
+    @GetMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductResponseDTO>> getProductsByIds(
+            @Parameter(description = "IDs des produits", required = true)
+            @RequestParam List<Long> ids) {
+
+        log.info("GET /api/v1/products/batch?ids={} - Récupération de {} produits", ids, ids.size());
+
+        List<ProductResponseDTO> products = productService.getProductsByIds(ids);
+
+        return ResponseEntity.ok(products);
+    }
+
     /**
      * POST /api/v1/products
      * Crée un nouvel produit
@@ -215,14 +257,16 @@ public class ProductController {
     }
 
     /**
-     * GET /api/v1/products/search?lastName={lastName}
-     * Recherche des produits par nom
+     * GET /api/v1/products/search?name={name}&limit={limit}
+     * Recherche des produits par nom et description, du plus pertinent au moins pertinent
      *
-     * @param name Le nom à rechercher
+     * @param name Le texte à rechercher
+     * @param limit Nombre maximal de produits
      * @return Liste des produits correspondants
      */
     @Operation(summary = "Rechercher des produits par nom",
-            description = "Recherche des produits dont le nom contient la chaîne spécifiée")
+            description = "Recherche des produits dont le nom ou la description contient la chaîne spécifiée (au moins 2 caractères), " +
+                    "triés par pertinence : nom identique, nom commençant par la chaîne, mot du nom, puis description")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     description = "Recherche effectuée avec succès",
@@ -231,12 +275,14 @@ public class ProductController {
     })
     @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<ProductResponseDTO>> searchProducts(
-            @Parameter(description = "Nom de famille à rechercher", required = true)
-            @RequestParam String name) {
+            @Parameter(description = "Texte à rechercher", required = true)
+            @RequestParam String name,
+            @Parameter(description = "Nombre maximal de produits (search.default-limit si absent)")
+            @RequestParam(required = false) Integer limit) {
 
         log.info("GET /api/v1/products/search?name={} - Recherche de produits", name);
 
-        List<ProductResponseDTO> products = productService.searchProductsByName(name);
+        List<ProductResponseDTO> products = productService.searchProductsByName(name, limit);
 
         return ResponseEntity.ok(products);
     }
@@ -282,12 +328,36 @@ public class ProductController {
                     schema = @Schema(implementation = ProductResponseDTO.class)))
     })
     @GetMapping(value = "/available", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<ProductResponseDTO>> getAvailableProducts() {
+    public ResponseEntity<List<ProductResponseDTO>> getAvailableProducts(
+            @Parameter(description = "Curseur : ID du dernier produit de la page précédente (en-tête X-Next-Cursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Nombre maximal de produits (pagination.default-limit si absent)")
+            @RequestParam(required = false) Integer limit) {
         log.info("GET /api/v1/products/active - Récupération des produits en stock");
         
-        List<ProductResponseDTO> products = productService.getAvailableProducts();
+        KeysetPage<ProductResponseDTO> products = productService.getAvailableProducts(after, limit);
         
-        return ResponseEntity.ok(products);
+        return KeysetPagination.ok(products).body(products.items());
+    }
+
+    /**
+     * GET /api/v1/products/low-stock
+     * Produits en stock bas, lus dans l'index en mémoire
+     *
+     * @return Seuils, nombre et IDs des produits en stock bas
+     */
+    @Operation(summary = "Récupérer les produits en stock bas",
+               description = "Retourne le nombre et les IDs des produits dont le stock est inférieur au seuil de leur catégorie")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Liste récupérée avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = LowStockResponseDTO.class)))
+    })
+    @GetMapping(value = "/low-stock", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<LowStockResponseDTO> getLowStockProducts() {
+        log.info("GET /api/v1/products/low-stock - Récupération des produits en stock bas");
+
+        return ResponseEntity.ok(lowStockIndex.getLowStock());
     }
 
     /**
@@ -319,4 +389,144 @@ public class ProductController {
         
         return ResponseEntity.ok(deactivatedProduct);
     }
+
+    /**
+     * POST /api/v1/products/stock/reservations
+     * Applique plusieurs variations de stock en tout ou rien
+     *
+     * @param reservationDTO Les variations de stock par produit
+     * @return Les produits mis à jour avec leur nouveau stock
+     */
+    @Operation(summary = "Réserver le stock de plusieurs produits",
+               description = "Applique toutes les variations de stock dans une seule transaction, ou aucune")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stock réservé avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ProductResponseDTO.class))),
+        @ApiResponse(responseCode = "404",
+                    description = "Produit non trouvé",
+                    content = @Content),
+        @ApiResponse(responseCode = "412",
+                    description = "Stock insuffisant",
+                    content = @Content)
+    })
+    @PostMapping(value = "/stock/reservations",
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ProductResponseDTO>> reserveStock(
+            @Parameter(description = "Variations de stock à appliquer", required = true)
+            @Valid @RequestBody StockReservationRequestDTO reservationDTO) {
+
+        log.info("POST /api/v1/products/stock/reservations - Réservation de stock pour {} lignes",
+                reservationDTO.getItems().size());
+
+        List<ProductResponseDTO> products = productService.reserveStock(reservationDTO.getItems());
+
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * POST /api/v1/products/stock/holds
+     * Réserve temporairement du stock, rendu automatiquement à expiration
+     *
+     * @param holdRequestDTO Les produits et quantités à réserver
+     * @return La réservation créée avec code 201 CREATED
+     */
+    @Operation(summary = "Réserver temporairement du stock",
+               description = "Décrémente le stock en tout ou rien ; le stock est rendu si la réservation n'est pas confirmée avant expiration")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Réservation créée avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = StockHoldResponseDTO.class))),
+        @ApiResponse(responseCode = "404",
+                    description = "Produit non trouvé",
+                    content = @Content),
+        @ApiResponse(responseCode = "412",
+                    description = "Stock insuffisant",
+                    content = @Content)
+    })
+    @PostMapping(value = "/stock/holds",
+                 consumes = MediaType.APPLICATION_JSON_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockHoldResponseDTO> placeStockHold(
+            @Parameter(description = "Produits et quantités à réserver", required = true)
+            @Valid @RequestBody StockHoldRequestDTO holdRequestDTO) {
+
+        log.info("POST /api/v1/products/stock/holds - Réservation temporaire pour {} lignes",
+                holdRequestDTO.getItems().size());
+
+        StockHoldResponseDTO hold = stockHoldService.placeHold(holdRequestDTO);
+
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(hold.getId())
+                .toUri();
+
+        return ResponseEntity
+                .created(location)
+                .body(hold);
+    }
+
+    /**
+     * POST /api/v1/products/stock/holds/{id}/commit
+     * Confirme une réservation temporaire : le stock reste décrémenté
+     *
+     * @param id L'identifiant de la réservation
+     * @return La réservation confirmée
+     */
+    @Operation(summary = "Confirmer une réservation temporaire",
+               description = "Rend définitive la décrémentation du stock d'une réservation active ; sans effet si elle est déjà confirmée")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Réservation confirmée avec succès",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = StockHoldResponseDTO.class))),
+        @ApiResponse(responseCode = "404",
+                    description = "Réservation non trouvée",
+                    content = @Content),
+        @ApiResponse(responseCode = "412",
+                    description = "Réservation expirée ou libérée",
+                    content = @Content)
+    })
+    @PostMapping(value = "/stock/holds/{id}/commit", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StockHoldResponseDTO> commitStockHold(
+            @Parameter(description = "ID de la réservation", required = true)
+            @PathVariable Long id) {
+
+        log.info("POST /api/v1/products/stock/holds/{}/commit - Confirmation de la réservation", id);
+
+        return ResponseEntity.ok(stockHoldService.commitHold(id));
+    }
+
+    /**
+     * DELETE /api/v1/products/stock/holds/{id}
+     * Libère une réservation temporaire et rend le stock
+     *
+     * @param id L'identifiant de la réservation
+     * @return Code 204 NO CONTENT
+     */
+    @Operation(summary = "Libérer une réservation temporaire",
+               description = "Rend le stock d'une réservation active ; sans effet si elle est déjà libérée ou expirée")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204",
+                    description = "Réservation libérée",
+                    content = @Content),
+        @ApiResponse(responseCode = "404",
+                    description = "Réservation non trouvée",
+                    content = @Content),
+        @ApiResponse(responseCode = "412",
+                    description = "Réservation déjà confirmée",
+                    content = @Content)
+    })
+    @DeleteMapping("/stock/holds/{id}")
+    public ResponseEntity<Void> releaseStockHold(
+            @Parameter(description = "ID de la réservation", required = true)
+            @PathVariable Long id) {
+
+        log.info("DELETE /api/v1/products/stock/holds/{} - Libération de la réservation", id);
+
+        stockHoldService.releaseHold(id);
+
+        return ResponseEntity.noContent().build();
+    }
 }
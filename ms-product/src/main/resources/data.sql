@@ -11,8 +11,27 @@ CREATE TABLE IF NOT EXISTS products (
     image_url VARCHAR(500),
     active BOOLEAN DEFAULT TRUE,
     created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_products_stock ON products (stock);
+
+CREATE TABLE IF NOT EXISTS stock_holds (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    status ENUM('ACTIVE', 'COMMITTED', 'RELEASED', 'EXPIRED') NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
     updated_at TIMESTAMP
 );
+CREATE INDEX IF NOT EXISTS idx_stock_holds_status_expires_at ON stock_holds (status, expires_at);
+
+CREATE TABLE IF NOT EXISTS stock_hold_items (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    hold_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_stock_hold_items_hold_id ON stock_hold_items (hold_id);
 
 -- Insert 10 products
 INSERT INTO products (id, name, description, price, stock, category, image_url, active, created_at, updated_at) VALUES (1, 'Wireless Mouse', 'Ergonomic wireless mouse', 19.99, 120, 'ELECTRONICS', 'http://example.com/img1.jpg', TRUE, '2025-01-01 08:00:00', NULL);
@@ -0,0 +1,122 @@
+package com.product.products.application.service;
+
+import com.product.products.configuration.LowStockProperties;
+import com.product.products.domain.entity.Category;
+import com.product.products.domain.entity.Product;
+import com.product.products.domain.repository.ProductRepository;
+import com.product.products.domain.repository.ProductRepository.StockLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private LowStockIndex lowStockIndex;
+
+    @BeforeEach
+    void setUp() {
+        LowStockProperties properties = new LowStockProperties();
+        properties.getCategories().put(Category.FOOD, 10);
+        lowStockIndex = new LowStockIndex(productRepository, properties);
+    }
+
+    @Test
+    void rebuild_shouldQueryOnceBelowHighestThresholdAndFilterByCategory() {
+        when(productRepository.findStockLevelsBelow(10)).thenReturn(List.of(
+                level(1L, Category.FOOD, 8),
+                level(2L, Category.BOOKS, 8),
+                level(3L, Category.BOOKS, 4)));
+
+        lowStockIndex.rebuild();
+
+        assertThat(lowStockIndex.count()).isEqualTo(2);
+        assertThat(lowStockIndex.productIds()).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void rebuild_shouldRereadProductsChangedWhileReading() {
+        lowStockIndex.update(product(2L, Category.OTHER, 1));
+        // Après la lecture : le produit 1 est réapprovisionné, le produit 2 supprimé et le produit 3 passe en stock bas
+        when(productRepository.findStockLevelsBelow(10)).thenAnswer(invocation -> {
+            lowStockIndex.update(product(1L, Category.OTHER, 50));
+            lowStockIndex.remove(2L);
+            lowStockIndex.update(product(3L, Category.OTHER, 2));
+            return List.of(level(1L, Category.OTHER, 1), level(2L, Category.OTHER, 1));
+        });
+        when(productRepository.findStockLevelsByIdIn(Set.of(1L, 2L, 3L)))
+                .thenReturn(List.of(level(1L, Category.OTHER, 50), level(3L, Category.OTHER, 2)));
+
+        lowStockIndex.rebuild();
+
+        assertThat(lowStockIndex.productIds()).containsExactly(3L);
+
+        // Hors reconstruction, les mises à jour s'appliquent directement
+        lowStockIndex.update(product(1L, Category.OTHER, 0));
+        assertThat(lowStockIndex.productIds()).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void update_shouldAddAndRemoveProductsAsStockCrossesThreshold() {
+        lowStockIndex.update(product(1L, Category.OTHER, 2));
+        lowStockIndex.update(product(2L, Category.OTHER, 5));
+        assertThat(lowStockIndex.productIds()).containsExactly(1L);
+
+        lowStockIndex.update(product(1L, Category.OTHER, 5));
+        lowStockIndex.update(product(2L, Category.FOOD, 5));
+        assertThat(lowStockIndex.productIds()).containsExactly(2L);
+
+        lowStockIndex.remove(2L);
+        assertThat(lowStockIndex.count()).isZero();
+    }
+
+    @Test
+    void update_shouldWaitForTransactionCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lowStockIndex.update(product(1L, Category.OTHER, 0));
+            assertThat(lowStockIndex.count()).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(lowStockIndex.productIds()).containsExactly(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Product product(Long id, Category category, int stock) {
+        return Product.builder().id(id).category(category).stock(stock).build();
+    }
+
+    private static StockLevel level(Long id, Category category, int stock) {
+        return new StockLevel() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Category getCategory() {
+                return category;
+            }
+
+            @Override
+            public int getStock() {
+                return stock;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.product.products.application.service;
+
+import com.product.products.domain.entity.Product;
+import com.product.products.domain.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmark de la recherche dans l'index des trigrammes sur un million de produits générés.
+ * Affiche les latences médiane, p99 et maximale par requête (hors lecture des produits en base).
+ * Les requêtes très peu sélectives sont bornées par {@code search.max-candidates}.
+ * Lancement : {@code mvn test -Dtest=ProductSearchIndexBenchmarkTest -Dbenchmark=true}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ProductSearchIndexBenchmarkTest {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int SEARCHES = 2_000;
+
+    // Mots générés à partir de syllabes : vocabulaire large, trigrammes plus ou moins fréquents comme dans un vrai catalogue
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ne", "ru", "sa", "ti", "vo", "ze", "bra", "cho", "dri", "fla", "gro", "pli", "tra",
+            "mou", "se", "key", "board", "wire", "less", "char", "ger", "ho", "ney", "cof", "fee", "lap", "top"};
+
+    private static final List<String> QUERIES = List.of(
+            "mouse", "wireless mouse", "keyboard", "charger 42", "fla", "ka", "dribra", "xyz");
+
+    @Test
+    void measureSearchLatency() {
+        ProductSearchIndex index = new ProductSearchIndex(mock(ProductRepository.class),
+                new SimpleMeterRegistry());
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        for (long id = 1; id <= PRODUCTS; id++) {
+            index.index(Product.builder()
+                    .id(id)
+                    .name(words(random, 3) + " " + (id % 1000))
+                    .description(words(random, 8))
+                    .build());
+        }
+        log.info("{} produits indexés en {} ms", PRODUCTS, (System.nanoTime() - start) / 1_000_000);
+
+        // Préchauffage (JIT)
+        for (int i = 0; i < SEARCHES; i++) index.search(QUERIES.get(i % QUERIES.size()), 20);
+
+        for (String query : QUERIES) {
+            long[] latencies = new long[SEARCHES];
+            int results = 0;
+            for (int i = 0; i < SEARCHES; i++) {
+                long t = System.nanoTime();
+                results = index.search(query, 20).size();
+                latencies[i] = System.nanoTime() - t;
+            }
+            Arrays.sort(latencies);
+            log.info(String.format("%-16s %2d résultats : médiane %.3f ms, p99 %.3f ms, max %.3f ms", '"' + query + '"', results,
+                    latencies[SEARCHES / 2] / 1e6, latencies[SEARCHES * 99 / 100] / 1e6, latencies[SEARCHES - 1] / 1e6));
+        }
+        assertThat(index.size()).isEqualTo(PRODUCTS);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) text.append(' ');
+            for (int s = 2 + random.nextInt(2); s > 0; s--) {
+                text.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.product.products.application.service;
+
+import com.product.products.domain.entity.Product;
+import com.product.products.domain.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(productRepository, new SimpleMeterRegistry());
+        index.index(product(1L, "Wireless Mouse", "Ergonomic wireless mouse"));
+        index.index(product(2L, "Mouse", "Optical mouse"));
+        index.index(product(3L, "Gaming Mousepad", "Large pad"));
+        index.index(product(4L, "USB-C Charger", "Fast charging adapter for a wireless mouse"));
+        index.index(product(5L, "Café Moulu", "Arabica"));
+    }
+
+    @Test
+    void search_shouldRankNameMatchesBeforeDescriptionMatches() {
+        assertThat(index.search("mouse", 10)).containsExactly(2L, 1L, 3L, 4L);
+        assertThat(index.search("mouse", 2)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void search_shouldIgnoreCaseAccentsAndPunctuation() {
+        assertThat(index.search("CAFE", 10)).containsExactly(5L);
+        assertThat(index.search("usb c", 10)).containsExactly(4L);
+    }
+
+    @Test
+    void search_shouldMatchWordPrefixesForTwoCharacters() {
+        assertThat(index.search("mo", 10)).containsExactly(2L, 5L, 1L, 3L, 4L);
+        assertThat(index.search("m", 10)).isEmpty();
+    }
+
+    @Test
+    void search_shouldFollowUpdatesAndDeletes() {
+        index.index(product(2L, "Keyboard", "Mechanical keyboard"));
+        index.remove(3L);
+
+        assertThat(index.search("mouse", 10)).containsExactly(1L, 4L);
+        assertThat(index.search("keyb", 10)).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void search_shouldFindNameMatchBeyondMaxCandidatesDescriptionMatches() {
+        // Plus de descriptions correspondantes que search.max-candidates (1000), toutes indexées avant le nom
+        for (long id = 100; id < 1600; id++) {
+            index.index(product(id, "Accessory " + id, "Works with any desk lamp"));
+        }
+        index.index(product(2000L, "Desk Lamp", "LED"));
+
+        assertThat(index.search("desk lamp", 3)).first().isEqualTo(2000L);
+        assertThat(index.search("desk lamp", 3)).hasSize(3);
+    }
+
+    @Test
+    void containsName_shouldOnlyMatchNames() {
+        assertThat(index.containsName("mouse")).isTrue();
+        assertThat(index.containsName("MOUSEPAD")).isTrue();
+        assertThat(index.containsName("arabica")).isFalse();
+        assertThat(index.containsName("keyboard")).isFalse();
+    }
+
+    @Test
+    void rebuild_shouldKeepProductsChangedWhileReadingPages() {
+        // Le produit 2 est modifié et le produit 3 supprimé après la lecture de la page qui les contient
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            List<Product> page = List.of(product(2L, "Mouse", "Optical mouse"), product(3L, "Gaming Mousepad", "Large pad"));
+            index.index(product(2L, "Keyboard", "Mechanical keyboard"));
+            index.remove(3L);
+            return page;
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("mouse", 10)).containsExactly(1L, 4L);
+        assertThat(index.search("keyb", 10)).containsExactly(2L);
+    }
+
+    private static Product product(Long id, String name, String description) {
+        return Product.builder().id(id).name(name).description(description).build();
+    }
+}
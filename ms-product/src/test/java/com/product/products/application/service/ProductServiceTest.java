@@ -1,6 +1,7 @@
 package com.product.products.application.service;
 
 import com.product.products.application.dto.ProductResponseDTO;
+import com.product.products.application.dto.StockReservationItemDTO;
 import com.product.products.application.mapper.ProductMapper;
 import com.product.products.domain.entity.Category;
 import com.product.products.domain.entity.Product;
@@ -15,11 +16,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +37,12 @@ public class ProductServiceTest {
     @Mock
     private MeterRegistry meterRegistry;
 
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
     @InjectMocks
     private ProductService productService;
 
@@ -59,4 +68,45 @@ public class ProductServiceTest {
         verify(productRepository, never()).save(any());
     }
 
+    @Test
+    void getProductsByIds_shouldUseSingleQuery() {
+        Product product = Product.builder()
+                .id(1L)
+                .name("P")
+                .description("descdescdesc")
+                .price(new BigDecimal("5.00"))
+                .stock(2)
+                .category(Category.OTHER)
+                .active(true)
+                .build();
+        ProductResponseDTO dto = ProductResponseDTO.builder().id(1L).name("P").build();
+
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(product));
+        when(productMapper.toDto(product)).thenReturn(dto);
+
+        List<ProductResponseDTO> result = productService.getProductsByIds(List.of(1L, 2L));
+
+        assertThat(result).containsExactly(dto);
+        verify(productRepository, times(1)).findAllById(List.of(1L, 2L));
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void reserveStock_shouldRejectAllWhenOneProductIsShort() {
+        Product second = Product.builder().id(2L).name("P2").stock(1).category(Category.OTHER).build();
+
+        when(productRepository.incrementStock(eq(1L), eq(-3), any())).thenReturn(1);
+        when(productRepository.incrementStock(eq(2L), eq(-2), any())).thenReturn(0);
+        when(productRepository.findById(2L)).thenReturn(Optional.of(second));
+
+        assertThatThrownBy(() -> productService.reserveStock(List.of(
+                new StockReservationItemDTO(2L, -2),
+                new StockReservationItemDTO(1L, -3))))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("'P2' (-1)");
+
+        verify(productRepository, never()).findAllById(any());
+        verify(productRepository, never()).saveAll(any());
+    }
+
 }
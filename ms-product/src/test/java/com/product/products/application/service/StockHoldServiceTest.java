@@ -0,0 +1,95 @@
+package com.product.products.application.service;
+
+import com.product.products.domain.entity.StockHold;
+import com.product.products.domain.entity.StockHoldItem;
+import com.product.products.domain.entity.StockHoldStatus;
+import com.product.products.domain.repository.ProductRepository;
+import com.product.products.domain.repository.StockHoldItemRepository;
+import com.product.products.domain.repository.StockHoldRepository;
+import com.product.products.infrastructure.exception.FieldValueException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockHoldServiceTest {
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private StockHoldItemRepository stockHoldItemRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    private StockHoldService stockHoldService;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldService = new StockHoldService(stockHoldRepository, stockHoldItemRepository,
+                productRepository, productService, new SimpleMeterRegistry(), lowStockIndex);
+    }
+
+    @Test
+    void expireHold_shouldRestockEachItemOnce() {
+        when(stockHoldRepository.closeIfActive(eq(1L), eq(StockHoldStatus.EXPIRED), any())).thenReturn(1);
+        when(stockHoldItemRepository.findByHoldId(1L)).thenReturn(List.of(
+                StockHoldItem.builder().holdId(1L).productId(7L).quantity(3).build()));
+        when(productRepository.incrementStock(eq(7L), eq(3), any())).thenReturn(1);
+
+        assertThat(stockHoldService.expireHold(1L)).isTrue();
+
+        verify(productRepository, times(1)).incrementStock(eq(7L), eq(3), any());
+        verify(lowStockIndex).refresh(List.of(7L));
+    }
+
+    @Test
+    void commitHold_shouldFailWhenHoldExpired() {
+        StockHold hold = StockHold.builder().id(1L).status(StockHoldStatus.EXPIRED)
+                .expiresAt(LocalDateTime.now().minusMinutes(1)).build();
+
+        when(stockHoldRepository.commitIfActive(eq(1L), any())).thenReturn(0);
+        when(stockHoldRepository.findById(1L)).thenReturn(Optional.of(hold));
+
+        assertThatThrownBy(() -> stockHoldService.commitHold(1L))
+                .isInstanceOf(FieldValueException.class)
+                .hasMessageContaining("EXPIRED");
+
+        verify(productRepository, never()).incrementStock(any(), anyInt(), any());
+    }
+
+    @Test
+    void commitHold_shouldSucceedWhenHoldAlreadyCommitted() {
+        StockHold hold = StockHold.builder().id(1L).status(StockHoldStatus.COMMITTED)
+                .expiresAt(LocalDateTime.now().plusMinutes(5)).build();
+
+        when(stockHoldRepository.commitIfActive(eq(1L), any())).thenReturn(0);
+        when(stockHoldRepository.findById(1L)).thenReturn(Optional.of(hold));
+        when(stockHoldItemRepository.findByHoldId(1L)).thenReturn(List.of(
+                StockHoldItem.builder().holdId(1L).productId(7L).quantity(3).build()));
+
+        assertThat(stockHoldService.commitHold(1L).getStatus()).isEqualTo("COMMITTED");
+
+        verify(productRepository, never()).incrementStock(any(), anyInt(), any());
+    }
+}